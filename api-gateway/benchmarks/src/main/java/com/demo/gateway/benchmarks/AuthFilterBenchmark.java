@@ -0,0 +1,186 @@
+package com.demo.gateway.benchmarks;
+
+import com.demo.gateway.config.JwtAuthenticationFilter;
+import com.demo.gateway.config.jwt.InternalTokenSigner;
+import com.demo.gateway.config.jwt.JwksKeyStore;
+import com.demo.gateway.config.jwt.JwtHeaderParser;
+import com.demo.gateway.config.jwt.JwtVerificationExecutor;
+import com.demo.gateway.config.jwt.SigningKey;
+import com.demo.gateway.config.jwt.VerifiedTokenCache;
+import com.demo.gateway.config.logging.AuthFailureLogger;
+import com.demo.gateway.config.metrics.AuthMetrics;
+import com.demo.gateway.config.revocation.RevocationList;
+import com.demo.gateway.config.revocation.RevocationProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+import org.springframework.web.server.session.WebSessionManager;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each step of gateway authentication, plus the whole JwtAuthenticationFilter.filter() call
+ *
+ * headerParse     - JwtHeaderParser.extractKid
+ * keyLookup       - JwksKeyStore.getSigningKey for a known kid
+ * jwkToPublicKey  - JwksKeyStore.jwkToPublicKey (JWK n/e to RSA PublicKey, once per new kid)
+ * parserBuild     - SigningKey.of (JwtParser construction, once per new kid)
+ * validate        - RSA signature and claims check with the prebuilt parser
+ * filterCacheHit  - filter() for a token already in the verified-token cache
+ * filterVerify    - filter() with the verified-token cache disabled (every call verifies)
+ *
+ * The filters run against a no-op GatewayFilterChain with inline verification, and the
+ * JWKS is served from a local HTTP server, so filter* include exchange creation but no I/O.
+ * Exchanges share one codec configurer and session manager, as they do inside the gateway.
+ * Run with -prof gc to compare gc.alloc.rate.norm (bytes allocated per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthFilterBenchmark {
+
+    private static final GatewayFilterChain NO_OP_CHAIN = exchange -> Mono.empty();
+
+    private final ServerCodecConfigurer codecConfigurer = ServerCodecConfigurer.create();
+    private final WebSessionManager sessionManager = new DefaultWebSessionManager();
+    private final AcceptHeaderLocaleContextResolver localeResolver = new AcceptHeaderLocaleContextResolver();
+
+    private ClerkTokens tokens;
+    private String token;
+    private String authorization;
+    private SigningKey signingKey;
+    private HttpServer jwksServer;
+    private JwksKeyStore jwksKeyStore;
+    private JwtAuthenticationFilter cachingFilter;
+    private JwtAuthenticationFilter verifyingFilter;
+
+    @Setup
+    public void setUp() throws Exception {
+        tokens = new ClerkTokens();
+        token = tokens.token("user_benchmark", "org_benchmark");
+        authorization = "Bearer " + token;
+        signingKey = SigningKey.of(ClerkTokens.KID, tokens.keyPair().getPublic(), ClerkTokens.ISSUER);
+
+        byte[] jwks = tokens.jwksJson().getBytes(StandardCharsets.UTF_8);
+        jwksServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        jwksServer.createContext("/v1/jwks", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwks.length);
+            exchange.getResponseBody().write(jwks);
+            exchange.close();
+        });
+        jwksServer.start();
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwksKeyStore = new JwksKeyStore(WebClient.builder(), meterRegistry,
+            "http://127.0.0.1:" + jwksServer.getAddress().getPort() + "/v1/jwks", ClerkTokens.ISSUER,
+            Duration.ofHours(1), Duration.ofSeconds(30), Duration.ofSeconds(5), Duration.ofMinutes(1), 1000);
+        jwksKeyStore.start();
+        jwksKeyStore.getSigningKey(ClerkTokens.KID).block(Duration.ofSeconds(10));
+
+        JwtVerificationExecutor inline = new JwtVerificationExecutor("inline", 0, 0, meterRegistry);
+        InternalTokenSigner signer = new InternalTokenSigner("benchmark-internal-token-secret-0123456789");
+        AuthMetrics authMetrics = new AuthMetrics(meterRegistry);
+        AuthFailureLogger authFailureLogger = new AuthFailureLogger(Duration.ofSeconds(10));
+        RevocationList revocationList = new RevocationList(new RevocationProperties(), meterRegistry);
+
+        cachingFilter = new JwtAuthenticationFilter(
+            new VerifiedTokenCache(10_000, Duration.ofMinutes(5), meterRegistry),
+            jwksKeyStore, inline, signer, authMetrics, authFailureLogger, revocationList);
+        // A zero TTL expires every entry on insert, so each call goes through full verification
+        verifyingFilter = new JwtAuthenticationFilter(
+            new VerifiedTokenCache(10_000, Duration.ZERO, meterRegistry),
+            jwksKeyStore, inline, signer, authMetrics, authFailureLogger, revocationList);
+
+        requireAuthenticated(cachingFilter);
+        requireAuthenticated(verifyingFilter);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jwksKeyStore.stop();
+        jwksServer.stop(0);
+    }
+
+    @Benchmark
+    public String headerParse() {
+        return JwtHeaderParser.extractKid(token);
+    }
+
+    @Benchmark
+    public SigningKey keyLookup() {
+        return jwksKeyStore.getSigningKey(ClerkTokens.KID).block();
+    }
+
+    @Benchmark
+    public PublicKey jwkToPublicKey() throws Exception {
+        return JwksKeyStore.jwkToPublicKey(tokens.modulus(), tokens.exponent());
+    }
+
+    @Benchmark
+    public SigningKey parserBuild() {
+        return SigningKey.of(ClerkTokens.KID, signingKey.publicKey(), ClerkTokens.ISSUER);
+    }
+
+    @Benchmark
+    public Claims validate() {
+        return signingKey.parser().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public ServerWebExchange filterCacheHit() {
+        return runFilter(cachingFilter);
+    }
+
+    @Benchmark
+    public ServerWebExchange filterVerify() {
+        return runFilter(verifyingFilter);
+    }
+
+    private ServerWebExchange runFilter(JwtAuthenticationFilter filter) {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/users/me")
+            .header("Authorization", authorization)
+            .build();
+        ServerWebExchange exchange = new DefaultServerWebExchange(
+            request, new MockServerHttpResponse(), sessionManager, codecConfigurer, localeResolver);
+        filter.filter(exchange, NO_OP_CHAIN).block();
+        return exchange;
+    }
+
+    private void requireAuthenticated(JwtAuthenticationFilter filter) {
+        HttpStatusCode status = runFilter(filter).getResponse().getStatusCode();
+        if (status != null && status.isError()) {
+            throw new IllegalStateException("Benchmark token was rejected: " + status);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.demo.gateway.benchmarks;
+
+import io.jsonwebtoken.Jwts;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Locally generated RSA key pair and Clerk-shaped session tokens
+ * No network access or Clerk instance is needed to run the benchmarks
+ */
+public final class ClerkTokens {
+
+    public static final String ISSUER = "https://benchmark.clerk.accounts.dev";
+    public static final String KID = "ins_benchmark_key";
+
+    private final KeyPair keyPair;
+
+    public ClerkTokens() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            this.keyPair = generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public KeyPair keyPair() {
+        return keyPair;
+    }
+
+    /**
+     * Mint a session token shaped like Clerk's (sub, sid, org_id, org_role, org_permissions, azp)
+     */
+    public String token(String userId, String orgId) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+            .header().keyId(KID).and()
+            .issuer(ISSUER)
+            .subject(userId)
+            .id("jti_" + userId + "_" + now)
+            .claim("sid", "sess_" + userId)
+            .claim("azp", "http://localhost:3000")
+            .claim("org_id", orgId)
+            .claim("org_role", "org:admin")
+            .claim("org_slug", "benchmark-org")
+            .claim("org_permissions", List.of("org:sys_memberships:read", "org:sys_memberships:manage"))
+            .issuedAt(new Date(now))
+            .notBefore(new Date(now - 10_000))
+            .expiration(new Date(now + 3_600_000))
+            .signWith(keyPair.getPrivate())
+            .compact();
+    }
+
+    /**
+     * JWKS document publishing the public key under KID, as Clerk's /v1/jwks does
+     */
+    public String jwksJson() {
+        return "{\"keys\":[{\"use\":\"sig\",\"kty\":\"RSA\",\"kid\":\"" + KID + "\",\"alg\":\"RS256\","
+            + "\"n\":\"" + modulus() + "\",\"e\":\"" + exponent() + "\"}]}";
+    }
+
+    /** Base64url-encoded RSA modulus (JWK 'n') */
+    public String modulus() {
+        return base64Url(((RSAPublicKey) keyPair.getPublic()).getModulus());
+    }
+
+    /** Base64url-encoded RSA public exponent (JWK 'e') */
+    public String exponent() {
+        return base64Url(((RSAPublicKey) keyPair.getPublic()).getPublicExponent());
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
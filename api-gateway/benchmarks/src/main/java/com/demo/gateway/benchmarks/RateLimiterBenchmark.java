@@ -0,0 +1,96 @@
+package com.demo.gateway.benchmarks;
+
+import com.demo.gateway.config.ratelimit.RateLimitProperties;
+import com.demo.gateway.config.ratelimit.RateLimiter;
+import com.demo.gateway.config.ratelimit.TokenBucket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the rate limiter allow path under concurrency
+ *
+ * Limits are set high enough that every call is admitted, so this measures what a
+ * normal request pays. Run with different thread counts (-t 1, -t 8, ...) to see how
+ * the single-CAS bucket behaves under contention.
+ *
+ * baseline      - route lookup + nanoTime only, no buckets (limits disabled)
+ * hotTenant     - every thread hits the same user and org bucket (worst-case contention)
+ * manyTenants   - each thread uses its own user, all sharing 16 orgs
+ * bucketOnly    - TokenBucket.tryAcquire on one shared bucket, no map lookup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final String ROUTE = "backend-service";
+
+    private RateLimiter limiter;
+    private RateLimiter unlimited;
+    private TokenBucket sharedBucket;
+
+    @State(Scope.Thread)
+    public static class Tenant {
+        String userId;
+        String orgId;
+
+        @Setup
+        public void setUp() {
+            int n = ThreadLocalRandom.current().nextInt(1_000_000);
+            userId = "user_" + n;
+            orgId = "org_" + (n % 16);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.RouteLimits limits = new RateLimitProperties.RouteLimits();
+        limits.getUser().setPermitsPerSecond(1e12);
+        limits.getUser().setBurst(1_000_000);
+        limits.getOrg().setPermitsPerSecond(1e12);
+        limits.getOrg().setBurst(1_000_000);
+        properties.getRoutes().put(ROUTE, limits);
+        limiter = new RateLimiter(properties);
+
+        unlimited = new RateLimiter(new RateLimitProperties());
+
+        sharedBucket = new TokenBucket(1e12, 1_000_000, System.nanoTime());
+    }
+
+    @Benchmark
+    public Object baseline() {
+        return unlimited.tryAcquire(ROUTE, "user_hot", "org_hot");
+    }
+
+    @Benchmark
+    public Object hotTenant() {
+        return limiter.tryAcquire(ROUTE, "user_hot", "org_hot");
+    }
+
+    @Benchmark
+    public Object manyTenants(Tenant tenant) {
+        return limiter.tryAcquire(ROUTE, tenant.userId, tenant.orgId);
+    }
+
+    @Benchmark
+    public long bucketOnly() {
+        return sharedBucket.tryAcquire(System.nanoTime());
+    }
+}
@@ -1,13 +1,23 @@
 package com.demo.gateway.config;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.demo.gateway.config.jwt.InternalTokenSigner;
+import com.demo.gateway.config.jwt.JwksKeyStore;
+import com.demo.gateway.config.jwt.JwtHeaderParser;
+import com.demo.gateway.config.jwt.JwtVerificationExecutor;
+import com.demo.gateway.config.jwt.OrgClaims;
+import com.demo.gateway.config.jwt.SigningKey;
+import com.demo.gateway.config.jwt.VerifiedToken;
+import com.demo.gateway.config.jwt.VerifiedTokenCache;
+import com.demo.gateway.config.logging.AuthFailureLogger;
+import com.demo.gateway.config.metrics.AuthMetrics;
+import com.demo.gateway.config.revocation.RevocationList;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
@@ -16,17 +26,9 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
-import java.security.KeyFactory;
-import java.security.PublicKey;
-import java.security.spec.X509EncodedKeySpec;
-import java.util.Base64;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.JwtParser;
 
 /**
  * Global filter for JWT authentication
@@ -34,39 +36,56 @@ import io.jsonwebtoken.JwtParser;
  * 
  * Flow:
  * 1. Extract JWT from Authorization header
- * 2. Parse JWT to get key ID (kid)
- * 3. Fetch public key from Clerk JWKS endpoint
- * 4. Validate JWT signature and claims
- * 5. Extract user ID and org ID from claims
- * 6. Add X-User-Id and X-Org-Id headers for backend service
+ *    (tokens verified earlier are served from VerifiedTokenCache, skipping steps 2-4)
+ * 2. Parse JWT header to get key ID (kid)
+ * 3. Resolve public key from JwksKeyStore (non-blocking, refreshed in the background)
+ * 4. Validate JWT signature and claims (on JwtVerificationExecutor; 503 when saturated)
+ * 5. Extract user ID, org ID, org role and org permissions from claims, and reject tokens
+ *    whose jti or session (sid) is in the RevocationList (checked on cache hits too)
+ * 6. Add X-User-Id, X-Org-Id, X-Org-Role and X-Org-Permissions headers for backend service,
+ *    plus the HMAC-signed X-Internal-Identity token (minted once per verified token)
  * 7. Allow webhook endpoints without authentication
+ * 
+ * Identity headers supplied by the client are always removed first, so the backend
+ * can trust them (including on unauthenticated paths).
+ *
+ * Authentication latency and rejections are recorded through AuthMetrics; rejections are
+ * logged as periodic summaries by AuthFailureLogger rather than one line per request.
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
     
-    @Value("${clerk.jwks.url:https://api.clerk.dev/v1/jwks}")
-    private String jwksUrl;
-    
-    @Value("${clerk.issuer:https://clerk.dev}")
-    private String issuer;
+    /** Headers only the gateway may set */
+    private static final List<String> IDENTITY_HEADERS =
+        List.of("X-User-Id", "X-Org-Id", "X-Org-Role", "X-Org-Permissions",
+            InternalTokenSigner.HEADER, InternalTokenSigner.WEBHOOK_HEADER);
     
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final Map<String, PublicKey> publicKeyCache = new ConcurrentHashMap<>();
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final JwksKeyStore jwksKeyStore;
+    private final JwtVerificationExecutor verificationExecutor;
+    private final InternalTokenSigner internalTokenSigner;
+    private final AuthMetrics authMetrics;
+    private final AuthFailureLogger authFailureLogger;
+    private final RevocationList revocationList;
     
     @Override
-    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+    public Mono<Void> filter(ServerWebExchange incoming, GatewayFilterChain chain) {
+        ServerWebExchange exchange = stripIdentityHeaders(incoming);
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getURI().getPath();
         
         // Allow webhook endpoints without authentication
         if (path.startsWith("/api/webhooks")) {
-            log.debug("Allowing webhook endpoint without authentication: {}", path);
-            // Debug: Log all headers for webhook requests
-            log.debug("Webhook request headers: {}", request.getHeaders().keySet());
-            log.debug("Svix-Id header: {}", request.getHeaders().getFirst("Svix-Id"));
-            log.debug("Svix-Signature header: {}", request.getHeaders().getFirst("Svix-Signature"));
-            log.debug("Svix-Timestamp header: {}", request.getHeaders().getFirst("Svix-Timestamp"));
+            if (log.isDebugEnabled()) {
+                log.debug("Allowing webhook endpoint without authentication: {}", path);
+                // Debug: Log all headers for webhook requests
+                log.debug("Webhook request headers: {}", request.getHeaders().keySet());
+                log.debug("Svix-Id header: {}", request.getHeaders().getFirst("Svix-Id"));
+                log.debug("Svix-Signature header: {}", request.getHeaders().getFirst("Svix-Signature"));
+                log.debug("Svix-Timestamp header: {}", request.getHeaders().getFirst("Svix-Timestamp"));
+            }
             
             // Explicitly preserve all Svix headers when forwarding to backend
             // Spring Cloud Gateway should forward all headers by default, but we ensure it here
@@ -102,69 +121,118 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
             return chain.filter(exchange);
         }
         
+        long authStart = System.nanoTime();
+        
         // Extract JWT from Authorization header
         String authHeader = request.getHeaders().getFirst("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            log.warn("Missing or invalid Authorization header");
+            authFailureLogger.record("missing_token");
+            authMetrics.recordRejected("missing_token", authStart);
             return unauthorized(exchange);
         }
         
         String token = authHeader.substring(7);
         
+        // Reuse a previous verification of the same token if we have one
+        String cacheKey = verifiedTokenCache.keyFor(token);
+        VerifiedToken cached = verifiedTokenCache.get(cacheKey);
+        
+        Mono<VerifiedToken> verification;
+        if (cached != null) {
+            authMetrics.recordCacheHit(authStart);
+            verification = Mono.just(cached);
+        } else {
+            verification = verifyToken(token).doOnNext(verified -> {
+                verifiedTokenCache.put(cacheKey, verified);
+                authMetrics.recordVerified(authStart);
+            });
+        }
+        
+        return verification
+            .onErrorResume(e -> {
+                if (e instanceof JwtVerificationExecutor.VerificationOverloadedException) {
+                    authFailureLogger.record("overloaded");
+                    authMetrics.recordRejected("overloaded", authStart);
+                    return serviceUnavailable(exchange).then(Mono.empty());
+                }
+                String reason = authFailureLogger.record(e);
+                authMetrics.recordRejected(reason, authStart);
+                return unauthorized(exchange).then(Mono.empty());
+            })
+            .flatMap(verified -> {
+                // Signature and exp are fine, but the session may have been ended since the token was issued
+                if (revocationList.isRevoked(verified.tokenId()) || revocationList.isRevoked(verified.sessionId())) {
+                    authFailureLogger.record("revoked");
+                    authMetrics.recordRejected("revoked", authStart);
+                    return unauthorized(exchange);
+                }
+                
+                // Add headers for backend service
+                ServerHttpRequest modifiedRequest = request.mutate()
+                    .header("X-User-Id", verified.userId())
+                    .header("X-Org-Id", verified.orgId() != null ? verified.orgId() : "")
+                    .headers(headers -> {
+                        if (verified.orgRole() != null) {
+                            headers.set("X-Org-Role", verified.orgRole());
+                        }
+                        if (verified.orgPermissions() != null) {
+                            headers.set("X-Org-Permissions", verified.orgPermissions());
+                        }
+                        if (verified.internalToken() != null) {
+                            headers.set(InternalTokenSigner.HEADER, verified.internalToken());
+                        }
+                    })
+                    .build();
+                
+                log.debug("JWT validated. User: {}, Org: {}, Role: {}", verified.userId(), verified.orgId(), verified.orgRole());
+                exchange.getAttributes().put(VerifiedToken.EXCHANGE_ATTRIBUTE, verified);
+                
+                return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            });
+    }
+    
+    /**
+     * Verify a token that is not in the verified-token cache
+     * The signing key is resolved without blocking the event loop, and the RSA
+     * verification itself runs on the JwtVerificationExecutor
+     */
+    private Mono<VerifiedToken> verifyToken(String token) {
+        String kid;
         try {
-            // Parse and validate JWT
-            Claims claims = validateJwt(token);
+            // Parse JWT header to get key ID (kid) - streaming scan, no tree model
+            kid = JwtHeaderParser.extractKid(token);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        
+        // Get signing key (with its prebuilt parser) from the JWKS key store
+        return jwksKeyStore.getSigningKey(kid).flatMap(signingKey -> verificationExecutor.execute(() -> {
+            Claims claims = validateJwt(token, signingKey);
             
-            // Extract user ID and org ID from claims
+            // Extract user ID and active organization claims
             String userId = claims.getSubject(); // Clerk uses 'sub' for user ID
-            String orgId = claims.get("org_id", String.class);
+            String orgId = OrgClaims.orgId(claims);
             
             if (userId == null) {
-                log.warn("JWT missing user ID (sub claim)");
-                return unauthorized(exchange);
+                throw new IllegalArgumentException("JWT missing user ID (sub claim)");
             }
             
-            // Add headers for backend service
-            ServerHttpRequest modifiedRequest = request.mutate()
-                .header("X-User-Id", userId)
-                .header("X-Org-Id", orgId != null ? orgId : "")
-                .build();
-            
-            log.debug("JWT validated. User: {}, Org: {}", userId, orgId);
-            
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
-            
-        } catch (Exception e) {
-            log.error("JWT validation failed", e);
-            return unauthorized(exchange);
-        }
+            long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : 0L;
+            String orgRole = OrgClaims.role(claims);
+            String orgPermissions = OrgClaims.permissions(claims);
+            String internalToken = internalTokenSigner.mint(userId, orgId, orgRole, orgPermissions, expiresAt);
+            String sessionId = claims.get("sid", String.class);
+            return new VerifiedToken(userId, orgId, orgRole, orgPermissions, expiresAt, internalToken,
+                claims.getId(), sessionId);
+        }));
     }
     
     /**
-     * Validate JWT token using Clerk JWKS
+     * Validate JWT signature and claims using the key's prebuilt parser
      */
-    private Claims validateJwt(String token) throws Exception {
-        // Parse JWT header to get key ID (kid)
-        String[] parts = token.split("\\.");
-        if (parts.length != 3) {
-            throw new IllegalArgumentException("Invalid JWT format");
-        }
-        
-        String headerJson = new String(Base64.getUrlDecoder().decode(parts[0]), StandardCharsets.UTF_8);
-        JsonNode header = objectMapper.readTree(headerJson);
-        String kid = header.get("kid").asText();
-        
-        // Get public key from cache or fetch from JWKS
-        PublicKey publicKey = getPublicKey(kid);
-        
-        // Build JWT parser (jjwt 0.12.x API)
-        JwtParser parser = Jwts.parser()
-            .verifyWith(publicKey)
-            .requireIssuer(issuer)
-            .build();
-        
-        // Parse and validate JWT
-        Claims claims = parser.parseSignedClaims(token).getPayload();
+    private Claims validateJwt(String token, SigningKey signingKey) {
+        // Parse and validate JWT (signature, issuer, exp)
+        Claims claims = signingKey.parser().parseSignedClaims(token).getPayload();
         
         // Additional validation
         if (claims.getExpiration() != null && claims.getExpiration().getTime() < System.currentTimeMillis()) {
@@ -175,91 +243,52 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
     }
     
     /**
-     * Get public key from cache or fetch from Clerk JWKS endpoint
+     * Remove identity headers sent by the client so they cannot impersonate a user or role
      */
-    private PublicKey getPublicKey(String kid) throws Exception {
-        // Check cache first
-        if (publicKeyCache.containsKey(kid)) {
-            return publicKeyCache.get(kid);
-        }
-        
-        // Fetch JWKS from Clerk
-        String jwksJson = fetchJwks();
-        JsonNode jwks = objectMapper.readTree(jwksJson);
-        
-        // Find the key with matching kid
-        JsonNode keys = jwks.get("keys");
-        if (keys == null || !keys.isArray()) {
-            throw new RuntimeException("Invalid JWKS format");
-        }
-        
-        for (JsonNode key : keys) {
-            if (kid.equals(key.get("kid").asText())) {
-                // Extract public key
-                String modulus = key.get("n").asText();
-                String exponent = key.get("e").asText();
-                
-                // Convert RSA public key from JWK format
-                PublicKey publicKey = jwkToPublicKey(modulus, exponent);
-                
-                // Cache the key
-                publicKeyCache.put(kid, publicKey);
-                
-                return publicKey;
+    private ServerWebExchange stripIdentityHeaders(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        boolean present = false;
+        for (String name : IDENTITY_HEADERS) {
+            if (headers.containsKey(name)) {
+                present = true;
+                break;
             }
         }
-        
-        throw new RuntimeException("Key not found in JWKS: " + kid);
-    }
-    
-    /**
-     * Fetch JWKS from Clerk endpoint
-     */
-    private String fetchJwks() throws Exception {
-        java.net.http.HttpClient client = java.net.http.HttpClient.newHttpClient();
-        java.net.http.HttpRequest request = java.net.http.HttpRequest.newBuilder()
-            .uri(java.net.URI.create(jwksUrl))
-            .GET()
-            .build();
-        
-        java.net.http.HttpResponse<String> response = client.send(request, 
-            java.net.http.HttpResponse.BodyHandlers.ofString());
-        
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("Failed to fetch JWKS: " + response.statusCode());
+        if (!present) {
+            return exchange;
         }
         
-        return response.body();
+        authMetrics.recordStrippedIdentityHeaders();
+        ServerHttpRequest stripped = exchange.getRequest().mutate()
+            .headers(mutable -> IDENTITY_HEADERS.forEach(mutable::remove))
+            .build();
+        return exchange.mutate().request(stripped).build();
     }
     
     /**
-     * Convert JWK (JSON Web Key) to Java PublicKey
-     * This is a simplified version - in production, use a library like jose4j or nimbus-jose-jwt
+     * Return 401 Unauthorized response
      */
-    private PublicKey jwkToPublicKey(String modulus, String exponent) throws Exception {
-        // Decode base64url-encoded values
-        byte[] nBytes = Base64.getUrlDecoder().decode(modulus);
-        byte[] eBytes = Base64.getUrlDecoder().decode(exponent);
+    private Mono<Void> unauthorized(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().add("Content-Type", "application/json");
         
-        // Convert to BigInteger
-        java.math.BigInteger n = new java.math.BigInteger(1, nBytes);
-        java.math.BigInteger e = new java.math.BigInteger(1, eBytes);
+        String body = "{\"error\":\"Unauthorized\",\"message\":\"Invalid or missing JWT token\"}";
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
         
-        // Create RSA public key
-        java.security.spec.RSAPublicKeySpec spec = new java.security.spec.RSAPublicKeySpec(n, e);
-        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-        return keyFactory.generatePublic(spec);
+        return response.writeWith(Mono.just(buffer));
     }
     
     /**
-     * Return 401 Unauthorized response
+     * Return 503 Service Unavailable when JWT verification is saturated
      */
-    private Mono<Void> unauthorized(ServerWebExchange exchange) {
+    private Mono<Void> serviceUnavailable(ServerWebExchange exchange) {
         ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
         response.getHeaders().add("Content-Type", "application/json");
+        response.getHeaders().add("Retry-After", "1");
         
-        String body = "{\"error\":\"Unauthorized\",\"message\":\"Invalid or missing JWT token\"}";
+        String body = "{\"error\":\"Service Unavailable\",\"message\":\"Authentication is overloaded, retry shortly\"}";
         DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
         
         return response.writeWith(Mono.just(buffer));
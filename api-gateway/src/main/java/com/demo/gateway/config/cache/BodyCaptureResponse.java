@@ -0,0 +1,93 @@
+package com.demo.gateway.config.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Response decorator that buffers the upstream body and hands a replayable copy to a callback
+ *
+ * The body is joined into one buffer, copied once into a byte[] for the callback, and that
+ * same array is written to the client. Callers decide whether to keep the capture.
+ *
+ * At most maxBodyBytes are held: a larger body is streamed through to the client as it
+ * arrives and the callback is not called.
+ */
+public class BodyCaptureResponse extends ServerHttpResponseDecorator {
+
+    /** Connection-level headers that must not be replayed on another connection */
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(
+        HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH,
+        HttpHeaders.UPGRADE, HttpHeaders.TRAILER, HttpHeaders.PROXY_AUTHENTICATE);
+
+    private final Consumer<CachedResponse> onCaptured;
+    private final long ttlNanos;
+    private final long maxBodyBytes;
+
+    public BodyCaptureResponse(ServerHttpResponse delegate, long ttlNanos, long maxBodyBytes,
+                               Consumer<CachedResponse> onCaptured) {
+        super(delegate);
+        this.ttlNanos = ttlNanos;
+        this.maxBodyBytes = maxBodyBytes;
+        this.onCaptured = onCaptured;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        // One list with the whole body if it fits; otherwise the buffers up to the one that crosses
+        // the limit, then each further buffer on its own
+        AtomicLong size = new AtomicLong();
+        Flux<List<DataBuffer>> chunks = Flux.<DataBuffer>from(body)
+            .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxBodyBytes);
+
+        return chunks
+            .switchOnFirst((first, all) -> {
+                if (first.hasValue() && size.get() <= maxBodyBytes) {
+                    // Emitted as the body completed: the whole body
+                    return capture(first.get());
+                }
+                if (first.isOnComplete()) {
+                    // Empty body
+                    return capture(List.of(bufferFactory().allocateBuffer(0)));
+                }
+                // Too large (or failed): pass through without capturing
+                return super.writeWith(all.concatMapIterable(buffers -> buffers));
+            })
+            .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+            .then();
+    }
+
+    private Mono<Void> capture(List<DataBuffer> buffers) {
+        DataBuffer joined = bufferFactory().join(buffers);
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+
+        onCaptured.accept(new CachedResponse(
+            getStatusCode(),
+            replayableHeaders(getHeaders()),
+            bytes,
+            System.nanoTime() + ttlNanos
+        ));
+        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+    }
+
+    /**
+     * Copy of the response headers without hop-by-hop headers
+     */
+    public static HttpHeaders replayableHeaders(HttpHeaders source) {
+        HttpHeaders copy = new HttpHeaders();
+        copy.putAll(source);
+        HOP_BY_HOP_HEADERS.forEach(copy::remove);
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+}
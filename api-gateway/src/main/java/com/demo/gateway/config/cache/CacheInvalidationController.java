@@ -0,0 +1,67 @@
+package com.demo.gateway.config.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Invalidation endpoint for the response cache, called by backend-service after commits
+ *
+ * POST /internal/cache/invalidations
+ * Authorization: Bearer <gateway.response-cache.invalidation-secret>
+ * {"userIds": ["user_123", ...], "all": false}
+ *
+ * Not part of any gateway route, so it is served by the gateway itself and never proxied.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationController {
+
+    private final ResponseCache responseCache;
+    private final ResponseCacheProperties properties;
+
+    @PostMapping("/internal/cache/invalidations")
+    public ResponseEntity<Map<String, Object>> invalidate(
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestBody InvalidationRequest request) {
+
+        if (!isAuthorized(authorization)) {
+            log.warn("Rejected cache invalidation with missing or invalid secret");
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+        }
+
+        if (request.all()) {
+            responseCache.invalidateAll();
+            return ResponseEntity.ok(Map.of("invalidated", "all"));
+        }
+
+        List<String> userIds = request.userIds() != null ? request.userIds() : List.of();
+        if (!userIds.isEmpty()) {
+            responseCache.invalidateUsers(userIds);
+        }
+        return ResponseEntity.ok(Map.of("invalidated", userIds.size()));
+    }
+
+    private boolean isAuthorized(String authorization) {
+        String secret = properties.getInvalidationSecret();
+        if (secret == null || secret.isEmpty() || authorization == null || !authorization.startsWith("Bearer ")) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+            secret.getBytes(StandardCharsets.UTF_8),
+            authorization.substring(7).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public record InvalidationRequest(List<String> userIds, boolean all) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.demo.gateway.config.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * A fully buffered upstream response that can be replayed to another client
+ *
+ * @param status Response status
+ * @param headers Response headers (hop-by-hop headers removed, read-only)
+ * @param body Response body bytes
+ * @param expiresAtNanos System.nanoTime() after which the response must not be served
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, long expiresAtNanos) {
+
+    public boolean isExpired(long nowNanos) {
+        return nowNanos - expiresAtNanos > 0;
+    }
+
+    /**
+     * Replay this response to a client without calling the backend
+     * markerHeader (e.g. X-Cache) is set after the stored headers so it always reflects this replay
+     */
+    public Mono<Void> writeTo(ServerHttpResponse response, String markerHeader, String markerValue) {
+        response.setStatusCode(status);
+        response.getHeaders().putAll(headers);
+        response.getHeaders().set(markerHeader, markerValue);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,200 @@
+package com.demo.gateway.config.cache;
+
+import com.demo.gateway.config.jwt.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Global filter that collapses concurrent identical GETs into one upstream call
+ *
+ * The first request for a key (path + query + identity) becomes the leader and goes to
+ * the backend; identical requests arriving while it is in flight wait for its response,
+ * which is buffered once and replayed to each of them (X-Coalesced: true).
+ *
+ * Bounds:
+ * - at most gateway.coalescing.max-waiters followers per key; more make their own call
+ * - followers wait at most gateway.coalescing.max-wait, then make their own call
+ * - if the leader fails, gets anything but a 200, or its response has Set-Cookie or is
+ *   larger than gateway.coalescing.max-body-size, followers make their own call
+ *
+ * org_role paths are keyed on the {orgId} in the path plus the callers' active org and role.
+ * The token only carries the role for the active org, so their response is shared only when
+ * the backend confirms (X-Resource-Org-Id) that the path org is that active org; for any
+ * other org followers make their own call.
+ *
+ * Runs after ResponseCacheFilter, so only cache misses are coalesced.
+ */
+@Component
+@Slf4j
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    /** Clerk ID of the organization a backend response is about (set by backend-service) */
+    static final String RESOURCE_ORG_HEADER = "X-Resource-Org-Id";
+
+    private final RequestCoalescingProperties properties;
+    private final List<CompiledRule> rules;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+
+    public RequestCoalescingFilter(RequestCoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rules = properties.getPaths().stream()
+            .map(rule -> new CompiledRule(PathPatternParser.defaultInstance.parse(rule.getPattern()), rule.getIdentity()))
+            .toList();
+        this.leaders = counter(meterRegistry, "leader");
+        this.followers = counter(meterRegistry, "follower");
+        this.fallbacks = counter(meterRegistry, "fallback");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("gateway.coalescing.requests")
+            .description("Coalescable GETs by role (leader = upstream call, follower = shared response)")
+            .tag("role", role)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled() || !HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        VerifiedToken verified = exchange.getAttribute(VerifiedToken.EXCHANGE_ATTRIBUTE);
+        if (verified == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        CoalescingKey key = coalescingKey(verified, request);
+        if (key == null) {
+            return chain.filter(exchange);
+        }
+
+        InFlight created = new InFlight(key.sharedOrg());
+        InFlight existing = inFlight.putIfAbsent(key.value(), created);
+        if (existing == null) {
+            return lead(exchange, chain, key.value(), created);
+        }
+        return follow(exchange, chain, existing);
+    }
+
+    /**
+     * Call the backend and publish the buffered response to any followers
+     */
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key, InFlight flight) {
+        leaders.increment();
+        BodyCaptureResponse capture = new BodyCaptureResponse(exchange.getResponse(), 0L,
+            properties.getMaxBodySize().toBytes(), response -> {
+            // Only a 200 is shared: 5xx and load-shedding 503s must not fan out to every waiter
+            if (response.status() != null && response.status().value() == HttpStatus.OK.value()
+                    && !response.headers().containsKey(HttpHeaders.SET_COOKIE)
+                    && (flight.sharedOrg == null
+                        || flight.sharedOrg.equals(response.headers().getFirst(RESOURCE_ORG_HEADER)))) {
+                flight.result.tryEmitValue(response);
+            }
+        });
+        return chain.filter(exchange.mutate().response(capture).build())
+            .doFinally(signal -> {
+                inFlight.remove(key, flight);
+                // No shareable response (error, cancel, non-200, Set-Cookie): release followers to call upstream
+                flight.result.tryEmitEmpty();
+            });
+    }
+
+    /**
+     * Wait for the leader's response, or fall back to an own upstream call
+     */
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, InFlight flight) {
+        if (flight.waiters.incrementAndGet() > properties.getMaxWaiters()) {
+            fallbacks.increment();
+            return chain.filter(exchange);
+        }
+
+        return flight.result.asMono()
+            .timeout(properties.getMaxWait(), Mono.empty())
+            .flatMap(response -> {
+                followers.increment();
+                return response.writeTo(exchange.getResponse(), "X-Coalesced", "true").thenReturn(Boolean.TRUE);
+            })
+            .switchIfEmpty(Mono.defer(() -> {
+                fallbacks.increment();
+                return chain.filter(exchange).thenReturn(Boolean.FALSE);
+            }))
+            .then();
+    }
+
+    /**
+     * Key for a coalescable request, or null if its path is not configured
+     */
+    private CoalescingKey coalescingKey(VerifiedToken verified, ServerHttpRequest request) {
+        PathContainer requestPath = request.getPath().pathWithinApplication();
+        for (CompiledRule rule : rules) {
+            PathPattern.PathMatchInfo match = rule.pattern().matchAndExtract(requestPath);
+            if (match != null) {
+                return coalescingKey(verified, rule.identity(), match.getUriVariables().get("orgId"), request);
+            }
+        }
+        return null;
+    }
+
+    private static CoalescingKey coalescingKey(VerifiedToken verified, RequestCoalescingProperties.Identity identity,
+                                               String pathOrgId, ServerHttpRequest request) {
+        String org = verified.orgId() != null ? verified.orgId() : "";
+        String query = request.getURI().getRawQuery();
+        String path = request.getURI().getRawPath();
+        String target = query == null ? path : path + "?" + query;
+
+        if (identity == RequestCoalescingProperties.Identity.ORG_ROLE && pathOrgId != null
+                && !org.isEmpty() && verified.orgRole() != null) {
+            // Shared only if the backend confirms the path org is the active org the role belongs to
+            return new CoalescingKey("org:" + pathOrgId + " role:" + verified.orgRole() + " " + org + " " + target, org);
+        }
+        return new CoalescingKey("user:" + verified.userId() + " " + org + " " + target, null);
+    }
+
+    @Override
+    public int getOrder() {
+        return -70; // After ResponseCacheFilter (-80)
+    }
+
+    private record CompiledRule(PathPattern pattern, RequestCoalescingProperties.Identity identity) {
+    }
+
+    /**
+     * @param sharedOrg Clerk org ID the response must be about to be shared (null: no check)
+     */
+    private record CoalescingKey(String value, String sharedOrg) {
+    }
+
+    private static final class InFlight {
+        private final Sinks.One<CachedResponse> result = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+        private final String sharedOrg;
+
+        private InFlight(String sharedOrg) {
+            this.sharedOrg = sharedOrg;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.demo.gateway.config.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request coalescing settings (gateway.coalescing.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class RequestCoalescingProperties {
+
+    private boolean enabled = false;
+
+    /** Followers beyond this count per in-flight request make their own upstream call */
+    private int maxWaiters = 64;
+
+    /** How long a follower waits for the leader before making its own upstream call */
+    private Duration maxWait = Duration.ofSeconds(5);
+
+    /** Larger leader responses are streamed through and not shared; followers make their own call */
+    private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+    private List<PathRule> paths = new ArrayList<>();
+
+    @Data
+    public static class PathRule {
+        /** Spring PathPattern, e.g. /api/organizations/{orgId}/members */
+        private String pattern;
+
+        /** Who may share a response for this path */
+        private Identity identity = Identity.USER;
+    }
+
+    public enum Identity {
+        /** Same user and active org only (safe for any endpoint) */
+        USER,
+        /**
+         * Any user with the same active org and org role, for a pattern with an {orgId} variable
+         * (the backend's organization ID). Shared only when the response's X-Resource-Org-Id shows
+         * that org is the callers' active org, since the token carries no role for other orgs.
+         * Only for endpoints whose response and authorization depend on nothing but the org and role;
+         * without {orgId} this behaves like USER.
+         */
+        ORG_ROLE
+    }
+}
@@ -0,0 +1,85 @@
+package com.demo.gateway.config.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user store of cached GET responses
+ *
+ * Responses are grouped per Clerk user id, so the backend can invalidate everything a
+ * user might see with one key. The user's entry group is captured when a request starts:
+ * if the user is invalidated while the upstream call is in flight, the (possibly stale)
+ * response is stored into the detached group and never served.
+ *
+ * - Bounded by number of users (W-TinyLFU), idle groups expire after the TTL
+ * - Each response carries its own expiry (gateway.response-cache.ttl)
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+
+    private final Cache<String, UserEntries> users;
+    private final Counter invalidatedUsers;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumUsers())
+            .expireAfterAccess(properties.getTtl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "gateway.response.users");
+        this.invalidatedUsers = Counter.builder("gateway.response.cache.invalidations")
+            .description("User entries dropped on backend invalidation")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The user's current entry group (created on first use)
+     */
+    public UserEntries entriesFor(String userId) {
+        return users.get(userId, id -> new UserEntries());
+    }
+
+    public void invalidateUsers(Collection<String> userIds) {
+        users.invalidateAll(userIds);
+        invalidatedUsers.increment(userIds.size());
+        log.debug("Invalidated cached responses for {} user(s)", userIds.size());
+    }
+
+    public void invalidateAll() {
+        long count = users.estimatedSize();
+        users.invalidateAll();
+        invalidatedUsers.increment(count);
+        log.debug("Invalidated all cached responses");
+    }
+
+    /**
+     * Cached responses of one user, keyed by org + path + query
+     */
+    public static final class UserEntries {
+
+        private final Map<String, CachedResponse> responses = new ConcurrentHashMap<>();
+
+        public CachedResponse get(String key, long nowNanos) {
+            CachedResponse response = responses.get(key);
+            if (response != null && response.isExpired(nowNanos)) {
+                responses.remove(key, response);
+                return null;
+            }
+            return response;
+        }
+
+        public void put(String key, CachedResponse response) {
+            responses.put(key, response);
+        }
+    }
+}
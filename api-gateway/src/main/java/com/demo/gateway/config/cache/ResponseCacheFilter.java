@@ -0,0 +1,116 @@
+package com.demo.gateway.config.cache;
+
+import com.demo.gateway.config.jwt.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Global filter serving selected user-scoped GETs from ResponseCache
+ *
+ * Only GETs to gateway.response-cache.paths from an authenticated user are cached,
+ * keyed by user id (X-User-Id), active org and path + query. Only 200 responses without
+ * Set-Cookie or Cache-Control: no-store, and no larger than gateway.response-cache.max-body-size,
+ * are stored. Responses carry X-Cache: HIT or MISS.
+ *
+ * Entries expire after the TTL and are dropped early when the backend reports a change
+ * to the user through /internal/cache/invalidations.
+ */
+@Component
+@Slf4j
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private final ResponseCache responseCache;
+    private final ResponseCacheProperties properties;
+    private final Set<String> cacheablePaths;
+    private final long ttlNanos;
+    private final long maxBodyBytes;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResponseCacheFilter(ResponseCache responseCache, ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.responseCache = responseCache;
+        this.properties = properties;
+        this.cacheablePaths = new HashSet<>(properties.getPaths());
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.maxBodyBytes = properties.getMaxBodySize().toBytes();
+        this.hits = Counter.builder("gateway.response.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("gateway.response.cache.requests").tag("result", "miss").register(meterRegistry);
+        if (properties.isEnabled()) {
+            log.info("Response cache enabled for {} (ttl {})", cacheablePaths, properties.getTtl());
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.GET.equals(request.getMethod()) || !cacheablePaths.contains(request.getURI().getPath())) {
+            return chain.filter(exchange);
+        }
+
+        VerifiedToken verified = exchange.getAttribute(VerifiedToken.EXCHANGE_ATTRIBUTE);
+        if (verified == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(verified, request);
+        ResponseCache.UserEntries entries = responseCache.entriesFor(verified.userId());
+        CachedResponse cached = entries.get(key, System.nanoTime());
+        if (cached != null) {
+            hits.increment();
+            return cached.writeTo(exchange.getResponse(), "X-Cache", "HIT");
+        }
+
+        misses.increment();
+        ServerHttpResponse original = exchange.getResponse();
+        original.getHeaders().set("X-Cache", "MISS");
+        BodyCaptureResponse capture = new BodyCaptureResponse(original, ttlNanos, maxBodyBytes, response -> {
+            if (isCacheable(response)) {
+                entries.put(key, response);
+            }
+        });
+        return chain.filter(exchange.mutate().response(capture).build());
+    }
+
+    private static String cacheKey(VerifiedToken verified, ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String org = verified.orgId() != null ? verified.orgId() : "";
+        return query == null
+            ? org + " " + request.getURI().getRawPath()
+            : org + " " + request.getURI().getRawPath() + "?" + query;
+    }
+
+    private static boolean isCacheable(CachedResponse response) {
+        if (response.status() == null || response.status().value() != HttpStatus.OK.value()) {
+            return false;
+        }
+        if (response.headers().containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = response.headers().getCacheControl();
+        return cacheControl == null || !cacheControl.contains("no-store");
+    }
+
+    @Override
+    public int getOrder() {
+        return -80; // After JwtAuthenticationFilter (-100) and RateLimitFilter (-90)
+    }
+}
@@ -0,0 +1,37 @@
+package com.demo.gateway.config.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gateway response cache settings (gateway.response-cache.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    /** Opt-in: nothing is cached unless enabled */
+    private boolean enabled = false;
+
+    /** How long a cached response may be served without an invalidation */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /** Maximum number of users with cached responses */
+    private long maximumUsers = 10_000;
+
+    /** Larger responses are streamed through and not cached */
+    private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+    /** Exact request paths whose GET responses may be cached per user */
+    private List<String> paths = new ArrayList<>();
+
+    /** Bearer secret the backend must present to /internal/cache/invalidations */
+    private String invalidationSecret = "";
+}
@@ -0,0 +1,176 @@
+package com.demo.gateway.config.concurrency;
+
+import com.demo.gateway.config.upstream.UpstreamResponses;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Route filter that caps in-flight requests to the backend at an adaptive limit
+ *
+ * The limit is estimated per route by AdaptiveConcurrencyLimiter from observed backend
+ * latency and 5xx/timeouts. Requests over their share of the limit are rejected
+ * immediately with 503 instead of queueing inside Tomcat while Postgres is slow.
+ *
+ * Priorities (share of the limit each class may use):
+ * - webhooks (/api/webhooks/**) - webhook-share (default 1.0, shed last)
+ * - writes (non-GET)            - write-share (default 0.9)
+ * - reads (GET/HEAD)            - read-share (default 0.75, shed first)
+ *
+ * Usage in application.yml:
+ *   filters:
+ *     - name: AdaptiveConcurrency
+ *       args:
+ *         initial-limit: 20
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        // Keep the learned limit across route refreshes
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(routeId, id -> newLimiter(id, config));
+        Map<Priority, Counter> shedCounters = new ConcurrentHashMap<>();
+
+        return (exchange, chain) -> {
+            Priority priority = Priority.of(exchange.getRequest());
+            if (!limiter.tryAcquire(priority.share(config))) {
+                shedCounters.computeIfAbsent(priority, p -> Counter.builder("gateway.concurrency.shed")
+                    .description("Requests shed because the backend concurrency limit was reached")
+                    .tag("route", routeId)
+                    .tag("priority", p.name().toLowerCase())
+                    .register(meterRegistry)).increment();
+                log.debug("Shedding {} request {} (limit {}, in flight {})",
+                    priority, exchange.getRequest().getURI().getPath(), limiter.getLimit(), limiter.getInFlight());
+                return serviceUnavailable(exchange);
+            }
+
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        // Client went away - release the slot but do not learn from it
+                        limiter.onComplete(-1, false);
+                    } else {
+                        limiter.onComplete(System.nanoTime() - start, isOverloadSignal(exchange, signal));
+                    }
+                });
+        };
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter(String routeId, Config config) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            config.getInitialLimit(),
+            config.getMinLimit(),
+            config.getMaxLimit(),
+            config.getBackoffRatio(),
+            config.getLatencyTolerance(),
+            config.getWindow().toNanos()
+        );
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current adaptive concurrency limit for the route")
+            .tag("route", routeId)
+            .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .description("Requests currently in flight to the route's backend")
+            .tag("route", routeId)
+            .register(meterRegistry);
+        log.info("Adaptive concurrency limit for route {}: initial {}, min {}, max {}",
+            routeId, limiter.getLimit(), config.getMinLimit(), config.getMaxLimit());
+        return limiter;
+    }
+
+    /**
+     * 5xx from the backend and errors (connect failures, timeouts) mean the backend is overloaded,
+     * except 5xx the backend marked as a deliberate retry request (X-Retry-Reason)
+     */
+    private static boolean isOverloadSignal(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.ON_ERROR) {
+            return true;
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        return UpstreamResponses.isBackendFailure(response.getStatusCode(), response.getHeaders());
+    }
+
+    /**
+     * Return 503 Service Unavailable when the request is shed
+     */
+    private static Mono<Void> serviceUnavailable(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().add("Content-Type", "application/json");
+        response.getHeaders().add("Retry-After", "1");
+
+        String body = "{\"error\":\"Service Unavailable\",\"message\":\"Backend is overloaded, retry shortly\"}";
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    enum Priority {
+        WEBHOOK, WRITE, READ;
+
+        static Priority of(ServerHttpRequest request) {
+            if (request.getURI().getPath().startsWith("/api/webhooks")) {
+                return WEBHOOK;
+            }
+            HttpMethod method = request.getMethod();
+            return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) ? READ : WRITE;
+        }
+
+        double share(Config config) {
+            return switch (this) {
+                case WEBHOOK -> config.getWebhookShare();
+                case WRITE -> config.getWriteShare();
+                case READ -> config.getReadShare();
+            };
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private int initialLimit = 20;
+        private int minLimit = 5;
+        private int maxLimit = 200;
+        /** Multiplicative decrease applied when a window shows overload */
+        private double backoffRatio = 0.9;
+        /** Window average latency above baseline * tolerance counts as overload */
+        private double latencyTolerance = 2.0;
+        /** Sampling window between limit updates */
+        private Duration window = Duration.ofMillis(100);
+        private double webhookShare = 1.0;
+        private double writeShare = 0.9;
+        private double readShare = 0.75;
+    }
+}
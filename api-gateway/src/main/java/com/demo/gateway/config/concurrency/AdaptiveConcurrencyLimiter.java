@@ -0,0 +1,120 @@
+package com.demo.gateway.config.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency-based AIMD estimate of how many concurrent requests the backend can serve
+ *
+ * Completions are accumulated into a short sampling window (lock-free counters). When a
+ * window closes, exactly one thread re-evaluates the limit:
+ * - multiplicative decrease (limit * backoff-ratio) if any request in the window failed
+ *   with 5xx/timeout, or the average latency exceeded latency-tolerance * baseline
+ * - additive increase (+1) if the window was healthy and actually used at least half the limit
+ * The baseline is the lowest window average seen (no-load latency); it drifts up by 1%
+ * per window so a permanent shift in backend latency is eventually accepted.
+ *
+ * Admission is a single increment against limit * share, so lower-priority traffic is
+ * shed first as the limit shrinks.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder windowLatencyNanos = new LongAdder();
+    private final LongAdder windowDrops = new LongAdder();
+    private final AtomicLong windowStart;
+
+    private volatile int limit;
+    private volatile long baselineNanos = Long.MAX_VALUE;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, double latencyTolerance, long windowNanos) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.windowNanos = windowNanos;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.windowStart = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Try to admit a request that may use up to share (0..1] of the current limit
+     *
+     * @return true if admitted; the caller must then call onComplete exactly once
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        int current = inFlight.incrementAndGet();
+        if (current > allowed) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        if (current > windowMaxInFlight.get()) {
+            windowMaxInFlight.accumulateAndGet(current, Math::max);
+        }
+        return true;
+    }
+
+    /**
+     * Release an admitted request and feed its outcome into the estimate
+     *
+     * @param latencyNanos time the backend took, or a negative value to release without sampling
+     * @param dropped whether the backend signalled overload (5xx, timeout, connection error)
+     */
+    public void onComplete(long latencyNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+        if (latencyNanos >= 0) {
+            windowSamples.increment();
+            windowLatencyNanos.add(latencyNanos);
+            if (dropped) {
+                windowDrops.increment();
+            }
+        }
+
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            closeWindow();
+        }
+    }
+
+    private void closeWindow() {
+        long samples = windowSamples.sumThenReset();
+        long latency = windowLatencyNanos.sumThenReset();
+        long drops = windowDrops.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+        if (samples == 0) {
+            return;
+        }
+
+        long average = latency / samples;
+        long baseline = baselineNanos;
+        baseline = Math.min(average, baseline == Long.MAX_VALUE ? average : baseline + baseline / 100);
+        baselineNanos = baseline;
+
+        int current = limit;
+        if (drops > 0 || average > baseline * latencyTolerance) {
+            limit = Math.max(minLimit, (int) (current * backoffRatio));
+        } else if (maxInFlight * 2 >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
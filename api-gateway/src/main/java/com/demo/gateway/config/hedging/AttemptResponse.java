@@ -0,0 +1,197 @@
+package com.demo.gateway.config.hedging;
+
+import com.demo.gateway.config.cache.BodyCaptureResponse;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Private response for one attempt of a hedged request
+ *
+ * Status, headers and body are kept here instead of being written to the client, so two
+ * attempts can run at once; only the winner is copied to the real response. Only the
+ * buffer factory is shared with the real response.
+ *
+ * At most maxBodyBytes are held. An attempt whose body is larger asks the race to end
+ * (claimStream); if it is granted, the other attempt is cancelled and this one is streamed
+ * straight to the real response, otherwise its body is dropped.
+ */
+final class AttemptResponse extends ServerHttpResponseDecorator {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final HttpHeaders headers = new HttpHeaders();
+    private final MultiValueMap<String, ResponseCookie> cookies = new LinkedMultiValueMap<>();
+    private final List<Supplier<? extends Mono<Void>>> commitActions = new ArrayList<>();
+    private final long maxBodyBytes;
+    private final String markerHeader;
+    private final Predicate<AttemptResponse> claimStream;
+    private volatile HttpStatusCode status;
+    private volatile byte[] body;
+    private volatile boolean streamed;
+
+    /**
+     * @param markerHeader header set to "true" on the client response when this attempt wins (null: none)
+     * @param claimStream asked once the body exceeds maxBodyBytes; true if this attempt may stream it
+     */
+    AttemptResponse(ServerHttpResponse delegate, long maxBodyBytes, String markerHeader,
+                    Predicate<AttemptResponse> claimStream) {
+        super(delegate);
+        this.maxBodyBytes = maxBodyBytes;
+        this.markerHeader = markerHeader;
+        this.claimStream = claimStream;
+    }
+
+    @Override
+    public boolean setStatusCode(HttpStatusCode status) {
+        if (body != null) {
+            return false;
+        }
+        this.status = status;
+        return true;
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() {
+        return status;
+    }
+
+    /**
+     * Kept private like setStatusCode; the status is read back with getStatusCode().value()
+     * (the deprecated getRawStatusCode is not overridden and nothing here calls it)
+     */
+    @Override
+    @SuppressWarnings("removal")
+    public boolean setRawStatusCode(Integer value) {
+        return setStatusCode(value != null ? HttpStatusCode.valueOf(value) : null);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public MultiValueMap<String, ResponseCookie> getCookies() {
+        return cookies;
+    }
+
+    @Override
+    public void addCookie(ResponseCookie cookie) {
+        cookies.add(cookie.getName(), cookie);
+    }
+
+    @Override
+    public void beforeCommit(Supplier<? extends Mono<Void>> action) {
+        commitActions.add(action);
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return body != null;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        // One list with the whole body if it fits; otherwise the buffers up to the one that crosses
+        // the limit, then each further buffer on its own (as in BodyCaptureResponse)
+        AtomicLong size = new AtomicLong();
+        Flux<List<DataBuffer>> chunks = Flux.<DataBuffer>from(body)
+            .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxBodyBytes);
+
+        return Flux.fromIterable(commitActions)
+            .concatMap(Supplier::get)
+            .thenMany(chunks.switchOnFirst((first, all) -> {
+                if (first.hasValue() && size.get() <= maxBodyBytes) {
+                    keep(first.get());
+                    return Mono.<Void>empty();
+                }
+                if (first.hasValue() && claimStream.test(this)) {
+                    streamed = true;
+                    return stream(all.concatMapIterable(buffers -> buffers));
+                }
+                // Empty body, failure, or too large after the other attempt already won
+                return all.doOnNext(buffers -> buffers.forEach(DataBufferUtils::release)).then();
+            }))
+            .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+            .then(Mono.fromRunnable(this::markComplete));
+    }
+
+    private void keep(List<DataBuffer> buffers) {
+        DataBuffer joined = bufferFactory().join(buffers);
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        this.body = bytes;
+    }
+
+    /**
+     * Write this attempt's status, headers and (too large to hold) body straight to the client
+     */
+    private Mono<Void> stream(Flux<DataBuffer> body) {
+        ServerHttpResponse response = getDelegate();
+        copyHeadersTo(response);
+        return response.writeWith(body);
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return writeWith(Flux.from(body).concatMap(Flux::from));
+    }
+
+    @Override
+    public Mono<Void> setComplete() {
+        return Mono.fromRunnable(this::markComplete);
+    }
+
+    private void markComplete() {
+        if (body == null) {
+            body = EMPTY;
+        }
+    }
+
+    boolean isComplete() {
+        return body != null;
+    }
+
+    /**
+     * Copy the captured response to the client (already done if the body was streamed)
+     */
+    Mono<Void> writeTo(ServerHttpResponse response) {
+        if (streamed) {
+            return Mono.empty();
+        }
+        copyHeadersTo(response);
+        byte[] bytes = body != null ? body : EMPTY;
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+
+    /**
+     * Status, headers and cookies; markerHeader (e.g. X-Hedged) is set last
+     */
+    private void copyHeadersTo(ServerHttpResponse response) {
+        if (status != null) {
+            response.setStatusCode(status);
+        }
+        response.getHeaders().putAll(BodyCaptureResponse.replayableHeaders(headers));
+        cookies.values().forEach(values -> values.forEach(response::addCookie));
+        if (markerHeader != null) {
+            response.getHeaders().set(markerHeader, "true");
+        }
+    }
+}
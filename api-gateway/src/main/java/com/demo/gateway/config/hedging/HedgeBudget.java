@@ -0,0 +1,45 @@
+package com.demo.gateway.config.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps hedges at a percentage of a route's hedgeable requests
+ *
+ * Every hedgeable request deposits max-hedge-percent tokens and a hedge costs 100, so
+ * hedges can never exceed that share of traffic over time (plus a small burst). When the
+ * backend slows down as a whole, p95 rises and hedges would double its load exactly when
+ * it can least afford it; the budget keeps that extra load bounded.
+ */
+final class HedgeBudget {
+
+    private static final long HEDGE_COST = 100;
+    private static final long BURST_HEDGES = 10;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    HedgeBudget(int maxHedgePercent) {
+        this.deposit = Math.max(0, maxHedgePercent);
+        this.capacity = HEDGE_COST * BURST_HEDGES;
+        this.tokens = new AtomicLong(0);
+    }
+
+    void onRequest() {
+        if (deposit > 0 && tokens.get() < capacity) {
+            tokens.updateAndGet(current -> Math.min(capacity, current + deposit));
+        }
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            long current = tokens.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - HEDGE_COST)) {
+                return true;
+            }
+        }
+    }
+}
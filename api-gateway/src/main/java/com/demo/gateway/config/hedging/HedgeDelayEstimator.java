@@ -0,0 +1,101 @@
+package com.demo.gateway.config.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding-window latency percentile for one route, used as its hedge delay
+ *
+ * Latencies go into log-scale buckets (10% wide, 1 ms to ~3 min) in the current half of
+ * the window; the percentile is read from the current and previous halves together, so
+ * the estimate always covers between one half and one full window of traffic.
+ * Recording is a single atomic increment; the percentile is recomputed at most every
+ * 100 ms by whichever thread notices it is stale.
+ */
+final class HedgeDelayEstimator {
+
+    private static final int BUCKETS = 128;
+    private static final double GROWTH = 1.1;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final long MILLI = 1_000_000L;
+    private static final long RECOMPUTE_NANOS = 100 * MILLI;
+
+    private final double percentile;
+    private final long minSamples;
+    private final long halfWindowNanos;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+
+    private volatile AtomicLongArray current = new AtomicLongArray(BUCKETS);
+    private volatile AtomicLongArray previous = new AtomicLongArray(BUCKETS);
+    private final AtomicLong rotateAt;
+    private final AtomicLong recomputeAt;
+    private volatile long delayNanos = -1;
+
+    HedgeDelayEstimator(double percentile, long minSamples, long windowNanos, long minDelayNanos, long maxDelayNanos) {
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.halfWindowNanos = Math.max(1, windowNanos / 2);
+        this.minDelayNanos = minDelayNanos;
+        this.maxDelayNanos = Math.max(minDelayNanos, maxDelayNanos);
+        long now = System.nanoTime();
+        this.rotateAt = new AtomicLong(now + halfWindowNanos);
+        this.recomputeAt = new AtomicLong(now);
+    }
+
+    void record(long latencyNanos) {
+        current.incrementAndGet(bucket(latencyNanos));
+    }
+
+    /**
+     * Current hedge delay, or -1 while the window has fewer than min-samples latencies
+     */
+    long delayNanos(long now) {
+        long recompute = recomputeAt.get();
+        if (now - recompute >= 0 && recomputeAt.compareAndSet(recompute, now + RECOMPUTE_NANOS)) {
+            long rotate = rotateAt.get();
+            if (now - rotate >= 0 && rotateAt.compareAndSet(rotate, now + halfWindowNanos)) {
+                previous = current;
+                current = new AtomicLongArray(BUCKETS);
+            }
+            delayNanos = compute();
+        }
+        return delayNanos;
+    }
+
+    private long compute() {
+        AtomicLongArray newer = current;
+        AtomicLongArray older = previous;
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = newer.get(i) + older.get(i);
+            total += counts[i];
+        }
+        if (total < minSamples || total == 0) {
+            return -1;
+        }
+
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(maxDelayNanos, Math.max(minDelayNanos, upperBound(i)));
+            }
+        }
+        return maxDelayNanos;
+    }
+
+    private static int bucket(long latencyNanos) {
+        if (latencyNanos <= MILLI) {
+            return 0;
+        }
+        int bucket = (int) (Math.log((double) latencyNanos / MILLI) / LOG_GROWTH);
+        return Math.min(BUCKETS - 1, bucket);
+    }
+
+    private static long upperBound(int bucket) {
+        return (long) (MILLI * Math.pow(GROWTH, bucket + 1));
+    }
+}
@@ -0,0 +1,410 @@
+package com.demo.gateway.config.hedging;
+
+import com.demo.gateway.config.loadbalancer.BackendInstance;
+import com.demo.gateway.config.loadbalancer.BackendPool;
+import com.demo.gateway.config.loadbalancer.BackendPools;
+import com.demo.gateway.config.loadbalancer.RoutingHints;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Route filter that hedges slow idempotent reads
+ *
+ * GET/HEAD requests without a body go upstream as usual; if no response has arrived
+ * after the route's observed p95 latency, a second attempt is sent to another backend
+ * instance and whichever answers first is returned (X-Hedged: true when the hedge won).
+ * The other attempt is cancelled. 5xx answers and errors only win if the other attempt
+ * fails as well.
+ *
+ * Each attempt's body is held in memory until the race is decided, at most max-body-size
+ * of it: the first attempt whose body is larger stops the race (the other attempt is
+ * cancelled) and is streamed to the client as it arrives.
+ *
+ * Extra load is capped: hedges never exceed max-hedge-percent of the route's hedgeable
+ * requests (HedgeBudget), no hedge fires until min-samples latencies have been seen, and
+ * a hedge is skipped when the pool has no other available instance. Each attempt runs
+ * the rest of the chain on its own response and attribute copy, so it gets its own load
+ * balancer choice, upstream timeout and concurrency permit.
+ *
+ * Metrics:
+ * - gateway.hedging.hedges{route,outcome=fired|won|throttled|no_alternative}
+ * - gateway.hedging.delay{route} - current hedge delay (0 while still learning)
+ *
+ * Usage in application.yml:
+ *   filters:
+ *     - name: Hedging
+ *       args:
+ *         enabled: true
+ *         max-hedge-percent: 10
+ */
+@Component
+@Slf4j
+public class HedgingGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgingGatewayFilterFactory.Config> {
+
+    public static final String HEDGED_HEADER = "X-Hedged";
+
+    /** After RequestCoalescingFilter (-70), before NettyWriteResponseFilter (-1) writes the body */
+    private static final int ORDER = -60;
+
+    private final MeterRegistry meterRegistry;
+    private final BackendPools pools;
+    private final Map<String, RouteHedging> routes = new ConcurrentHashMap<>();
+
+    public HedgingGatewayFilterFactory(MeterRegistry meterRegistry, BackendPools pools) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.pools = pools;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (!config.isEnabled()) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        // Keep the learned latency distribution across route refreshes
+        RouteHedging route = routes.computeIfAbsent(routeId, id -> new RouteHedging(id, config));
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, route), ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, RouteHedging route) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!isHedgeable(request)) {
+            return chain.filter(exchange);
+        }
+
+        route.budget.onRequest();
+        long delayNanos = route.estimator.delayNanos(System.nanoTime());
+        if (delayNanos < 0) {
+            // Still learning the route's latency distribution
+            long start = System.nanoTime();
+            return chain.filter(exchange).doOnSuccess(ignored -> {
+                if (!isServerError(exchange.getResponse().getStatusCode())) {
+                    route.estimator.record(System.nanoTime() - start);
+                }
+            });
+        }
+
+        return Mono.<Attempt>create(sink -> new Race(exchange, chain, route, delayNanos, sink).start())
+            .flatMap(winner -> winner.response.writeTo(exchange.getResponse()));
+    }
+
+    /**
+     * Only requests that are safe to send twice and have no body to replay
+     */
+    private static boolean isHedgeable(ServerHttpRequest request) {
+        HttpMethod method = request.getMethod();
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            return false;
+        }
+        HttpHeaders headers = request.getHeaders();
+        return headers.getContentLength() <= 0 && !headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+    private static boolean isServerError(HttpStatusCode status) {
+        return status != null && status.is5xxServerError();
+    }
+
+    /**
+     * Primary and (maybe) hedge attempt of one request; all state changes under the Race lock
+     */
+    private final class Race {
+
+        private final ServerWebExchange exchange;
+        private final GatewayFilterChain chain;
+        private final RouteHedging route;
+        private final long delayNanos;
+        private final MonoSink<Attempt> sink;
+        private final ServerHttpRequest request;
+
+        private Attempt primary;
+        private Attempt hedge;
+        private Disposable timer;
+        private Attempt fallback;
+        private AttemptResponse streaming;
+        private Throwable error;
+        private int running;
+        private boolean done;
+
+        Race(ServerWebExchange exchange, GatewayFilterChain chain, RouteHedging route, long delayNanos,
+             MonoSink<Attempt> sink) {
+            this.exchange = exchange;
+            this.chain = chain;
+            this.route = route;
+            this.delayNanos = delayNanos;
+            this.sink = sink;
+            // Both attempts may subscribe to the request body, which Netty allows only once
+            this.request = new ServerHttpRequestDecorator(exchange.getRequest()) {
+                @Override
+                public Flux<DataBuffer> getBody() {
+                    return Flux.empty();
+                }
+            };
+        }
+
+        void start() {
+            sink.onDispose(this::cancelAll);
+            synchronized (this) {
+                primary = launch(false, null);
+                timer = Mono.delay(Duration.ofNanos(delayNanos)).subscribe(tick -> fireHedge());
+            }
+        }
+
+        private Attempt launch(boolean isHedge, BackendInstance excluded) {
+            AttemptResponse response = new AttemptResponse(exchange.getResponse(), route.maxBodyBytes,
+                isHedge ? HEDGED_HEADER : null, this::claimStream);
+            Attempt attempt = new Attempt(isHedge, response, new ConcurrentHashMap<>(exchange.getAttributes()));
+            if (excluded != null) {
+                attempt.attributes.put(RoutingHints.EXCLUDED_INSTANCE_ATTRIBUTE, excluded);
+            }
+            ServerWebExchange attemptExchange = new AttemptExchange(
+                exchange.mutate().request(request).response(attempt.response).build(), attempt.attributes);
+
+            running++;
+            attempt.startNanos = System.nanoTime();
+            attempt.subscription = chain.filter(attemptExchange)
+                .subscribe(null, failure -> onFinished(attempt, failure), () -> onFinished(attempt, null));
+            return attempt;
+        }
+
+        private void fireHedge() {
+            synchronized (this) {
+                if (done || primary.finished) {
+                    return;
+                }
+                BackendInstance first = chosenInstance(primary);
+                if (first != null) {
+                    BackendPool pool = pools.pool(first.getServiceId());
+                    if (pool != null && !pool.hasOtherAvailable(first)) {
+                        route.noAlternative.increment();
+                        return;
+                    }
+                }
+                if (!route.budget.tryAcquire()) {
+                    route.throttled.increment();
+                    return;
+                }
+                route.fired.increment();
+                hedge = launch(true, first);
+            }
+        }
+
+        /**
+         * An attempt's body is too large to hold: end the race in its favour, unless it is already decided
+         */
+        private boolean claimStream(AttemptResponse response) {
+            Disposable pending;
+            Attempt first;
+            Attempt second;
+            synchronized (this) {
+                if (done) {
+                    return false;
+                }
+                done = true;
+                streaming = response;
+                pending = timer;
+                first = primary;
+                second = hedge;
+            }
+            if (pending != null) {
+                pending.dispose();
+            }
+            for (Attempt other : new Attempt[] {first, second}) {
+                if (other != null && other.response != response && !other.finished && other.subscription != null) {
+                    other.subscription.dispose();
+                }
+            }
+            return true;
+        }
+
+        private void onFinished(Attempt attempt, Throwable failure) {
+            boolean healthy = failure == null && !isServerError(attempt.response.getStatusCode());
+            if (healthy) {
+                route.estimator.record(System.nanoTime() - attempt.startNanos);
+            }
+
+            Attempt winner = null;
+            Throwable lost = null;
+            synchronized (this) {
+                attempt.finished = true;
+                running--;
+                if (done) {
+                    if (attempt.response != streaming) {
+                        return;
+                    }
+                    // Won by streaming its body to the client; the request completes once that is written
+                    winner = failure == null ? attempt : null;
+                    lost = failure;
+                } else {
+                    if (failure == null && (healthy || fallback == null)) {
+                        fallback = attempt;
+                    } else if (failure != null && error == null) {
+                        error = failure;
+                    }
+                    // A healthy answer wins at once; failures wait for an attempt still in flight
+                    if (healthy || running == 0) {
+                        done = true;
+                        winner = healthy ? attempt : fallback;
+                        lost = winner == null ? error : null;
+                    }
+                }
+            }
+
+            if (winner != null) {
+                if (winner.hedge && healthy) {
+                    route.won.increment();
+                }
+                sink.success(winner);
+            } else if (lost != null) {
+                sink.error(lost);
+            }
+        }
+
+        private void cancelAll() {
+            Disposable pending;
+            Attempt first;
+            Attempt second;
+            synchronized (this) {
+                done = true;
+                pending = timer;
+                first = primary;
+                second = hedge;
+            }
+            if (pending != null) {
+                pending.dispose();
+            }
+            for (Attempt attempt : new Attempt[] {first, second}) {
+                if (attempt != null && !attempt.finished && attempt.subscription != null) {
+                    attempt.subscription.dispose();
+                }
+            }
+        }
+
+        private static BackendInstance chosenInstance(Attempt attempt) {
+            Object chosen = attempt.attributes.get(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+            return chosen instanceof Response<?> response && response.getServer() instanceof BackendInstance instance
+                ? instance
+                : null;
+        }
+    }
+
+    private static final class Attempt {
+        private final boolean hedge;
+        private final AttemptResponse response;
+        private final Map<String, Object> attributes;
+        private long startNanos;
+        private volatile Disposable subscription;
+        private volatile boolean finished;
+
+        Attempt(boolean hedge, AttemptResponse response, Map<String, Object> attributes) {
+            this.hedge = hedge;
+            this.response = response;
+            this.attributes = attributes;
+        }
+    }
+
+    /**
+     * Exchange with its own attribute map, so the two attempts' routing state (chosen
+     * instance, request URL, already-routed flag, client connection) does not collide
+     */
+    private static final class AttemptExchange extends ServerWebExchangeDecorator {
+        private final Map<String, Object> attributes;
+
+        AttemptExchange(ServerWebExchange delegate, Map<String, Object> attributes) {
+            super(delegate);
+            this.attributes = attributes;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+    }
+
+    /**
+     * Per-route hedging state, kept across route refreshes
+     */
+    private final class RouteHedging {
+        private final long maxBodyBytes;
+        private final HedgeDelayEstimator estimator;
+        private final HedgeBudget budget;
+        private final Counter fired;
+        private final Counter won;
+        private final Counter throttled;
+        private final Counter noAlternative;
+
+        RouteHedging(String routeId, Config config) {
+            this.maxBodyBytes = config.getMaxBodySize().toBytes();
+            this.estimator = new HedgeDelayEstimator(config.getPercentile(), config.getMinSamples(),
+                config.getWindow().toNanos(), config.getMinDelay().toNanos(), config.getMaxDelay().toNanos());
+            this.budget = new HedgeBudget(config.getMaxHedgePercent());
+            this.fired = counter(routeId, "fired");
+            this.won = counter(routeId, "won");
+            this.throttled = counter(routeId, "throttled");
+            this.noAlternative = counter(routeId, "no_alternative");
+            Gauge.builder("gateway.hedging.delay", estimator, e -> Math.max(0, e.delayNanos(System.nanoTime())) / 1e9)
+                .description("Time after which a slow read is hedged (route latency percentile)")
+                .tag("route", routeId)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+            log.info("Hedging for route {}: p{} delay (min {}, max {}), at most {}% extra requests",
+                routeId, Math.round(config.getPercentile() * 100), config.getMinDelay(), config.getMaxDelay(),
+                config.getMaxHedgePercent());
+        }
+
+        private Counter counter(String routeId, String outcome) {
+            return Counter.builder("gateway.hedging.hedges")
+                .description("Hedged reads by outcome (fired, won = hedge answered first, throttled = over budget)")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private boolean enabled = true;
+        /** Latency percentile after which a hedge is sent */
+        private double percentile = 0.95;
+        /** Bounds on the hedge delay, whatever the percentile says */
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofSeconds(2);
+        /** Hedges as a share of hedgeable requests, in percent */
+        private int maxHedgePercent = 10;
+        /** Latencies needed in the window before hedging starts */
+        private long minSamples = 100;
+        /** Sliding window the percentile is computed over */
+        private Duration window = Duration.ofSeconds(30);
+        /** Larger bodies end the race and are streamed instead of being held per attempt */
+        private DataSize maxBodySize = DataSize.ofKilobytes(256);
+    }
+}
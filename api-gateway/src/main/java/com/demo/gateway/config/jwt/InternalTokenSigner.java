@@ -0,0 +1,98 @@
+package com.demo.gateway.config.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Mints the compact internal identity token forwarded to the backend as X-Internal-Identity
+ *
+ * After the Clerk JWT has been verified, the gateway signs the extracted identity with a
+ * symmetric key shared with the backend, so the backend can trust it with a single HMAC
+ * instead of re-verifying the RSA-signed Clerk token.
+ *
+ * Format: base64url(payload) + "." + base64url(HMAC-SHA256(base64url(payload)))
+ * Payload: "1|exp|userId|orgId|orgRole|orgPermissions" (exp in epoch seconds, 0 = none;
+ * absent values are empty)
+ *
+ * Tokens are minted once per verified Clerk token and cached with it in VerifiedTokenCache.
+ * Minting is disabled when gateway.internal-token.secret is empty.
+ *
+ * The same key signs the X-Webhook-Verified marker for webhooks whose Svix signature the
+ * gateway has already checked:
+ * base64url(HMAC-SHA256("wh2|" + svixId + "|" + svixTimestamp + "|" + base64url(SHA-256(body))))
+ * The body digest binds the marker to that one body, so replayed headers cannot vouch for another.
+ */
+@Component
+@Slf4j
+public class InternalTokenSigner {
+
+    public static final String HEADER = "X-Internal-Identity";
+    public static final String WEBHOOK_HEADER = "X-Webhook-Verified";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final ThreadLocal<Mac> mac;
+
+    public InternalTokenSigner(@Value("${gateway.internal-token.secret:}") String secret) {
+        if (secret == null || secret.isEmpty()) {
+            log.warn("gateway.internal-token.secret is not set - internal identity tokens are disabled");
+            this.mac = null;
+            return;
+        }
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length < 32) {
+            log.warn("gateway.internal-token.secret is shorter than 32 bytes");
+        }
+        SecretKeySpec key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    /**
+     * Sign the identity, or return null if internal tokens are disabled
+     */
+    public String mint(String userId, String orgId, String orgRole, String orgPermissions, long expiresAtMillis) {
+        if (mac == null) {
+            return null;
+        }
+        String payload = "1|" + (expiresAtMillis / 1000) + "|" + userId + "|" + nullToEmpty(orgId)
+            + "|" + nullToEmpty(orgRole) + "|" + nullToEmpty(orgPermissions);
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+
+        // Mac.doFinal resets the instance, so the thread-local Mac is immediately reusable
+        byte[] signature = mac.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+        return encodedPayload + "." + ENCODER.encodeToString(signature);
+    }
+
+    /**
+     * Sign the marker for a verified webhook delivery, or return null if internal tokens are disabled
+     *
+     * @param bodyDigest SHA-256 of the delivered body
+     */
+    public String signWebhook(String svixId, String svixTimestamp, byte[] bodyDigest) {
+        if (mac == null) {
+            return null;
+        }
+        String payload = "wh2|" + svixId + "|" + svixTimestamp + "|" + ENCODER.encodeToString(bodyDigest);
+        return ENCODER.encodeToString(mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,297 @@
+package com.demo.gateway.config.jwt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Non-blocking store of Clerk JWKS signing keys
+ *
+ * - Each key is loaded once into an immutable SigningKey holding a prebuilt JwtParser
+ * - Fetches over the shared reactive WebClient, never blocking the event loop
+ * - Single-flight: concurrent misses (e.g. every in-flight request after a key rotation)
+ *   share one JWKS fetch instead of each triggering their own
+ * - Background refresh before keys go stale (Cache-Control max-age when Clerk sends it,
+ *   otherwise gateway.jwks.refresh-interval)
+ * - Minimum interval between miss-driven fetches: a miss shortly after a fetch waits for the
+ *   next allowed one (shared by every miss in the meantime) instead of triggering its own
+ * - Negative cache for kids a completed fetch has shown to be absent, so a flood of forged
+ *   kids cannot hammer the JWKS endpoint
+ */
+@Component
+@Slf4j
+public class JwksKeyStore {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<Mono<Map<String, SigningKey>>> inFlightFetch = new AtomicReference<>();
+    private final AtomicReference<Mono<Map<String, SigningKey>>> deferredFetch = new AtomicReference<>();
+    private final Cache<String, Boolean> unknownKids;
+    private final Counter fetchSuccess;
+    private final Counter fetchFailure;
+    private final Counter unknownKidRejections;
+    private final String jwksUrl;
+    private final String issuer;
+    private final Duration refreshInterval;
+    private final Duration minRefetchInterval;
+    private final Duration fetchTimeout;
+
+    private volatile Map<String, SigningKey> keys = Map.of();
+    private volatile long lastFetchStartedNanos;
+    private volatile Duration nextRefreshHint;
+    private volatile Disposable scheduledRefresh;
+
+    public JwksKeyStore(
+            WebClient.Builder webClientBuilder,
+            MeterRegistry meterRegistry,
+            @Value("${clerk.jwks.url:https://api.clerk.dev/v1/jwks}") String jwksUrl,
+            @Value("${clerk.issuer:https://clerk.dev}") String issuer,
+            @Value("${gateway.jwks.refresh-interval:PT10M}") Duration refreshInterval,
+            @Value("${gateway.jwks.min-refetch-interval:PT30S}") Duration minRefetchInterval,
+            @Value("${gateway.jwks.fetch-timeout:PT5S}") Duration fetchTimeout,
+            @Value("${gateway.jwks.unknown-kid-ttl:PT1M}") Duration unknownKidTtl,
+            @Value("${gateway.jwks.unknown-kid-max-size:1000}") long unknownKidMaxSize) {
+        this.webClient = webClientBuilder.build();
+        this.jwksUrl = jwksUrl;
+        this.issuer = issuer;
+        this.refreshInterval = refreshInterval;
+        this.minRefetchInterval = minRefetchInterval;
+        this.fetchTimeout = fetchTimeout;
+        this.unknownKids = Caffeine.newBuilder()
+            .maximumSize(unknownKidMaxSize)
+            .expireAfterWrite(unknownKidTtl)
+            .build();
+        this.fetchSuccess = Counter.builder("gateway.jwks.fetches").tag("outcome", "success").register(meterRegistry);
+        this.fetchFailure = Counter.builder("gateway.jwks.fetches").tag("outcome", "failure").register(meterRegistry);
+        this.unknownKidRejections = Counter.builder("gateway.jwks.unknown.kid.rejections").register(meterRegistry);
+    }
+
+    /**
+     * Warm the key set at startup without delaying application start
+     */
+    @PostConstruct
+    public void start() {
+        // As if the last fetch was one interval ago, so the first miss is not decided by nanoTime's origin
+        lastFetchStartedNanos = System.nanoTime() - minRefetchInterval.toNanos();
+        scheduleRefresh(Duration.ZERO);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable refresh = scheduledRefresh;
+        if (refresh != null) {
+            refresh.dispose();
+        }
+    }
+
+    /**
+     * Get the signing key (public key + prebuilt parser) for a key ID
+     * Emits UnknownKeyException if the kid is not published in the JWKS
+     */
+    public Mono<SigningKey> getSigningKey(String kid) {
+        SigningKey key = keys.get(kid);
+        if (key != null) {
+            return Mono.just(key);
+        }
+
+        if (unknownKids.getIfPresent(kid) != null) {
+            unknownKidRejections.increment();
+            return Mono.error(new UnknownKeyException(kid));
+        }
+
+        // Rate-limit miss-driven fetches: if we fetched very recently, wait for the next allowed fetch
+        // rather than rejecting a kid that may have been rotated in since
+        long sinceLastFetch = System.nanoTime() - lastFetchStartedNanos;
+        Mono<Map<String, SigningKey>> fetch = inFlightFetch.get() == null && sinceLastFetch < minRefetchInterval.toNanos()
+            ? deferredFetchKeys(Duration.ofNanos(minRefetchInterval.toNanos() - sinceLastFetch))
+            : fetchKeys();
+
+        // Only a completed fetch that lacks the kid makes it unknown
+        return fetch.flatMap(fetched -> {
+            SigningKey fetchedKey = fetched.get(kid);
+            if (fetchedKey == null) {
+                unknownKids.put(kid, Boolean.TRUE);
+                unknownKidRejections.increment();
+                return Mono.error(new UnknownKeyException(kid));
+            }
+            return Mono.just(fetchedKey);
+        });
+    }
+
+    /**
+     * Fetch the JWKS, joining an already in-flight fetch if there is one
+     */
+    private Mono<Map<String, SigningKey>> fetchKeys() {
+        while (true) {
+            Mono<Map<String, SigningKey>> current = inFlightFetch.get();
+            if (current != null) {
+                return current;
+            }
+
+            Mono<Map<String, SigningKey>> fetch = Mono.defer(() -> {
+                    lastFetchStartedNanos = System.nanoTime();
+                    return webClient.get()
+                        .uri(jwksUrl)
+                        .retrieve()
+                        .toEntity(String.class)
+                        .timeout(fetchTimeout);
+                })
+                .map(this::install)
+                .doOnSuccess(fetched -> fetchSuccess.increment())
+                .doOnError(e -> {
+                    fetchFailure.increment();
+                    log.error("Failed to fetch JWKS from {}: {}", jwksUrl, e.toString());
+                })
+                .doFinally(signal -> inFlightFetch.set(null))
+                .cache();
+
+            if (inFlightFetch.compareAndSet(null, fetch)) {
+                return fetch;
+            }
+        }
+    }
+
+    /**
+     * Fetch the JWKS once the delay has passed, joining an already queued deferred fetch if there is one
+     */
+    private Mono<Map<String, SigningKey>> deferredFetchKeys(Duration delay) {
+        while (true) {
+            Mono<Map<String, SigningKey>> current = deferredFetch.get();
+            if (current != null) {
+                return current;
+            }
+
+            Mono<Map<String, SigningKey>> deferred = Mono.delay(delay)
+                .then(Mono.defer(this::fetchKeys))
+                .doFinally(signal -> deferredFetch.set(null))
+                .cache();
+
+            if (deferredFetch.compareAndSet(null, deferred)) {
+                return deferred;
+            }
+        }
+    }
+
+    /**
+     * Parse a JWKS response and atomically replace the key set
+     */
+    private Map<String, SigningKey> install(ResponseEntity<String> response) {
+        try {
+            JsonNode jwks = objectMapper.readTree(response.getBody());
+            JsonNode keyNodes = jwks.get("keys");
+            if (keyNodes == null || !keyNodes.isArray()) {
+                throw new IllegalStateException("Invalid JWKS format");
+            }
+
+            Map<String, SigningKey> fetched = new HashMap<>();
+            for (JsonNode key : keyNodes) {
+                if (!key.has("kid") || !"RSA".equals(key.path("kty").asText("RSA"))) {
+                    continue;
+                }
+                String kid = key.get("kid").asText();
+                SigningKey current = keys.get(kid);
+                if (current != null) {
+                    // Unchanged kid - keep the already-built parser
+                    fetched.put(kid, current);
+                    continue;
+                }
+                PublicKey publicKey = jwkToPublicKey(key.get("n").asText(), key.get("e").asText());
+                fetched.put(kid, SigningKey.of(kid, publicKey, issuer));
+            }
+
+            keys = Map.copyOf(fetched);
+            fetched.keySet().forEach(unknownKids::invalidate);
+            nextRefreshHint = maxAge(response.getHeaders());
+            log.info("Loaded {} signing key(s) from JWKS", fetched.size());
+            return keys;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid JWKS response", e);
+        }
+    }
+
+    /**
+     * Refresh in the background, before keys expire from Clerk's point of view
+     */
+    private void scheduleRefresh(Duration delay) {
+        // Deferred: fetchKeys() must run when the delay fires, not while building the chain, or it
+        // would join the previous tick's fetch (still registered while its onNext schedules this one)
+        scheduledRefresh = Mono.delay(delay)
+            .then(Mono.defer(this::fetchKeys))
+            .subscribe(
+                fetched -> scheduleRefresh(refreshDelay()),
+                error -> scheduleRefresh(minRefetchInterval)
+            );
+    }
+
+    /**
+     * Refresh at 80% of the advertised max-age, never later than the configured interval
+     */
+    private Duration refreshDelay() {
+        Duration hint = nextRefreshHint;
+        if (hint == null || hint.isZero()) {
+            return refreshInterval;
+        }
+        Duration early = hint.multipliedBy(4).dividedBy(5);
+        Duration delay = early.compareTo(refreshInterval) < 0 ? early : refreshInterval;
+        return delay.compareTo(minRefetchInterval) > 0 ? delay : minRefetchInterval;
+    }
+
+    private static Duration maxAge(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return null;
+        }
+        Matcher matcher = MAX_AGE.matcher(cacheControl);
+        return matcher.find() ? Duration.ofSeconds(Long.parseLong(matcher.group(1))) : null;
+    }
+
+    /**
+     * Convert JWK (JSON Web Key) to Java PublicKey
+     * (public for the authentication benchmarks, which measure this exact conversion)
+     */
+    public static PublicKey jwkToPublicKey(String modulus, String exponent) throws Exception {
+        // Decode base64url-encoded values
+        BigInteger n = new BigInteger(1, Base64.getUrlDecoder().decode(modulus));
+        BigInteger e = new BigInteger(1, Base64.getUrlDecoder().decode(exponent));
+
+        return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(n, e));
+    }
+
+    /**
+     * Raised when a token references a kid that is not in the JWKS
+     */
+    public static class UnknownKeyException extends RuntimeException {
+        public UnknownKeyException(String kid) {
+            super("Key not found in JWKS: " + kid);
+        }
+    }
+}
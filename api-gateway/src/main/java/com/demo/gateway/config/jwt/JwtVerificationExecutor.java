@@ -0,0 +1,166 @@
+package com.demo.gateway.config.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs RSA signature verification for cache-missing tokens
+ *
+ * Signature verification is CPU-heavy; running it inline on Reactor Netty event-loop
+ * threads delays I/O for every other connection on the same loop during bursts.
+ *
+ * Modes (gateway.jwt.verification.mode):
+ * - inline   - verify on the calling event-loop thread (original behaviour)
+ * - platform - fixed pool of platform threads with a bounded queue
+ * - virtual  - one virtual thread per verification, bounded by a permit count
+ *
+ * When the pool is saturated the task is rejected immediately with
+ * VerificationOverloadedException, which the filter turns into a fast 503.
+ */
+@Component
+@Slf4j
+public class JwtVerificationExecutor {
+
+    public enum Mode { INLINE, PLATFORM, VIRTUAL }
+
+    private final Mode mode;
+    private final ExecutorService executor;
+    private final Semaphore virtualPermits;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Timer verifyTimer;
+    private final Counter rejections;
+
+    public JwtVerificationExecutor(
+            @Value("${gateway.jwt.verification.mode:inline}") String mode,
+            @Value("${gateway.jwt.verification.threads:0}") int threads,
+            @Value("${gateway.jwt.verification.queue-capacity:1024}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        switch (this.mode) {
+            case PLATFORM -> {
+                AtomicInteger threadNumber = new AtomicInteger();
+                this.executor = new ThreadPoolExecutor(
+                    poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "jwt-verify-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+                this.virtualPermits = null;
+            }
+            case VIRTUAL -> {
+                this.executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("jwt-verify-", 0).factory());
+                this.virtualPermits = new Semaphore(poolSize + queueCapacity);
+            }
+            default -> {
+                this.executor = null;
+                this.virtualPermits = null;
+            }
+        }
+
+        this.verifyTimer = Timer.builder("gateway.jwt.verify.duration")
+            .description("Time spent verifying JWT signatures and claims")
+            .tag("mode", this.mode.name().toLowerCase())
+            .register(meterRegistry);
+        this.rejections = Counter.builder("gateway.jwt.verify.rejections")
+            .description("Verifications rejected because the verification pool was saturated")
+            .register(meterRegistry);
+        Gauge.builder("gateway.jwt.verify.queue.depth", this, JwtVerificationExecutor::queueDepth)
+            .description("Verifications waiting for a verification thread")
+            .register(meterRegistry);
+
+        log.info("JWT verification mode: {} (threads: {}, queue capacity: {})",
+            this.mode, this.mode == Mode.INLINE ? 0 : poolSize, queueCapacity);
+    }
+
+    /**
+     * Run a verification task according to the configured mode
+     * Emits VerificationOverloadedException without running the task if the pool is full
+     */
+    public <T> Mono<T> execute(Callable<T> task) {
+        if (mode == Mode.INLINE) {
+            return Mono.fromCallable(() -> timed(task));
+        }
+
+        return Mono.create(sink -> {
+            if (virtualPermits != null && !virtualPermits.tryAcquire()) {
+                rejections.increment();
+                sink.error(new VerificationOverloadedException());
+                return;
+            }
+            pending.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    pending.decrementAndGet();
+                    try {
+                        sink.success(timed(task));
+                    } catch (Throwable e) {
+                        sink.error(e);
+                    } finally {
+                        if (virtualPermits != null) {
+                            virtualPermits.release();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pending.decrementAndGet();
+                if (virtualPermits != null) {
+                    virtualPermits.release();
+                }
+                rejections.increment();
+                sink.error(new VerificationOverloadedException());
+            }
+        });
+    }
+
+    private <T> T timed(Callable<T> task) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private double queueDepth() {
+        return pending.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Raised when the verification pool and its queue are full
+     */
+    public static class VerificationOverloadedException extends RuntimeException {
+        public VerificationOverloadedException() {
+            super("JWT verification pool saturated", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.demo.gateway.config.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Extracts the active organization's role and permissions from Clerk session claims
+ *
+ * Clerk v1 session tokens carry 'org_role' and 'org_permissions'; v2 tokens carry
+ * the same data in the compact 'o' claim ({"id", "rol", "per"}). Both are normalized
+ * to the role names the backend stores in the roles table:
+ * - "org:admin" / "admin"                  -> ADMIN
+ * - "org:member" / "basic_member" / others -> USER
+ * - permissions are forwarded as a comma-separated list, e.g. "org:sys_memberships:read"
+ */
+public final class OrgClaims {
+
+    private OrgClaims() {
+    }
+
+    /**
+     * Clerk ID of the active organization, or null if the token has no active org
+     */
+    public static String orgId(Claims claims) {
+        Object orgId = claims.get("org_id");
+        if (orgId == null) {
+            orgId = compactOrgClaim(claims, "id");
+        }
+        return orgId instanceof String value ? value : null;
+    }
+
+    /**
+     * Normalized role for the active organization, or null if the token has no active org
+     */
+    public static String role(Claims claims) {
+        Object role = claims.get("org_role");
+        if (role == null) {
+            role = compactOrgClaim(claims, "rol");
+        }
+        return role instanceof String value ? normalizeRole(value) : null;
+    }
+
+    /**
+     * Comma-separated permissions for the active organization, or null if none
+     */
+    public static String permissions(Claims claims) {
+        Object permissions = claims.get("org_permissions");
+        if (permissions == null) {
+            permissions = compactOrgClaim(claims, "per");
+        }
+        if (permissions instanceof String value) {
+            return value.isEmpty() ? null : value;
+        }
+        if (!(permissions instanceof Collection<?> values) || values.isEmpty()) {
+            return null;
+        }
+        StringJoiner joined = new StringJoiner(",");
+        for (Object value : values) {
+            joined.add(String.valueOf(value));
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Map a Clerk org role ("org:admin", "org:member", "admin", ...) to ADMIN or USER
+     */
+    public static String normalizeRole(String role) {
+        if (role == null || role.isEmpty()) {
+            return null;
+        }
+        String name = role.startsWith("org:") ? role.substring(4) : role;
+        return "admin".equals(name.toLowerCase(Locale.ROOT)) ? "ADMIN" : "USER";
+    }
+
+    private static Object compactOrgClaim(Claims claims, String name) {
+        return claims.get("o") instanceof Map<?, ?> org ? org.get(name) : null;
+    }
+}
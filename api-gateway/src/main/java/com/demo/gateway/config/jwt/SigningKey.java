@@ -0,0 +1,27 @@
+package com.demo.gateway.config.jwt;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+
+import java.security.PublicKey;
+
+/**
+ * A JWKS signing key together with the parser that verifies tokens signed by it
+ *
+ * JwtParser instances are immutable and thread-safe, so one parser is built when the
+ * key is loaded and shared by every request instead of being rebuilt per token.
+ *
+ * @param kid Key ID from the JWKS
+ * @param publicKey RSA public key
+ * @param parser Parser that verifies the signature with publicKey and requires the Clerk issuer
+ */
+public record SigningKey(String kid, PublicKey publicKey, JwtParser parser) {
+
+    public static SigningKey of(String kid, PublicKey publicKey, String issuer) {
+        JwtParser parser = Jwts.parser()
+            .verifyWith(publicKey)
+            .requireIssuer(issuer)
+            .build();
+        return new SigningKey(kid, publicKey, parser);
+    }
+}
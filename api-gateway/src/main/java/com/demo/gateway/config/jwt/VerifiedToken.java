@@ -0,0 +1,35 @@
+package com.demo.gateway.config.jwt;
+
+/**
+ * Identity extracted from a JWT whose signature and claims have already been verified
+ * Stored on the exchange under EXCHANGE_ATTRIBUTE for filters that run after authentication
+ *
+ * @param userId Clerk user ID ('sub' claim)
+ * @param orgId Clerk organization ID ('org_id' claim, may be null)
+ * @param orgRole Normalized role in the active organization (ADMIN or USER, may be null)
+ * @param orgPermissions Comma-separated permissions in the active organization (may be null)
+ * @param expiresAtMillis Token expiry ('exp' claim) in epoch millis, or 0 if the token has no expiry
+ * @param internalToken Signed internal identity token for the backend (null when disabled)
+ * @param tokenId JWT ID ('jti' claim, may be null), checked against RevocationList
+ * @param sessionId Clerk session ID ('sid' claim, may be null), checked against RevocationList
+ */
+public record VerifiedToken(
+    String userId,
+    String orgId,
+    String orgRole,
+    String orgPermissions,
+    long expiresAtMillis,
+    String internalToken,
+    String tokenId,
+    String sessionId
+) {
+    
+    public static final String EXCHANGE_ATTRIBUTE = VerifiedToken.class.getName();
+    
+    /**
+     * Key for sticky backend routing: the active organization, or the user when there is none
+     */
+    public String routingKey() {
+        return orgId != null && !orgId.isEmpty() ? orgId : userId;
+    }
+}
@@ -0,0 +1,106 @@
+package com.demo.gateway.config.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already-verified JWTs
+ *
+ * Clients send the same Clerk session token many times a minute, so once a token
+ * has passed signature verification we remember the extracted identity until the
+ * token expires. Repeat requests skip the RSA verification entirely.
+ *
+ * - Keyed by a SHA-256 digest of the token (the raw token is never retained)
+ * - Entries expire at the token's 'exp' claim
+ * - Entries are evicted by size (W-TinyLFU)
+ * - Hit/miss/eviction counters are published as 'cache.*' metrics with cache=gateway.jwt.verified
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(
+            @Value("${gateway.jwt.cache.maximum-size:10000}") long maximumSize,
+            @Value("${gateway.jwt.cache.max-ttl:PT5M}") Duration maxTtl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new TokenExpiry(maxTtl.toNanos()))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.jwt.verified");
+    }
+
+    /**
+     * Compute the cache key for a raw token
+     */
+    public String keyFor(String token) {
+        MessageDigest digest = SHA_256.get();
+        byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    /**
+     * Get a previously verified token, or null if absent or expired
+     */
+    public VerifiedToken get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Remember a verified token until it expires
+     * Tokens that are already expired are not cached
+     */
+    public void put(String key, VerifiedToken token) {
+        if (token.expiresAtMillis() != 0 && token.expiresAtMillis() <= System.currentTimeMillis()) {
+            return;
+        }
+        cache.put(key, token);
+    }
+
+    /**
+     * Expire each entry at the token's own 'exp' claim, capped at maxTtl
+     */
+    private record TokenExpiry(long maxTtlNanos) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            if (value.expiresAtMillis() == 0) {
+                return maxTtlNanos;
+            }
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return Math.max(0, Math.min(maxTtlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis)));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.demo.gateway.config.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One backend instance plus the load and health state the balancer keys on
+ */
+public final class BackendInstance implements ServiceInstance {
+
+    private static final double MIN_SLOW_START_WEIGHT = 0.1;
+
+    private final String serviceId;
+    private final URI uri;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long ejectedUntilNanos;
+    private volatile long activeSinceNanos;
+    private volatile int ejections;
+
+    BackendInstance(String serviceId, URI uri, long addedAtNanos) {
+        this.serviceId = serviceId;
+        this.uri = uri;
+        this.activeSinceNanos = addedAtNanos;
+        this.ejectedUntilNanos = addedAtNanos;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    void requestStarted() {
+        outstanding.incrementAndGet();
+    }
+
+    void requestFinished() {
+        outstanding.decrementAndGet();
+    }
+
+    boolean isAvailable(long now) {
+        return now - ejectedUntilNanos >= 0;
+    }
+
+    /**
+     * Share of traffic this instance should get relative to a warmed-up peer (slow start)
+     */
+    double weight(long now, long slowStartNanos) {
+        if (slowStartNanos <= 0) {
+            return 1.0;
+        }
+        long active = now - activeSinceNanos;
+        if (active >= slowStartNanos) {
+            return 1.0;
+        }
+        return Math.max(MIN_SLOW_START_WEIGHT, (double) Math.max(active, 0) / slowStartNanos);
+    }
+
+    void recordSuccess() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+        if (ejections != 0) {
+            ejections = 0;
+        }
+    }
+
+    /**
+     * Count a failure and return true once the consecutive-failure threshold is reached
+     */
+    boolean recordFailure(int threshold) {
+        return consecutiveFailures.incrementAndGet() >= threshold;
+    }
+
+    /**
+     * Take the instance out of rotation; it slow-starts again once the ejection ends
+     */
+    void eject(long now, long baseNanos, long maxNanos) {
+        int previous = ejections;
+        ejections = previous + 1;
+        long duration = Math.min(maxNanos, baseNanos << Math.min(previous, 20));
+        ejectedUntilNanos = now + duration;
+        activeSinceNanos = now + duration;
+        consecutiveFailures.set(0);
+    }
+
+    @Override
+    public String getInstanceId() {
+        return uri.getHost() + ":" + uri.getPort();
+    }
+
+    @Override
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    @Override
+    public String getHost() {
+        return uri.getHost();
+    }
+
+    @Override
+    public int getPort() {
+        return uri.getPort();
+    }
+
+    @Override
+    public boolean isSecure() {
+        return "https".equals(uri.getScheme());
+    }
+
+    @Override
+    public URI getUri() {
+        return uri;
+    }
+
+    @Override
+    public String getScheme() {
+        return uri.getScheme();
+    }
+
+    @Override
+    public Map<String, String> getMetadata() {
+        return Map.of();
+    }
+
+    @Override
+    public String toString() {
+        return serviceId + "@" + getInstanceId();
+    }
+}
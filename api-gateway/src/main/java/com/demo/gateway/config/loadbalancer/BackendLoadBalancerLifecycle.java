@@ -0,0 +1,88 @@
+package com.demo.gateway.config.loadbalancer;
+
+import com.demo.gateway.config.upstream.UpstreamResponses;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds request outcomes back into the backend pools
+ *
+ * Called by the gateway's load balancer filter around every lb:// request: keeps each
+ * instance's outstanding count, and counts 5xx responses and failed exchanges (connect
+ * errors, timeouts) towards passive health ejection. 5xx marked with X-Retry-Reason are
+ * deliberate retry requests and count as neither success nor failure.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BackendLoadBalancerLifecycle implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final BackendPools pools;
+    private final LoadBalancerProperties properties;
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+            && ResponseData.class.isAssignableFrom(responseClass)
+            && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse != null && lbResponse.getServer() instanceof BackendInstance instance) {
+            instance.requestStarted();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completion) {
+        Response<ServiceInstance> lbResponse = completion.getLoadBalancerResponse();
+        if (lbResponse == null || !(lbResponse.getServer() instanceof BackendInstance instance)) {
+            return;
+        }
+        instance.requestFinished();
+
+        if (completion.status() == CompletionContext.Status.DISCARD || isRetryRequest(completion)) {
+            return;
+        }
+        if (!isFailure(completion)) {
+            instance.recordSuccess();
+            return;
+        }
+
+        LoadBalancerProperties.Ejection ejection = properties.getEjection();
+        if (instance.recordFailure(ejection.getConsecutiveFailures())) {
+            BackendPool pool = pools.pool(instance.getServiceId());
+            if (pool != null && pool.tryEject(instance, ejection)) {
+                log.warn("Ejected backend instance {} after {} consecutive failures", instance, ejection.getConsecutiveFailures());
+            }
+        }
+    }
+
+    private static boolean isFailure(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completion) {
+        if (completion.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        ResponseData response = completion.getClientResponse();
+        return response != null && UpstreamResponses.isBackendFailure(response.getHttpStatus(), response.getHeaders());
+    }
+
+    private static boolean isRetryRequest(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completion) {
+        ResponseData response = completion.getClientResponse();
+        return completion.status() == CompletionContext.Status.SUCCESS && response != null
+            && response.getHeaders() != null
+            && response.getHeaders().containsKey(UpstreamResponses.RETRY_REASON_HEADER);
+    }
+}
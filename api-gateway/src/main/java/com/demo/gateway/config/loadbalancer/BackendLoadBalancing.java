@@ -0,0 +1,16 @@
+package com.demo.gateway.config.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Uses PowerOfTwoChoicesLoadBalancer for every lb:// service
+ *
+ * Instances come from gateway.load-balancer.services (static and/or DNS), not from a
+ * discovery client. A service with no pool configured has no instances, so its
+ * requests fail with 503.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LoadBalancerClientConfiguration.class)
+public class BackendLoadBalancing {
+}
@@ -0,0 +1,108 @@
+package com.demo.gateway.config.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The current instances of one service, replaced atomically when DNS results change
+ *
+ * Instances that survive a refresh keep their load and health state; new ones slow-start.
+ * Pools using consistent hashing also rebuild their hash ring on every change.
+ */
+public final class BackendPool {
+
+    private final String serviceId;
+    private final List<URI> staticInstances;
+    private final Counter ejectionCounter;
+    private final int virtualNodes;
+    private volatile List<BackendInstance> instances = List.of();
+    private volatile HashRing ring;
+
+    BackendPool(String serviceId, List<URI> staticInstances, Counter ejectionCounter, int virtualNodes) {
+        this.serviceId = serviceId;
+        this.staticInstances = List.copyOf(staticInstances);
+        this.ejectionCounter = ejectionCounter;
+        this.virtualNodes = virtualNodes;
+        update(List.of());
+    }
+
+    public String serviceId() {
+        return serviceId;
+    }
+
+    public List<BackendInstance> instances() {
+        return instances;
+    }
+
+    /**
+     * Hash ring over the current instances, or null if the pool does not use consistent hashing
+     */
+    HashRing ring() {
+        return ring;
+    }
+
+    /**
+     * Whether any available instance other than this one could take a request
+     */
+    public boolean hasOtherAvailable(BackendInstance instance) {
+        long now = System.nanoTime();
+        for (BackendInstance candidate : instances) {
+            if (candidate != instance && candidate.isAvailable(now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replace the DNS-resolved part of the pool, keeping state for unchanged instances
+     */
+    synchronized List<BackendInstance> update(List<URI> resolved) {
+        Set<URI> wanted = new LinkedHashSet<>(staticInstances);
+        wanted.addAll(resolved);
+
+        Map<URI, BackendInstance> current = new HashMap<>();
+        for (BackendInstance instance : instances) {
+            current.put(instance.getUri(), instance);
+        }
+
+        long now = System.nanoTime();
+        List<BackendInstance> next = new ArrayList<>(wanted.size());
+        for (URI uri : wanted) {
+            BackendInstance existing = current.remove(uri);
+            next.add(existing != null ? existing : new BackendInstance(serviceId, uri, now));
+        }
+        instances = List.copyOf(next);
+        if (virtualNodes > 0) {
+            ring = HashRing.build(instances, virtualNodes);
+        }
+        return List.copyOf(current.values());
+    }
+
+    /**
+     * Eject an instance unless that would take more than maxEjectionPercent of the pool out of rotation
+     */
+    boolean tryEject(BackendInstance instance, LoadBalancerProperties.Ejection ejection) {
+        List<BackendInstance> snapshot = instances;
+        long now = System.nanoTime();
+        int ejected = 0;
+        for (BackendInstance candidate : snapshot) {
+            if (!candidate.isAvailable(now)) {
+                ejected++;
+            }
+        }
+        if ((ejected + 1) * 100 > snapshot.size() * ejection.getMaxEjectionPercent()) {
+            return false;
+        }
+        instance.eject(now, ejection.getBaseEjectionTime().toNanos(), ejection.getMaxEjectionTime().toNanos());
+        ejectionCounter.increment();
+        return true;
+    }
+}
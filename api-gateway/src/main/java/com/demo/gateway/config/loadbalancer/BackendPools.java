@@ -0,0 +1,138 @@
+package com.demo.gateway.config.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Backend pools for every service in gateway.load-balancer.services
+ *
+ * Static instances are fixed; pools with a dns-name are re-resolved every
+ * dns-refresh-interval on a bounded-elastic thread (InetAddress lookups block).
+ *
+ * Metrics:
+ * - gateway.lb.outstanding{service,instance} - requests in flight per instance
+ * - gateway.lb.ejections{service} - passive health ejections
+ * - gateway.lb.hash.spillovers{service} - consistent-hash requests moved off an overloaded home instance
+ */
+@Component
+@Slf4j
+public class BackendPools {
+
+    private final LoadBalancerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, BackendPool> pools = new ConcurrentHashMap<>();
+    private final Map<BackendInstance, Meter> outstandingGauges = new ConcurrentHashMap<>();
+    private volatile Disposable dnsRefresh;
+
+    public BackendPools(LoadBalancerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        properties.getServices().forEach((serviceId, config) -> {
+            List<URI> instances = config.getInstances().stream()
+                .map(String::trim)
+                .filter(uri -> !uri.isEmpty())
+                .map(URI::create)
+                .toList();
+            Counter ejections = Counter.builder("gateway.lb.ejections")
+                .description("Backend instances taken out of rotation after consecutive failures")
+                .tag("service", serviceId)
+                .register(meterRegistry);
+            int virtualNodes = config.getStrategy() == LoadBalancerProperties.Strategy.CONSISTENT_HASH
+                ? properties.getConsistentHash().getVirtualNodes()
+                : 0;
+            BackendPool pool = new BackendPool(serviceId, instances, ejections, virtualNodes);
+            pool.instances().forEach(this::registerGauge);
+            pools.put(serviceId, pool);
+            log.info("Load balancer pool {}: {} static instance(s){}, {}", serviceId, instances.size(),
+                hasDns(config) ? ", DNS " + config.getDnsName() : "", config.getStrategy());
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        boolean anyDns = properties.getServices().values().stream().anyMatch(BackendPools::hasDns);
+        if (anyDns) {
+            dnsRefresh = Flux.interval(Duration.ZERO, properties.getDnsRefreshInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::resolveAll).subscribeOn(Schedulers.boundedElastic()))
+                .subscribe();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = dnsRefresh;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    /**
+     * Pool for a service id, or null if it is not configured
+     */
+    public BackendPool pool(String serviceId) {
+        return pools.get(serviceId);
+    }
+
+    void resolveAll() {
+        properties.getServices().forEach((serviceId, config) -> {
+            if (!hasDns(config)) {
+                return;
+            }
+            BackendPool pool = pools.get(serviceId);
+            try {
+                List<URI> resolved = new ArrayList<>();
+                for (InetAddress address : InetAddress.getAllByName(config.getDnsName())) {
+                    resolved.add(new URI(config.getDnsScheme(), null, address.getHostAddress(), config.getDnsPort(), null, null, null));
+                }
+                List<BackendInstance> removed = pool.update(resolved);
+                pool.instances().forEach(this::registerGauge);
+                removed.forEach(instance -> {
+                    Meter gauge = outstandingGauges.remove(instance);
+                    if (gauge != null) {
+                        meterRegistry.remove(gauge);
+                    }
+                });
+                if (!removed.isEmpty()) {
+                    log.info("Load balancer pool {}: removed {}", serviceId, removed);
+                }
+            } catch (UnknownHostException e) {
+                // Keep the last known instances rather than emptying the pool on a DNS blip
+                log.warn("Could not resolve {} for pool {}: {}", config.getDnsName(), serviceId, e.getMessage());
+            } catch (Exception e) {
+                log.error("DNS refresh failed for pool {}", serviceId, e);
+            }
+        });
+    }
+
+    private void registerGauge(BackendInstance instance) {
+        outstandingGauges.computeIfAbsent(instance, i -> Gauge.builder("gateway.lb.outstanding", i, BackendInstance::outstanding)
+            .description("Requests in flight to a backend instance")
+            .tag("service", i.getServiceId())
+            .tag("instance", i.getInstanceId())
+            .register(meterRegistry));
+    }
+
+    private static boolean hasDns(LoadBalancerProperties.ServicePool config) {
+        return config.getDnsName() != null && !config.getDnsName().isBlank();
+    }
+}
@@ -0,0 +1,106 @@
+package com.demo.gateway.config.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Consistent hashing with bounded load, keyed on the tenant
+ *
+ * The key is VerifiedToken.routingKey() (org_id, falling back to sub) set by
+ * JwtAuthenticationFilter, so one organization's traffic keeps hitting the same warm
+ * backend. No instance takes more than load-factor times the average in-flight count:
+ * when the home instance is full, the request walks clockwise to the next instance with
+ * room, so a hot tenant spills over onto its ring neighbours instead of overloading one node.
+ *
+ * A hedged request excludes the instance its first attempt went to, so the hedge goes to
+ * the next instance on the ring (the tenant's second-warmest node).
+ *
+ * Requests without a verified token (webhooks, public paths) fall back to
+ * PowerOfTwoChoicesLoadBalancer, as do pools whose instances are all ejected.
+ */
+public class ConsistentHashLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final String serviceId;
+    private final BackendPool pool;
+    private final PowerOfTwoChoicesLoadBalancer fallback;
+    private final long slowStartNanos;
+    private final double loadFactor;
+    private final Counter spillovers;
+
+    public ConsistentHashLoadBalancer(String serviceId, BackendPool pool, LoadBalancerProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.serviceId = serviceId;
+        this.pool = pool;
+        this.fallback = new PowerOfTwoChoicesLoadBalancer(serviceId, pool, properties);
+        this.slowStartNanos = properties.getSlowStart().toNanos();
+        this.loadFactor = Math.max(1.0, properties.getConsistentHash().getLoadFactor());
+        this.spillovers = Counter.builder("gateway.lb.hash.spillovers")
+            .description("Consistent-hash requests sent past their home instance because it was at its load bound")
+            .tag("service", serviceId)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        String key = RoutingHints.routingKey(request);
+        HashRing ring = pool != null ? pool.ring() : null;
+        if (key == null || ring == null || ring.size() == 0) {
+            return fallback.choose(request);
+        }
+        BackendInstance chosen = choose(ring, pool.instances(), key, RoutingHints.excluded(request), System.nanoTime());
+        return chosen != null ? Mono.just(new DefaultResponse(chosen)) : fallback.choose(request);
+    }
+
+    BackendInstance choose(HashRing ring, List<BackendInstance> instances, String key, BackendInstance excluded, long now) {
+        int available = 0;
+        long outstanding = 0;
+        boolean excludedAvailable = false;
+        for (BackendInstance instance : instances) {
+            if (instance.isAvailable(now)) {
+                available++;
+                outstanding += instance.outstanding();
+                excludedAvailable |= instance == excluded;
+            }
+        }
+        if (available == 0) {
+            return null;
+        }
+        if (!excludedAvailable || available == 1) {
+            excluded = null;
+        }
+
+        // Bound from "Consistent Hashing with Bounded Loads": ceil(c * (in-flight + this request) / instances)
+        double bound = Math.ceil(loadFactor * (outstanding + 1) / available);
+        int start = ring.start(key);
+        BackendInstance home = null;
+        for (int i = 0, size = ring.size(); i < size; i++) {
+            BackendInstance candidate = ring.owner((start + i) % size);
+            if (!candidate.isAvailable(now) || candidate == excluded) {
+                continue;
+            }
+            if (home == null) {
+                home = candidate;
+            }
+            if (candidate.outstanding() < bound * candidate.weight(now, slowStartNanos)) {
+                if (candidate != home) {
+                    spillovers.increment();
+                }
+                return candidate;
+            }
+        }
+        return home;
+    }
+
+    @Override
+    public String toString() {
+        return "ConsistentHashLoadBalancer[" + serviceId + "]";
+    }
+}
@@ -0,0 +1,80 @@
+package com.demo.gateway.config.loadbalancer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable consistent-hash ring over a pool's instances
+ *
+ * Each instance owns virtualNodes points on a 64-bit ring, so adding or removing one of
+ * n instances moves roughly 1/n of the keys and spreads them evenly over the others.
+ * Points are hashed from the instance URI, so every gateway replica builds the same ring.
+ */
+final class HashRing {
+
+    private final long[] points;
+    private final BackendInstance[] owners;
+
+    private HashRing(long[] points, BackendInstance[] owners) {
+        this.points = points;
+        this.owners = owners;
+    }
+
+    static HashRing build(List<BackendInstance> instances, int virtualNodes) {
+        int size = instances.size() * virtualNodes;
+        long[][] entries = new long[size][];
+        int n = 0;
+        for (int i = 0; i < instances.size(); i++) {
+            String base = instances.get(i).getUri().toString() + "#";
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[n++] = new long[] {hash(base + v), i};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+
+        long[] points = new long[size];
+        BackendInstance[] owners = new BackendInstance[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = entries[i][0];
+            owners[i] = instances.get((int) entries[i][1]);
+        }
+        return new HashRing(points, owners);
+    }
+
+    int size() {
+        return points.length;
+    }
+
+    /**
+     * Index of the first point at or clockwise after the key's hash
+     */
+    int start(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == points.length ? 0 : index;
+    }
+
+    BackendInstance owner(int index) {
+        return owners[index];
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes with a murmur3 finalizer, so similar ids land far apart on the ring
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,38 @@
+package com.demo.gateway.config.loadbalancer;
+
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Releases an instance's outstanding slot when an lb:// request is cancelled
+ *
+ * The gateway's load balancer filter completes the LoadBalancerLifecycle on success and
+ * error but not on cancellation (client disconnects, the losing attempt of a hedged
+ * request), which would leave BackendLoadBalancerLifecycle's outstanding count raised
+ * forever. Runs right after the load balancer filter has chosen the instance.
+ */
+@Component
+public class LoadBalancerCancellationFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange).doOnCancel(() -> {
+            Response<?> response = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+            if (response != null && response.getServer() instanceof BackendInstance instance) {
+                instance.requestFinished();
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
@@ -0,0 +1,28 @@
+package com.demo.gateway.config.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service child context configuration for BackendLoadBalancing
+ *
+ * Deliberately not a @Configuration (nor a member class of one), so it is only
+ * registered in each load balancer child context, where the service id is set.
+ */
+class LoadBalancerClientConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> backendLoadBalancer(
+            Environment environment, BackendPools pools, LoadBalancerProperties properties, MeterRegistry meterRegistry) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        LoadBalancerProperties.ServicePool config = properties.getServices().get(serviceId);
+        if (config != null && config.getStrategy() == LoadBalancerProperties.Strategy.CONSISTENT_HASH) {
+            return new ConsistentHashLoadBalancer(serviceId, pools.pool(serviceId), properties, meterRegistry);
+        }
+        return new PowerOfTwoChoicesLoadBalancer(serviceId, pools.pool(serviceId), properties);
+    }
+}
@@ -0,0 +1,86 @@
+package com.demo.gateway.config.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backend pools for lb:// routes (gateway.load-balancer.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LoadBalancerProperties {
+
+    /** Pools keyed by service id (the host part of lb://service-id) */
+    private Map<String, ServicePool> services = new LinkedHashMap<>();
+
+    /** How often DNS-resolved pools are re-resolved */
+    private Duration dnsRefreshInterval = Duration.ofSeconds(30);
+
+    /** New (or returning) instances ramp from 10% to full weight over this window; zero disables */
+    private Duration slowStart = Duration.ofSeconds(30);
+
+    private Ejection ejection = new Ejection();
+
+    private ConsistentHash consistentHash = new ConsistentHash();
+
+    public enum Strategy {
+        /** Power-of-two-choices on outstanding requests */
+        LEAST_OUTSTANDING,
+        /** Sticky by organization (falling back to user) with bounded load */
+        CONSISTENT_HASH
+    }
+
+    @Data
+    public static class ServicePool {
+        /** Static instances, e.g. http://backend-1:8081 */
+        private List<String> instances = new ArrayList<>();
+
+        /** Optional DNS name whose A/AAAA records are added as instances (e.g. a headless service) */
+        private String dnsName;
+
+        private int dnsPort = 8081;
+
+        private String dnsScheme = "http";
+
+        private Strategy strategy = Strategy.LEAST_OUTSTANDING;
+    }
+
+    /**
+     * Passive health checking: instances returning 5xx or failing (connect errors, timeouts)
+     * this many times in a row are taken out of rotation for a while
+     */
+    @Data
+    public static class Ejection {
+        private int consecutiveFailures = 5;
+
+        /** Ejection time; doubles with each repeated ejection up to max-ejection-time */
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+        /** Never eject more than this share of a pool; beyond it failures are only counted */
+        private int maxEjectionPercent = 50;
+    }
+
+    /**
+     * Consistent hashing with bounded load: a tenant sticks to its home instance unless that
+     * instance has more than load-factor times the average outstanding requests, in which case
+     * the request moves clockwise on the ring to the next instance with room
+     */
+    @Data
+    public static class ConsistentHash {
+        /** Ring points per instance; more points spread tenants more evenly */
+        private int virtualNodes = 100;
+
+        /** Maximum load of any instance relative to the pool average (must be above 1) */
+        private double loadFactor = 1.25;
+    }
+}
@@ -0,0 +1,100 @@
+package com.demo.gateway.config.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices over least outstanding requests
+ *
+ * Samples two distinct available instances at random and picks the one with the lower
+ * (outstanding + 1) / weight, where weight ramps up during slow start. This tracks the
+ * least-loaded instance almost as well as a full scan, without every gateway thread
+ * herding onto the same "least loaded" instance.
+ *
+ * Ejected instances are skipped; if every instance is ejected the whole pool is used
+ * (a guess is better than a guaranteed 503). An instance excluded through RoutingHints
+ * (a hedged request's first attempt) is skipped while any other instance is available.
+ */
+public class PowerOfTwoChoicesLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final String serviceId;
+    private final BackendPool pool;
+    private final long slowStartNanos;
+
+    public PowerOfTwoChoicesLoadBalancer(String serviceId, BackendPool pool, LoadBalancerProperties properties) {
+        this.serviceId = serviceId;
+        this.pool = pool;
+        this.slowStartNanos = properties.getSlowStart().toNanos();
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        BackendInstance chosen = pool != null
+            ? choose(pool.instances(), RoutingHints.excluded(request), System.nanoTime())
+            : null;
+        return Mono.just(chosen != null ? new DefaultResponse(chosen) : new EmptyResponse());
+    }
+
+    BackendInstance choose(List<BackendInstance> instances, BackendInstance excluded, long now) {
+        int size = instances.size();
+        if (size == 0) {
+            return null;
+        }
+        if (size == 1) {
+            return instances.get(0);
+        }
+
+        List<BackendInstance> candidates = instances;
+        int available = 0;
+        boolean excludedAvailable = false;
+        for (BackendInstance instance : instances) {
+            if (instance.isAvailable(now)) {
+                available++;
+                excludedAvailable |= instance == excluded;
+            }
+        }
+        if (!excludedAvailable || available == 1) {
+            excluded = null;
+        }
+        if (available > 0 && (available < size || excluded != null)) {
+            candidates = new ArrayList<>(available);
+            for (BackendInstance instance : instances) {
+                if (instance.isAvailable(now) && instance != excluded) {
+                    candidates.add(instance);
+                }
+            }
+        }
+
+        int count = candidates.size();
+        if (count == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(count);
+        int second = random.nextInt(count - 1);
+        if (second >= first) {
+            second++;
+        }
+        BackendInstance a = candidates.get(first);
+        BackendInstance b = candidates.get(second);
+        return score(a, now) <= score(b, now) ? a : b;
+    }
+
+    private double score(BackendInstance instance, long now) {
+        return (instance.outstanding() + 1) / instance.weight(now, slowStartNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "PowerOfTwoChoicesLoadBalancer[" + serviceId + "]";
+    }
+}
@@ -0,0 +1,49 @@
+package com.demo.gateway.config.loadbalancer;
+
+import com.demo.gateway.config.jwt.VerifiedToken;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+
+import java.util.Map;
+
+/**
+ * Per-request inputs to the load balancers, read from the exchange attributes
+ *
+ * The gateway's load balancer filter hands the exchange attributes to the balancer
+ * through RequestDataContext, so earlier filters can steer instance selection:
+ * - VerifiedToken (JwtAuthenticationFilter) - tenant key for consistent hashing
+ * - EXCLUDED_INSTANCE_ATTRIBUTE (HedgingGatewayFilterFactory) - an instance to avoid,
+ *   e.g. the one a hedged request is already waiting on
+ */
+public final class RoutingHints {
+
+    public static final String EXCLUDED_INSTANCE_ATTRIBUTE = RoutingHints.class.getName() + ".excludedInstance";
+
+    private RoutingHints() {
+    }
+
+    /**
+     * Tenant key of the request, or null if it carries no verified token
+     */
+    static String routingKey(Request<?> request) {
+        return attribute(request, VerifiedToken.EXCHANGE_ATTRIBUTE) instanceof VerifiedToken verified
+            ? verified.routingKey()
+            : null;
+    }
+
+    /**
+     * Instance the request should avoid if any other is available, or null
+     */
+    static BackendInstance excluded(Request<?> request) {
+        return attribute(request, EXCLUDED_INSTANCE_ATTRIBUTE) instanceof BackendInstance instance ? instance : null;
+    }
+
+    private static Object attribute(Request<?> request, String name) {
+        if (request == null || !(request.getContext() instanceof RequestDataContext context)
+                || context.getClientRequest() == null) {
+            return null;
+        }
+        Map<String, Object> attributes = context.getClientRequest().getAttributes();
+        return attributes != null ? attributes.get(name) : null;
+    }
+}
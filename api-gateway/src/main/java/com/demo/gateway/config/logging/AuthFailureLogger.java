@@ -0,0 +1,131 @@
+package com.demo.gateway.config.logging;
+
+import com.demo.gateway.config.jwt.JwksKeyStore;
+import io.jsonwebtoken.ClaimJwtException;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated logging for authentication failures
+ *
+ * During a token-expiry storm every client with a stale token fails at once; logging each
+ * failure (let alone its stack trace) would cost more than rejecting the request. Instead:
+ * - Expected failures (expired, bad signature, unknown kid, malformed token, missing header,
+ *   overload) are counted and logged as one summary line per interval,
+ *   e.g. "Auth failures in last 10s: 4821 expired, 3 invalid_signature"
+ * - Unexpected exception types are logged with a stack trace, at most once per exception
+ *   class per interval; further occurrences are counted in the summary
+ */
+@Component
+@Slf4j
+public class AuthFailureLogger {
+
+    private final Duration summaryInterval;
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Boolean> tracedThisInterval = new ConcurrentHashMap<>();
+    private volatile Disposable summarizer;
+
+    public AuthFailureLogger(@Value("${gateway.auth-logging.summary-interval:PT10S}") Duration summaryInterval) {
+        this.summaryInterval = summaryInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        summarizer = Flux.interval(summaryInterval)
+            .subscribe(tick -> logSummary());
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = summarizer;
+        if (current != null) {
+            current.dispose();
+        }
+        logSummary();
+    }
+
+    /**
+     * Count an expected failure that has no exception (e.g. missing_token, overloaded)
+     */
+    public void record(String reason) {
+        counts.computeIfAbsent(reason, r -> new LongAdder()).increment();
+    }
+
+    /**
+     * Count a token that failed verification and return its reason for metrics
+     */
+    public String record(Throwable error) {
+        String reason = classify(error);
+        if (reason == null) {
+            reason = "unexpected";
+            if (tracedThisInterval.putIfAbsent(error.getClass(), Boolean.TRUE) == null) {
+                log.error("Unexpected error while authenticating request", error);
+            }
+        }
+        record(reason);
+        return reason;
+    }
+
+    /**
+     * Reason for an expected failure, or null if the exception type is unexpected
+     */
+    static String classify(Throwable error) {
+        if (error instanceof ExpiredJwtException) {
+            return "expired";
+        }
+        if (error instanceof SignatureException) {
+            return "invalid_signature";
+        }
+        if (error instanceof JwksKeyStore.UnknownKeyException) {
+            return "unknown_key";
+        }
+        if (error instanceof ClaimJwtException) {
+            return "invalid_claims";
+        }
+        if (error instanceof MalformedJwtException || error instanceof IllegalArgumentException) {
+            return "malformed";
+        }
+        if (error instanceof JwtException) {
+            return "invalid_token";
+        }
+        return null;
+    }
+
+    void logSummary() {
+        tracedThisInterval.clear();
+        Map<String, Long> snapshot = new TreeMap<>();
+        counts.forEach((reason, count) -> {
+            long value = count.sumThenReset();
+            if (value > 0) {
+                snapshot.put(reason, value);
+            }
+        });
+        if (snapshot.isEmpty()) {
+            return;
+        }
+
+        StringBuilder summary = new StringBuilder();
+        snapshot.forEach((reason, count) -> {
+            if (!summary.isEmpty()) {
+                summary.append(", ");
+            }
+            summary.append(count).append(' ').append(reason);
+        });
+        log.warn("Auth failures in last {}s: {}", summaryInterval.toSeconds(), summary);
+    }
+}
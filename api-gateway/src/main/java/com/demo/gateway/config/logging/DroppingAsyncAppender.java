@@ -0,0 +1,42 @@
+package com.demo.gateway.config.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Async appender that never blocks the caller and counts what it drops
+ *
+ * Events are handed to a bounded queue drained by one worker thread. When the queue is
+ * full the event is dropped instead of stalling the (event-loop) thread that logged it;
+ * below the discarding threshold TRACE/DEBUG/INFO events are dropped first, as in
+ * logback's AsyncAppender. Drops are published as gateway.logging.dropped by LoggingMetrics.
+ *
+ * Configured in logback-spring.xml.
+ */
+public class DroppingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    public DroppingAsyncAppender() {
+        setNeverBlock(true);
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        if (remaining == 0 || (remaining < getDiscardingThreshold() && isDiscardable(event))) {
+            DROPPED.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    /**
+     * Events dropped by every instance since startup
+     */
+    public static long droppedCount() {
+        return DROPPED.sum();
+    }
+}
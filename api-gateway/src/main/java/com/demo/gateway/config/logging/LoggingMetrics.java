@@ -0,0 +1,18 @@
+package com.demo.gateway.config.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes DroppingAsyncAppender's drop count (the appender is created by logback, outside Spring)
+ */
+@Component
+public class LoggingMetrics {
+
+    public LoggingMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("gateway.logging.dropped", DroppingAsyncAppender.class, appender -> DroppingAsyncAppender.droppedCount())
+            .description("Log events dropped because the async logging queue was full")
+            .register(meterRegistry);
+    }
+}
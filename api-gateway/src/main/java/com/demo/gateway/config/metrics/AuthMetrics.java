@@ -0,0 +1,72 @@
+package com.demo.gateway.config.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the authentication step of JwtAuthenticationFilter
+ *
+ * - gateway.auth.duration{result} - time spent authenticating (cache_hit, verified, rejected)
+ * - gateway.auth.rejections{reason} - requests refused by authentication
+ * - gateway.auth.stripped.identity.headers - requests whose client-supplied X-Internal-Identity /
+ *   X-Webhook-Verified were removed (not a failure: the request may still authenticate)
+ *
+ * Verified-token cache hit/miss counters are published separately as cache.*{cache=gateway.jwt.verified},
+ * JWKS fetches as gateway.jwks.fetches{outcome}.
+ */
+@Component
+public class AuthMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer cacheHit;
+    private final Timer verified;
+    private final Timer rejected;
+    private final Counter strippedIdentityHeaders;
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.cacheHit = timer("cache_hit");
+        this.verified = timer("verified");
+        this.rejected = timer("rejected");
+        this.strippedIdentityHeaders = Counter.builder("gateway.auth.stripped.identity.headers")
+            .description("Requests whose client-supplied internal identity headers were removed")
+            .register(meterRegistry);
+    }
+
+    private Timer timer(String result) {
+        return Timer.builder("gateway.auth.duration")
+            .description("Time spent authenticating a request in the gateway")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    public void recordCacheHit(long startNanos) {
+        cacheHit.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordVerified(long startNanos) {
+        verified.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordStrippedIdentityHeaders() {
+        strippedIdentityHeaders.increment();
+    }
+
+    /**
+     * Record a refused request; reason is a short fixed token such as missing_token or expired
+     */
+    public void recordRejected(String reason, long startNanos) {
+        rejected.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        rejections.computeIfAbsent(reason, r -> Counter.builder("gateway.auth.rejections")
+            .description("Requests rejected by gateway authentication")
+            .tag("reason", r)
+            .register(meterRegistry)).increment();
+    }
+}
@@ -0,0 +1,102 @@
+package com.demo.gateway.config.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route latency timers around the whole filter chain and around the upstream call
+ *
+ * - gateway.request.duration{route,status} - total time in the gateway, first filter to response written
+ * - gateway.upstream.duration{route,status} - time from sending to the backend to its response headers
+ *
+ * status is the status class (2xx, 4xx, ...). Histogram buckets for Prometheus (and therefore
+ * p50/p95/p99 queries) are enabled in application.yml under management.metrics.distribution.
+ */
+@Configuration
+public class RouteTimingFilters {
+
+    @Bean
+    public GlobalFilter requestTimingFilter(MeterRegistry meterRegistry) {
+        return new TimingFilter(meterRegistry, "gateway.request.duration",
+            "Total time spent handling a request in the gateway", Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Bean
+    public GlobalFilter upstreamTimingFilter(MeterRegistry meterRegistry) {
+        // Immediately before NettyRoutingFilter, which completes once upstream response headers arrive
+        return new TimingFilter(meterRegistry, "gateway.upstream.duration",
+            "Time from forwarding a request to receiving the backend's response", NettyRoutingFilter.ORDER - 1);
+    }
+
+    static final class TimingFilter implements GlobalFilter, Ordered {
+
+        private static final String[] STATUS_CLASSES = {"unknown", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+        private final MeterRegistry meterRegistry;
+        private final String name;
+        private final String description;
+        private final int order;
+        private final Map<String, Timer[]> timersByRoute = new ConcurrentHashMap<>();
+
+        TimingFilter(MeterRegistry meterRegistry, String name, String description, int order) {
+            this.meterRegistry = meterRegistry;
+            this.name = name;
+            this.description = description;
+            this.order = order;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                .doFinally(signal -> timer(exchange).record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        }
+
+        private Timer timer(ServerWebExchange exchange) {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "none";
+            Timer[] timers = timersByRoute.get(routeId);
+            if (timers == null) {
+                timers = timersByRoute.computeIfAbsent(routeId, id -> new Timer[STATUS_CLASSES.length]);
+            }
+
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            int statusClass = status != null ? status.value() / 100 : 0;
+            if (statusClass < 1 || statusClass > 5) {
+                statusClass = 0;
+            }
+
+            Timer timer = timers[statusClass];
+            if (timer == null) {
+                // Registration is idempotent, so a racing duplicate returns the same timer
+                timer = Timer.builder(name)
+                    .description(description)
+                    .tag("route", routeId)
+                    .tag("status", STATUS_CLASSES[statusClass])
+                    .register(meterRegistry);
+                timers[statusClass] = timer;
+            }
+            return timer;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+}
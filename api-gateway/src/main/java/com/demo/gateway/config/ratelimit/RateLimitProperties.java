@@ -0,0 +1,65 @@
+package com.demo.gateway.config.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-route rate limits (gateway.rate-limit.*)
+ *
+ * Each route id may define a per-user and a per-org limit; routes without an entry
+ * use 'defaults'. A limit with permits-per-second <= 0 is disabled.
+ *
+ * gateway:
+ *   rate-limit:
+ *     defaults:
+ *       user: { permits-per-second: 20, burst: 40 }
+ *     routes:
+ *       backend-service:
+ *         org: { permits-per-second: 100, burst: 200 }
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = false;
+
+    /** How long an idle user/org bucket is kept before it is evicted */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /** Maximum number of buckets kept per route and scope (further keys share an overflow bucket) */
+    private long maximumBuckets = 100_000;
+
+    private RouteLimits defaults = new RouteLimits();
+
+    private Map<String, RouteLimits> routes = new HashMap<>();
+
+    public RouteLimits forRoute(String routeId) {
+        RouteLimits limits = routeId != null ? routes.get(routeId) : null;
+        return limits != null ? limits : defaults;
+    }
+
+    @Data
+    public static class RouteLimits {
+        private Limit user = new Limit();
+        private Limit org = new Limit();
+    }
+
+    @Data
+    public static class Limit {
+        /** Sustained rate; 0 disables this limit */
+        private double permitsPerSecond;
+
+        /** Requests allowed in a burst above the sustained rate */
+        private int burst = 1;
+
+        public boolean isEnabled() {
+            return permitsPerSecond > 0;
+        }
+    }
+}
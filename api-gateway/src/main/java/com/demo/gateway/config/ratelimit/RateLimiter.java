@@ -0,0 +1,169 @@
+package com.demo.gateway.config.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory per-user and per-org rate limiter
+ *
+ * Buckets live in plain ConcurrentHashMaps, one per route and scope, keyed by the raw
+ * Clerk user/org id, so the allow path is one map read plus one CAS with no allocation.
+ * A request must pass both its user and its org bucket; a user permit taken for a request
+ * the org bucket then rejects is given back.
+ *
+ * Idle buckets (full for longer than gateway.rate-limit.idle-timeout) are removed by a
+ * periodic sweep. Once a map holds gateway.rate-limit.maximum-buckets entries, new keys
+ * share a single overflow bucket per route and scope until the sweep frees space.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private final RateLimitProperties properties;
+    private final Map<String, RouteBuckets> routes = new ConcurrentHashMap<>();
+
+    private volatile Disposable sweeper;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper = Flux.interval(properties.getIdleTimeout().dividedBy(2))
+            .subscribe(tick -> sweepIdle());
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = sweeper;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    /**
+     * Take one permit for the user and org on a route
+     *
+     * @return null if allowed, otherwise the rejection (scope and nanos until a permit is available)
+     */
+    public Rejection tryAcquire(String routeId, String userId, String orgId) {
+        String routeKey = routeId != null ? routeId : "";
+        RouteBuckets buckets = routes.get(routeKey);
+        if (buckets == null) {
+            buckets = routes.computeIfAbsent(routeKey, this::newRouteBuckets);
+        }
+        long now = System.nanoTime();
+
+        TokenBucket userBucket = null;
+        if (buckets.users != null && userId != null) {
+            userBucket = buckets.users.bucket(userId, now);
+            long wait = userBucket.tryAcquire(now);
+            if (wait > 0) {
+                return new Rejection(Scope.USER, wait);
+            }
+        }
+        if (buckets.orgs != null && orgId != null && !orgId.isEmpty()) {
+            long wait = buckets.orgs.bucket(orgId, now).tryAcquire(now);
+            if (wait > 0) {
+                // Rejected by the org: the user's permit was not used, so a noisy org does not drain its users
+                if (userBucket != null) {
+                    userBucket.release();
+                }
+                return new Rejection(Scope.ORG, wait);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drop buckets that have refilled completely and not been used since
+     * Such a bucket is indistinguishable from a new one, so removing it loses nothing
+     */
+    void sweepIdle() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        for (RouteBuckets buckets : routes.values()) {
+            if (buckets.users != null) {
+                buckets.users.sweep(now, idleNanos);
+            }
+            if (buckets.orgs != null) {
+                buckets.orgs.sweep(now, idleNanos);
+            }
+        }
+    }
+
+    private RouteBuckets newRouteBuckets(String routeId) {
+        RateLimitProperties.RouteLimits limits = properties.forRoute(routeId);
+        long maximum = properties.getMaximumBuckets();
+        return new RouteBuckets(
+            limits.getUser().isEnabled() ? new Buckets(routeId, limits.getUser(), maximum) : null,
+            limits.getOrg().isEnabled() ? new Buckets(routeId, limits.getOrg(), maximum) : null
+        );
+    }
+
+    public enum Scope { USER, ORG }
+
+    /**
+     * A denied request: which limit was hit and how long until it admits again
+     */
+    public record Rejection(Scope scope, long retryAfterNanos) {
+    }
+
+    private record RouteBuckets(Buckets users, Buckets orgs) {
+    }
+
+    /**
+     * Buckets for one route and scope
+     */
+    private static final class Buckets {
+
+        private final String routeId;
+        private final RateLimitProperties.Limit limit;
+        private final long maximum;
+        private final Map<String, TokenBucket> byKey = new ConcurrentHashMap<>();
+        private final TokenBucket overflow;
+        private volatile boolean overflowLogged;
+
+        private Buckets(String routeId, RateLimitProperties.Limit limit, long maximum) {
+            this.routeId = routeId;
+            this.limit = limit;
+            this.maximum = maximum;
+            this.overflow = newBucket(System.nanoTime());
+        }
+
+        private TokenBucket bucket(String key, long now) {
+            TokenBucket bucket = byKey.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (byKey.size() >= maximum) {
+                if (!overflowLogged) {
+                    overflowLogged = true;
+                    log.warn("Rate limiter for route '{}' reached {} buckets; new keys share an overflow bucket",
+                        routeId, maximum);
+                }
+                return overflow;
+            }
+            TokenBucket created = newBucket(now);
+            TokenBucket existing = byKey.putIfAbsent(key, created);
+            return existing != null ? existing : created;
+        }
+
+        private void sweep(long now, long idleNanos) {
+            byKey.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+            overflowLogged = false;
+        }
+
+        private TokenBucket newBucket(long now) {
+            return new TokenBucket(limit.getPermitsPerSecond(), limit.getBurst(), now);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.demo.gateway.config.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket using the generic cell rate algorithm (GCRA)
+ *
+ * The whole bucket state is one 'theoretical arrival time' (TAT) in a single AtomicLong:
+ * - each permit pushes the TAT forward by the emission interval (1 / rate)
+ * - a request is allowed while the TAT stays within burst * interval of now
+ * So a hit is one volatile read, a little arithmetic and one CAS, and there is no
+ * refill timer or lock.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / permitsPerSecond));
+        this.toleranceNanos = emissionIntervalNanos * Math.max(1, burst);
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Whether the bucket has been full (unused) for at least idleNanos
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrivalNanos.get() > idleNanos;
+    }
+
+    /**
+     * Take one permit
+     *
+     * @return 0 if the permit was granted, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrivalNanos.get();
+            long newTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long allowAt = newTat - toleranceNanos;
+            if (allowAt > nowNanos) {
+                return allowAt - nowNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, newTat)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Give back a permit taken by tryAcquire that ended up unused
+     * (e.g. the request was rejected by another bucket)
+     */
+    public void release() {
+        theoreticalArrivalNanos.addAndGet(-emissionIntervalNanos);
+    }
+}
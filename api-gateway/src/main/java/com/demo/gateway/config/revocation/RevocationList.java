@@ -0,0 +1,96 @@
+package com.demo.gateway.config.revocation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked token and session ids, checked on every authenticated request
+ *
+ * A Bloom filter answers almost every lookup (tokens that were never revoked) with a few
+ * bit reads; only "maybe revoked" ids go to the exact map, which also rules out Bloom
+ * false positives. Each entry keeps its session's expiry: past it the JWT's own exp check
+ * rejects the token anyway, and the entry is dropped on the next full reload.
+ *
+ * Filled by RevocationRefresher. Until the first load succeeds nothing is considered revoked
+ * (fail-open), so an unreachable backend never locks every user out.
+ *
+ * Metrics:
+ * - gateway.revocation.entries - revoked ids held in memory
+ */
+@Component
+public class RevocationList {
+
+    private final RevocationProperties properties;
+    private volatile Snapshot snapshot;
+
+    public RevocationList(RevocationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.snapshot = new Snapshot(new BloomFilter(1, properties.getFalsePositiveRate()), new ConcurrentHashMap<>());
+        Gauge.builder("gateway.revocation.entries", this, list -> list.snapshot.exact.size())
+            .description("Revoked token and session ids held by the gateway")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Whether a token or session id (jti / sid claim) has been revoked; null ids never are
+     */
+    public boolean isRevoked(String id) {
+        if (id == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        if (current.exact.isEmpty() || !current.bloom.mightContain(id)) {
+            return false;
+        }
+        Long expiresAt = current.exact.get(id);
+        return expiresAt != null && (expiresAt == 0 || expiresAt > System.currentTimeMillis());
+    }
+
+    public int size() {
+        return snapshot.exact.size();
+    }
+
+    /**
+     * Swap in a freshly loaded set, dropping expired entries and resizing the Bloom filter
+     */
+    void replace(Collection<Revocation> revocations) {
+        long now = System.currentTimeMillis();
+        Map<String, Long> exact = new ConcurrentHashMap<>();
+        for (Revocation revocation : revocations) {
+            if (revocation.expiresAt() == 0 || revocation.expiresAt() > now) {
+                exact.put(revocation.id(), revocation.expiresAt());
+            }
+        }
+        BloomFilter bloom = new BloomFilter(
+            Math.max(properties.getExpectedEntries(), exact.size() * 2), properties.getFalsePositiveRate());
+        exact.keySet().forEach(bloom::add);
+        snapshot = new Snapshot(bloom, exact);
+    }
+
+    /**
+     * Add newly revoked ids to the current set
+     * The exact map is written before the Bloom filter so a reader that sees the bit also finds the entry
+     */
+    void add(Collection<Revocation> revocations) {
+        Snapshot current = snapshot;
+        for (Revocation revocation : revocations) {
+            current.exact.put(revocation.id(), revocation.expiresAt());
+            current.bloom.add(revocation.id());
+        }
+    }
+
+    /**
+     * @param id Revoked token (jti) or session (sid) id
+     * @param expiresAt Session expiry in epoch millis, or 0 if unknown
+     */
+    record Revocation(String id, long expiresAt) {
+    }
+
+    private record Snapshot(BloomFilter bloom, Map<String, Long> exact) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.demo.gateway.config.revocation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Session revocation settings (gateway.revocation.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.revocation")
+public class RevocationProperties {
+
+    /** Opt-in: tokens are never checked for revocation unless enabled */
+    private boolean enabled = false;
+
+    /** Backend endpoint listing revoked sessions, e.g. http://backend-service:8081/internal/revocations */
+    private String url = "";
+
+    /** Bearer secret presented to the backend (its gateway.revocation.secret) */
+    private String secret = "";
+
+    /** How often newer revocations are fetched; a revoked session keeps working for at most this long */
+    private Duration refreshInterval = Duration.ofSeconds(5);
+
+    /** How often the whole set is reloaded, dropping expired sessions and resizing the Bloom filter */
+    private Duration fullReloadInterval = Duration.ofMinutes(10);
+
+    /** Incremental fetches start this far before the last watermark to catch late-committing revocations */
+    private Duration overlap = Duration.ofMinutes(1);
+
+    private Duration fetchTimeout = Duration.ofSeconds(5);
+
+    /** Revocations per backend page */
+    private int pageSize = 5000;
+
+    /** Bloom filter capacity; rebuilt at twice the live entry count when that is larger */
+    private int expectedEntries = 100_000;
+
+    /** Bloom filter false-positive rate at capacity (a false positive only costs one exact-set lookup) */
+    private double falsePositiveRate = 0.001;
+}
@@ -0,0 +1,158 @@
+package com.demo.gateway.config.revocation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Keeps RevocationList in sync with the backend's revoked auth_sessions
+ *
+ * Every refresh-interval it fetches only the revocations newer than the last watermark
+ * (minus overlap, so a revocation committed slightly out of order is not missed); every
+ * full-reload-interval it reloads the whole set instead. Both page through
+ * GET {url}?since=&after=&limit= over the shared reactive WebClient, each page continuing behind
+ * the (revoked_at, id) cursor of the previous one; revocations seen twice are de-duplicated by
+ * RevocationList. Failures keep the current set.
+ *
+ * Metrics:
+ * - gateway.revocation.refreshes{type=full|incremental,outcome=success|failure}
+ * - gateway.revocation.staleness - seconds since the last successful refresh
+ */
+@Component
+@Slf4j
+public class RevocationRefresher {
+
+    private final RevocationProperties properties;
+    private final RevocationList revocationList;
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+
+    private volatile long watermark;
+    private volatile long lastFullReloadNanos;
+    private volatile long lastSuccessMillis;
+    private volatile boolean loaded;
+    private volatile Disposable scheduledRefresh;
+
+    public RevocationRefresher(
+            RevocationProperties properties,
+            RevocationList revocationList,
+            WebClient.Builder webClientBuilder,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.revocationList = revocationList;
+        this.webClient = webClientBuilder.build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (properties.getUrl().isBlank()) {
+            log.warn("Session revocation is enabled but gateway.revocation.url is empty; revocations will not be loaded");
+            return;
+        }
+        Gauge.builder("gateway.revocation.staleness", this,
+                refresher -> refresher.lastSuccessMillis == 0
+                    ? Double.NaN
+                    : (System.currentTimeMillis() - refresher.lastSuccessMillis) / 1000.0)
+            .description("Seconds since revocations were last refreshed from the backend")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        scheduledRefresh = Flux.interval(Duration.ZERO, properties.getRefreshInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> refresh().onErrorResume(e -> Mono.empty()))
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable refresh = scheduledRefresh;
+        if (refresh != null) {
+            refresh.dispose();
+        }
+    }
+
+    private Mono<Void> refresh() {
+        boolean full = !loaded
+            || System.nanoTime() - lastFullReloadNanos >= properties.getFullReloadInterval().toNanos();
+        String type = full ? "full" : "incremental";
+        long since = full ? 0 : Math.max(0, watermark - properties.getOverlap().toMillis());
+
+        return fetchFrom(since, 0L)
+            .collectList()
+            .doOnNext(pages -> {
+                List<RevocationList.Revocation> revocations = pages.stream()
+                    .flatMap(page -> page.revocations().stream())
+                    .toList();
+                long latest = pages.stream().mapToLong(Page::watermark).max().orElse(since);
+                if (full) {
+                    revocationList.replace(revocations);
+                    lastFullReloadNanos = System.nanoTime();
+                    if (!loaded) {
+                        log.info("Loaded {} session revocation(s) from {}", revocationList.size(), properties.getUrl());
+                    }
+                    loaded = true;
+                } else if (!revocations.isEmpty()) {
+                    revocationList.add(revocations);
+                    log.debug("Added {} session revocation(s)", revocations.size());
+                }
+                watermark = Math.max(watermark, latest);
+                lastSuccessMillis = System.currentTimeMillis();
+                counter(type, "success").increment();
+            })
+            .doOnError(e -> {
+                counter(type, "failure").increment();
+                log.warn("Failed to refresh session revocations ({}) from {}: {}", type, properties.getUrl(), e.toString());
+            })
+            .then();
+    }
+
+    /**
+     * Every page from since on; a full page whose cursor did not advance ends the walk rather than looping
+     */
+    private Flux<Page> fetchFrom(long since, long after) {
+        return fetchPage(since, after).flatMapMany(page -> page.more() && page.cursor() != after
+            ? Flux.just(page).concatWith(fetchFrom(page.watermark(), page.cursor()))
+            : Flux.just(page));
+    }
+
+    private Mono<Page> fetchPage(long since, long after) {
+        String uri = UriComponentsBuilder.fromUriString(properties.getUrl())
+            .queryParam("since", since)
+            .queryParam("after", after)
+            .queryParam("limit", properties.getPageSize())
+            .build()
+            .toUriString();
+        return webClient.get()
+            .uri(uri)
+            .header("Authorization", "Bearer " + properties.getSecret())
+            .retrieve()
+            .bodyToMono(Page.class)
+            .timeout(properties.getFetchTimeout());
+    }
+
+    private Counter counter(String type, String outcome) {
+        return Counter.builder("gateway.revocation.refreshes")
+            .description("Revocation refreshes from the backend")
+            .tag("type", type)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    record Page(List<RevocationList.Revocation> revocations, long watermark, long cursor, boolean more) {
+    }
+}
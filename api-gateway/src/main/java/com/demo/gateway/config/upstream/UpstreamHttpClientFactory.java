@@ -0,0 +1,104 @@
+package com.demo.gateway.config.upstream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The gateway's upstream HttpClient, replacing the default HttpClientFactory
+ *
+ * Builds on spring.cloud.gateway.httpclient (timeouts, pool size, idle/lifetime eviction,
+ * SSL, proxy, customizers) and adds:
+ * - a cap on requests waiting for a pooled connection (gateway.upstream.pending-acquire-max-count),
+ *   so a saturated pool fails fast instead of queueing without bound
+ * - h2c to the backend (gateway.upstream.protocol: h2c): requests are multiplexed as streams
+ *   over a few connections per instance instead of one socket per in-flight request
+ *
+ * With spring.cloud.gateway.httpclient.pool.metrics enabled, Reactor Netty publishes the
+ * pool gauges and acquire timers (reactor.netty.connection.provider.*), e.g.
+ * pending.connections / pending.streams (queue length) and pending.connections.time /
+ * pending.streams.time (time to acquire a connection or stream).
+ */
+@Component
+@Slf4j
+public class UpstreamHttpClientFactory extends HttpClientFactory {
+
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = 45_000;
+
+    private final UpstreamProperties upstream;
+
+    public UpstreamHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                                     HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+                                     UpstreamProperties upstream) {
+        super(properties, serverProperties, sslConfigurer, customizers);
+        this.upstream = upstream;
+    }
+
+    @Override
+    protected HttpClient createInstance() {
+        HttpClient client = super.createInstance();
+        if (upstream.getProtocol() == UpstreamProperties.Protocol.H2C) {
+            client = client.protocol(HttpProtocol.H2C);
+        }
+        log.info("Upstream HTTP client: {}, pool {} (max connections {}, pending acquire max {})",
+            upstream.getProtocol(), properties.getPool().getType(), properties.getPool().getMaxConnections(),
+            upstream.getPendingAcquireMaxCount());
+        return client;
+    }
+
+    @Override
+    protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+        HttpClientProperties.Pool pool = properties.getPool();
+        if (pool.getType() == HttpClientProperties.Pool.PoolType.DISABLED) {
+            return ConnectionProvider.newConnection();
+        }
+
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(pool.getName())
+            .pendingAcquireMaxCount(upstream.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(Duration.ofMillis(pool.getAcquireTimeout() != null
+                ? pool.getAcquireTimeout()
+                : DEFAULT_ACQUIRE_TIMEOUT_MILLIS))
+            .metrics(pool.isMetrics());
+
+        if (pool.getType() == HttpClientProperties.Pool.PoolType.FIXED && pool.getMaxConnections() != null) {
+            builder.maxConnections(pool.getMaxConnections());
+        } else if (pool.getType() == HttpClientProperties.Pool.PoolType.ELASTIC) {
+            builder.maxConnections(Integer.MAX_VALUE);
+        }
+        if (pool.getMaxIdleTime() != null) {
+            builder.maxIdleTime(pool.getMaxIdleTime());
+        }
+        if (pool.getMaxLifeTime() != null) {
+            builder.maxLifeTime(pool.getMaxLifeTime());
+        }
+        if (pool.getEvictionInterval() != null && !pool.getEvictionInterval().isZero()) {
+            builder.evictInBackground(pool.getEvictionInterval());
+        }
+        if (pool.getLeasingStrategy() == HttpClientProperties.Pool.LeasingStrategy.LIFO) {
+            builder.lifo();
+        } else {
+            builder.fifo();
+        }
+
+        if (upstream.getProtocol() == UpstreamProperties.Protocol.H2C) {
+            UpstreamProperties.H2c h2c = upstream.getH2c();
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                .maxConcurrentStreams(h2c.getMaxConcurrentStreams())
+                .minConnections(h2c.getMinConnections())
+                .maxConnections(h2c.getMaxConnections())
+                .build());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.demo.gateway.config.upstream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gateway-to-backend connection settings (gateway.upstream.*) that the standard
+ * spring.cloud.gateway.httpclient.pool properties do not cover
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.upstream")
+public class UpstreamProperties {
+
+    /** HTTP/1.1, or h2c (HTTP/2 without TLS, prior knowledge) - the backend must have server.http2.enabled */
+    private Protocol protocol = Protocol.HTTP11;
+
+    /** Requests allowed to wait for a pooled connection per backend; beyond that they fail at once */
+    private int pendingAcquireMaxCount = 1000;
+
+    private H2c h2c = new H2c();
+
+    public enum Protocol {
+        HTTP11, H2C
+    }
+
+    @Data
+    public static class H2c {
+        /** Streams multiplexed on one connection (keep at or below the backend's limit) */
+        private int maxConcurrentStreams = 100;
+
+        /** Connections kept open per backend instance even when idle */
+        private int minConnections = 1;
+
+        /** Upper bound on connections per backend instance */
+        private int maxConnections = 8;
+    }
+}
@@ -0,0 +1,27 @@
+package com.demo.gateway.config.upstream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * How backend responses count towards outlier detection and overload accounting
+ *
+ * A 5xx normally means the instance is failing or overloaded. The backend can instead mark a
+ * 5xx as a deliberate "retry later" with X-Retry-Reason (e.g. a webhook whose user is not
+ * synced yet answers 503 so Clerk redelivers); those say nothing about the instance's health.
+ */
+public final class UpstreamResponses {
+
+    public static final String RETRY_REASON_HEADER = "X-Retry-Reason";
+
+    private UpstreamResponses() {
+    }
+
+    /**
+     * Whether a backend response signals a failing or overloaded instance
+     */
+    public static boolean isBackendFailure(HttpStatusCode status, HttpHeaders headers) {
+        return status != null && status.is5xxServerError()
+            && (headers == null || !headers.containsKey(RETRY_REASON_HEADER));
+    }
+}
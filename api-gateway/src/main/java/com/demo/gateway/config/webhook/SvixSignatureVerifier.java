@@ -0,0 +1,103 @@
+package com.demo.gateway.config.webhook;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Svix (Clerk webhook) signature check
+ *
+ * signature = base64(HMAC-SHA256(secret, svixId + "." + svixTimestamp + "." + body))
+ * svix-signature holds one or more space-separated "v1,<signature>" entries.
+ *
+ * The key is decoded and a Mac initialised once; each delivery gets a clone of that
+ * prototype so the body can be fed to it chunk by chunk as it arrives.
+ */
+@Component
+@Slf4j
+public class SvixSignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final Mac prototype;
+    private final long toleranceSeconds;
+
+    public SvixSignatureVerifier(WebhookVerificationProperties properties) {
+        this.toleranceSeconds = properties.getTolerance().toSeconds();
+        String secret = properties.getSecret();
+        if (!properties.isEnabled() || secret == null || secret.isEmpty()) {
+            if (properties.isEnabled()) {
+                log.warn("gateway.webhook-verification.secret is not set - webhook verification is disabled");
+            }
+            this.prototype = null;
+            return;
+        }
+
+        byte[] keyBytes = secret.startsWith("whsec_")
+            ? Base64.getDecoder().decode(secret.substring(6))
+            : secret.getBytes(StandardCharsets.UTF_8);
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(keyBytes, ALGORITHM));
+            this.prototype = mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return prototype != null;
+    }
+
+    /**
+     * Whether svix-timestamp (epoch seconds) is within the tolerance of now
+     */
+    public boolean isFresh(String svixTimestamp, long nowSeconds) {
+        try {
+            return Math.abs(nowSeconds - Long.parseLong(svixTimestamp)) <= toleranceSeconds;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Start a signature for one delivery; feed the body with update() and finish with matches()
+     */
+    public Mac start(String svixId, String svixTimestamp) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            mac.update((svixId + "." + svixTimestamp + ".").getBytes(StandardCharsets.UTF_8));
+            return mac;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 Mac is not cloneable", e);
+        }
+    }
+
+    /**
+     * Whether any v1 entry of the svix-signature header matches the computed signature
+     */
+    public boolean matches(Mac mac, String signatureHeader) {
+        byte[] expected = mac.doFinal();
+        for (String entry : signatureHeader.split(" ")) {
+            if (!entry.startsWith("v1,")) {
+                continue;
+            }
+            byte[] actual;
+            try {
+                actual = Base64.getDecoder().decode(entry.substring(3));
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            if (MessageDigest.isEqual(expected, actual)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,167 @@
+package com.demo.gateway.config.webhook;
+
+import com.demo.gateway.config.jwt.InternalTokenSigner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global filter that verifies Svix-signed webhooks at the edge
+ *
+ * Forged, stale or replayed-outside-the-window deliveries are rejected here, before they
+ * take a backend servlet thread:
+ * 1. Missing svix-* headers or a svix-timestamp outside the tolerance - 401 without reading the body
+ * 2. Body larger than max-body-size - 413
+ * 3. HMAC computed over the body chunks as they arrive (no String copy); mismatch - 401
+ *
+ * Valid deliveries are forwarded with X-Webhook-Verified, an HMAC of svix-id, svix-timestamp and
+ * the SHA-256 of the body (hashed alongside the signature) under the internal token key, so the
+ * backend can skip its own signature check for that body only. Clients cannot supply that header:
+ * JwtAuthenticationFilter strips it from every request.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SvixWebhookFilter implements GlobalFilter, Ordered {
+
+    private final WebhookVerificationProperties properties;
+    private final SvixSignatureVerifier verifier;
+    private final InternalTokenSigner internalTokenSigner;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> resultCounters = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!verifier.isEnabled() || !isWebhookPath(exchange.getRequest().getURI().getPath())) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        HttpHeaders headers = request.getHeaders();
+        String svixId = headers.getFirst("svix-id");
+        String svixTimestamp = headers.getFirst("svix-timestamp");
+        String svixSignature = headers.getFirst("svix-signature");
+
+        if (svixId == null || svixTimestamp == null || svixSignature == null) {
+            return reject(exchange, HttpStatus.UNAUTHORIZED, "missing_headers", "Missing Svix headers");
+        }
+        if (!verifier.isFresh(svixTimestamp, System.currentTimeMillis() / 1000)) {
+            return reject(exchange, HttpStatus.UNAUTHORIZED, "stale_timestamp", "Webhook timestamp outside tolerance");
+        }
+
+        int maxBytes = (int) properties.getMaxBodySize().toBytes();
+        if (headers.getContentLength() > maxBytes) {
+            return reject(exchange, HttpStatus.PAYLOAD_TOO_LARGE, "too_large", "Webhook body too large");
+        }
+
+        Mac mac = verifier.start(svixId, svixTimestamp);
+        MessageDigest digest = sha256();
+        Flux<DataBuffer> signedBody = request.getBody().doOnNext(chunk -> {
+            try (DataBuffer.ByteBufferIterator buffers = chunk.readableByteBuffers()) {
+                while (buffers.hasNext()) {
+                    ByteBuffer buffer = buffers.next();
+                    // Each update consumes the buffer's remaining bytes
+                    digest.update(buffer.duplicate());
+                    mac.update(buffer);
+                }
+            }
+        });
+
+        return DataBufferUtils.join(signedBody, maxBytes)
+            .defaultIfEmpty(exchange.getResponse().bufferFactory().wrap(ByteBuffer.allocate(0)))
+            .flatMap(body -> {
+                if (!verifier.matches(mac, svixSignature)) {
+                    DataBufferUtils.release(body);
+                    log.warn("Rejected webhook with invalid Svix signature (svix-id: {})", svixId);
+                    return reject(exchange, HttpStatus.UNAUTHORIZED, "invalid_signature", "Invalid webhook signature");
+                }
+
+                count("verified");
+                String marker = internalTokenSigner.signWebhook(svixId, svixTimestamp, digest.digest());
+                ServerHttpRequest marked = marker != null
+                    ? request.mutate().header(InternalTokenSigner.WEBHOOK_HEADER, marker).build()
+                    : request;
+                // Each read gets its own reference (released by whoever consumes it); the joined buffer
+                // itself is released when the chain ends, even if nothing downstream ever read the body
+                ServerHttpRequest replayable = new ServerHttpRequestDecorator(marked) {
+                    @Override
+                    public Flux<DataBuffer> getBody() {
+                        return Flux.just(body).map(DataBufferUtils::retain);
+                    }
+                };
+                return chain.filter(exchange.mutate().request(replayable).build())
+                    .doFinally(signal -> DataBufferUtils.release(body));
+            })
+            .onErrorResume(DataBufferLimitException.class,
+                e -> reject(exchange, HttpStatus.PAYLOAD_TOO_LARGE, "too_large", "Webhook body too large"));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private boolean isWebhookPath(String path) {
+        for (String prefix : properties.getPaths()) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void count(String result) {
+        resultCounters.computeIfAbsent(result, r -> Counter.builder("gateway.webhook.verifications")
+            .description("Webhook deliveries checked at the gateway, by outcome")
+            .tag("result", r)
+            .register(meterRegistry)).increment();
+    }
+
+    /**
+     * Reject the delivery with a JSON error body
+     */
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, String result, String message) {
+        count(result);
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().add("Content-Type", "application/json");
+
+        String body = "{\"error\":\"" + status.getReasonPhrase() + "\",\"message\":\"" + message + "\"}";
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    @Override
+    public int getOrder() {
+        return -95; // After JwtAuthenticationFilter (-100) has stripped client-supplied markers
+    }
+}
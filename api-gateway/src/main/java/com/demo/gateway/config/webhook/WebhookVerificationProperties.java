@@ -0,0 +1,33 @@
+package com.demo.gateway.config.webhook;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Edge verification of Svix-signed webhooks (gateway.webhook-verification.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.webhook-verification")
+public class WebhookVerificationProperties {
+
+    private boolean enabled = false;
+
+    /** Clerk webhook signing secret (whsec_...), the same value the backend uses */
+    private String secret = "";
+
+    /** Maximum age (and clock skew) of svix-timestamp */
+    private Duration tolerance = Duration.ofMinutes(5);
+
+    /** Larger bodies are rejected with 413 before the signature is checked */
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+    /** Path prefixes whose requests must carry a valid Svix signature */
+    private List<String> paths = new ArrayList<>(List.of("/api/webhooks/clerk"));
+}
@@ -0,0 +1,73 @@
+package com.demo.gateway.config.jwt;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class JwksKeyStoreTest {
+
+    private static final Duration REFRESH_INTERVAL = Duration.ofMillis(500);
+
+    private final List<Long> fetchNanos = new CopyOnWriteArrayList<>();
+    private HttpServer jwksServer;
+    private JwksKeyStore jwksKeyStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        RSAPublicKey publicKey = (RSAPublicKey) generator.generateKeyPair().getPublic();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        byte[] jwks = ("{\"keys\":[{\"kid\":\"test\",\"kty\":\"RSA\",\"n\":\""
+            + encoder.encodeToString(publicKey.getModulus().toByteArray())
+            + "\",\"e\":\"" + encoder.encodeToString(publicKey.getPublicExponent().toByteArray()) + "\"}]}")
+            .getBytes(StandardCharsets.UTF_8);
+
+        jwksServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        jwksServer.createContext("/v1/jwks", exchange -> {
+            fetchNanos.add(System.nanoTime());
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwks.length);
+            exchange.getResponseBody().write(jwks);
+            exchange.close();
+        });
+        jwksServer.start();
+
+        jwksKeyStore = new JwksKeyStore(WebClient.builder(), new SimpleMeterRegistry(),
+            "http://127.0.0.1:" + jwksServer.getAddress().getPort() + "/v1/jwks", "https://clerk.test",
+            REFRESH_INTERVAL, Duration.ofMillis(100), Duration.ofSeconds(5), Duration.ofMinutes(1), 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwksKeyStore.stop();
+        jwksServer.stop(0);
+    }
+
+    @Test
+    void everyRefreshTickFetchesTheJwks() {
+        jwksKeyStore.start();
+
+        // Initial fetch plus two refresh ticks
+        await().atMost(Duration.ofSeconds(10)).until(() -> fetchNanos.size() >= 3);
+
+        // One interval between fetches; a tick that replayed the previous fetch would double it
+        Duration firstToThird = Duration.ofNanos(fetchNanos.get(2) - fetchNanos.get(0));
+        assertThat(firstToThird).isLessThan(REFRESH_INTERVAL.multipliedBy(3));
+    }
+}
@@ -0,0 +1,112 @@
+package com.demo.backend.benchmarks;
+
+/**
+ * Webhook bodies shaped like Clerk's published examples (data first, then the envelope fields)
+ */
+final class ClerkPayloads {
+
+    private ClerkPayloads() {
+    }
+
+    static String userCreated() {
+        return """
+            {
+              "data": {
+                "birthday": "",
+                "created_at": 1654012591514,
+                "email_addresses": [
+                  {
+                    "email_address": "example@example.org",
+                    "id": "idn_29w83yL7CwVlJXylYLxcslromF1",
+                    "linked_to": [],
+                    "object": "email_address",
+                    "reserved": false,
+                    "verification": {
+                      "attempts": null,
+                      "expire_at": null,
+                      "status": "verified",
+                      "strategy": "admin"
+                    }
+                  }
+                ],
+                "external_accounts": [],
+                "external_id": "567772",
+                "first_name": "Example",
+                "gender": "",
+                "id": "user_29w83sxmDNGwOuEthce5gg56FcC",
+                "image_url": "https://img.clerk.com/xj1SP5Hf3cBuBLZJ7y2GSIgyx0T",
+                "last_name": "Example",
+                "last_sign_in_at": 1654012591514,
+                "object": "user",
+                "password_enabled": true,
+                "phone_numbers": [],
+                "primary_email_address_id": "idn_29w83yL7CwVlJXylYLxcslromF1",
+                "primary_phone_number_id": null,
+                "primary_web3_wallet_id": null,
+                "private_metadata": {},
+                "profile_image_url": "https://www.gravatar.com/avatar?d=mp",
+                "public_metadata": {},
+                "two_factor_enabled": false,
+                "unsafe_metadata": {},
+                "updated_at": 1654012591835,
+                "username": null,
+                "web3_wallets": []
+              },
+              "event_attributes": {
+                "http_request": {
+                  "client_ip": "0.0.0.0",
+                  "user_agent": "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36"
+                }
+              },
+              "instance_id": "ins_2bGGhlUJ8sSMJnIJQIsiCDtaFvA",
+              "object": "event",
+              "timestamp": 1654012591835,
+              "type": "user.created"
+            }
+            """;
+    }
+
+    static String membershipCreated() {
+        return """
+            {
+              "data": {
+                "created_at": 1654013202977,
+                "id": "orgmem_29w9UIYh4xkKlvg4ThvRMbPJAVq",
+                "object": "organization_membership",
+                "organization": {
+                  "created_at": 1654013202977,
+                  "created_by": "user_1vq84bqWzw7qmFgqSwN4CH1Wp0n",
+                  "id": "org_29w9IfBrPmcpi0IeBVaKtA7R94W",
+                  "image_url": "https://img.clerk.com/xj1SP5Hf3cBuBLZJ7y2GSIgyx0T",
+                  "logo_url": null,
+                  "name": "Acme Inc",
+                  "object": "organization",
+                  "public_metadata": {},
+                  "slug": "acme-inc",
+                  "updated_at": 1654013202977
+                },
+                "public_user_data": {
+                  "first_name": "Example",
+                  "identifier": "example@example.org",
+                  "image_url": "https://img.clerk.com/xj1SP5Hf3cBuBLZJ7y2GSIgyx0T",
+                  "last_name": "Example",
+                  "profile_image_url": "https://www.gravatar.com/avatar?d=mp",
+                  "user_id": "user_29w83sxmDNGwOuEthce5gg56FcC"
+                },
+                "role": "org:admin",
+                "updated_at": 1654013202977
+              },
+              "event_attributes": {
+                "http_request": {
+                  "client_ip": "0.0.0.0",
+                  "user_agent": "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36"
+                }
+              },
+              "instance_id": "ins_2bGGhlUJ8sSMJnIJQIsiCDtaFvA",
+              "object": "event",
+              "timestamp": 1654013202977,
+              "type": "organizationMembership.created"
+            }
+            """;
+    }
+}
@@ -0,0 +1,119 @@
+package com.demo.backend.benchmarks;
+
+import com.demo.backend.dto.user.clerk.ClerkEventParser;
+import com.demo.backend.dto.user.clerk.ClerkMembershipEvent;
+import com.demo.backend.dto.user.clerk.ClerkUserEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Old vs new parsing of a Clerk webhook body, up to the values a handler and the audit row need
+ *
+ * legacy*    - the original path: readTree, svix_id added to the tree, has/get probes in the
+ *              WebhookService handler, writeValueAsString of the tree for event_data
+ * streaming* - ClerkEventParser.parse to the typed record; event_data is the body itself
+ *
+ * Run with -prof gc to compare gc.alloc.rate.norm (bytes allocated per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebhookParseBenchmark {
+
+    private static final String SVIX_ID = "msg_2bGGhlUJ8sSMJnIJQIsiCDtaFvB";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String userCreated;
+    private String membershipCreated;
+
+    @Setup
+    public void setUp() {
+        userCreated = ClerkPayloads.userCreated();
+        membershipCreated = ClerkPayloads.membershipCreated();
+
+        // Both paths must extract the same values, or the comparison is meaningless
+        ClerkUserEvent user = (ClerkUserEvent) ClerkEventParser.parse(userCreated, SVIX_ID);
+        if (!"example@example.org".equals(user.email()) || !"user_29w83sxmDNGwOuEthce5gg56FcC".equals(user.userId())) {
+            throw new IllegalStateException("Unexpected user.created binding: " + user);
+        }
+        ClerkMembershipEvent membership = (ClerkMembershipEvent) ClerkEventParser.parse(membershipCreated, SVIX_ID);
+        if (!"org:admin".equals(membership.role()) || !"org_29w9IfBrPmcpi0IeBVaKtA7R94W".equals(membership.organizationId())) {
+            throw new IllegalStateException("Unexpected organizationMembership.created binding: " + membership);
+        }
+    }
+
+    @Benchmark
+    public void legacyUserCreated(Blackhole blackhole) throws Exception {
+        JsonNode event = legacyReadTree(userCreated);
+        JsonNode data = event.get("data");
+        String clerkUserId = data.has("id") ? data.get("id").asText() : null;
+        String email = null;
+        if (data.has("email_addresses") && data.get("email_addresses").isArray() && data.get("email_addresses").size() > 0) {
+            JsonNode firstEmail = data.get("email_addresses").get(0);
+            if (firstEmail.has("email_address")) {
+                email = firstEmail.get("email_address").asText();
+            }
+        }
+        blackhole.consume(clerkUserId);
+        blackhole.consume(email);
+        blackhole.consume(data.has("first_name") ? data.get("first_name").asText() : null);
+        blackhole.consume(data.has("last_name") ? data.get("last_name").asText() : null);
+        blackhole.consume(data.has("image_url") ? data.get("image_url").asText() : null);
+        blackhole.consume(event.has("svix_id") ? event.get("svix_id").asText() : null);
+        blackhole.consume(objectMapper.writeValueAsString(event));
+    }
+
+    @Benchmark
+    public void streamingUserCreated(Blackhole blackhole) {
+        ClerkUserEvent event = (ClerkUserEvent) ClerkEventParser.parse(userCreated, SVIX_ID);
+        blackhole.consume(event);
+        blackhole.consume(event.payload());
+    }
+
+    @Benchmark
+    public void legacyMembershipCreated(Blackhole blackhole) throws Exception {
+        JsonNode event = legacyReadTree(membershipCreated);
+        JsonNode data = event.get("data");
+        blackhole.consume(data.get("id").asText());
+        blackhole.consume(data.has("organization_id")
+            ? data.get("organization_id").asText()
+            : data.get("organization").get("id").asText());
+        blackhole.consume(data.get("public_user_data").get("user_id").asText());
+        blackhole.consume(data.has("role") ? data.get("role").asText() : "USER");
+        blackhole.consume(event.has("svix_id") ? event.get("svix_id").asText() : null);
+        blackhole.consume(objectMapper.writeValueAsString(event));
+    }
+
+    @Benchmark
+    public void streamingMembershipCreated(Blackhole blackhole) {
+        ClerkMembershipEvent event = (ClerkMembershipEvent) ClerkEventParser.parse(membershipCreated, SVIX_ID);
+        blackhole.consume(event);
+        blackhole.consume(event.payload());
+    }
+
+    private JsonNode legacyReadTree(String payload) throws Exception {
+        JsonNode event = objectMapper.readTree(payload);
+        if (!event.has("id") && !event.has("event_id")) {
+            ((ObjectNode) event).put("svix_id", SVIX_ID);
+        }
+        return event;
+    }
+}
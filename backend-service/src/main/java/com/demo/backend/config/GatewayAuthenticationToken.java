@@ -0,0 +1,36 @@
+package com.demo.backend.config;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Authentication for requests that came through the API Gateway
+ * getName() is the Clerk user ID; the principal is a GatewayPrincipal
+ */
+public class GatewayAuthenticationToken extends AbstractAuthenticationToken {
+    
+    private final GatewayPrincipal principal;
+    
+    public GatewayAuthenticationToken(GatewayPrincipal principal) {
+        super(List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        this.principal = principal;
+        setAuthenticated(true);
+    }
+    
+    @Override
+    public GatewayPrincipal getPrincipal() {
+        return principal;
+    }
+    
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+    
+    @Override
+    public String getName() {
+        return principal.clerkUserId();
+    }
+}
@@ -4,30 +4,43 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 
 /**
  * Authentication filter that trusts the API Gateway
  * 
- * This filter checks for X-User-Id header added by the API Gateway.
- * If present, it creates an authenticated SecurityContext.
+ * This filter checks for the identity added by the API Gateway.
+ * If present, it creates an authenticated SecurityContext holding a GatewayPrincipal.
  * 
  * IMPORTANT: This service trusts the API Gateway. The gateway validates JWT tokens.
- * This filter only checks for the presence of gateway headers.
+ * - With gateway.internal-token.secret set, the HMAC-signed X-Internal-Identity token is
+ *   verified and must match X-User-Id; an invalid token leaves the request unauthenticated.
+ *   With gateway.internal-token.required, requests without the token are not authenticated.
+ * - Otherwise this filter only checks for the presence of gateway headers.
+ * 
+ * Org role and permissions are trusted (used by AuthorizationService for the active
+ * organization) when they are signed, or when gateway.trust-org-role-headers is enabled.
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class GatewayHeaderAuthenticationFilter extends OncePerRequestFilter {
     
+    private final InternalIdentityVerifier internalIdentityVerifier;
+    
+    @Value("${gateway.trust-org-role-headers:false}")
+    private boolean trustOrgRoleHeaders;
+    
+    @Value("${gateway.internal-token.required:false}")
+    private boolean internalTokenRequired;
+    
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -39,16 +52,11 @@ public class GatewayHeaderAuthenticationFilter extends OncePerRequestFilter {
         String orgId = request.getHeader("X-Org-Id");
         
         if (userId != null && !userId.isEmpty()) {
-            // Gateway has validated JWT and added user context
-            // Create authenticated authentication
-            Authentication authentication = new UsernamePasswordAuthenticationToken(
-                userId, // principal
-                null,   // credentials (not needed)
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
-            );
-            
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            log.info("✅ Authenticated request from gateway. User: {}, Org: {}", userId, orgId);
+            GatewayPrincipal principal = resolvePrincipal(request, userId, orgId);
+            if (principal != null) {
+                SecurityContextHolder.getContext().setAuthentication(new GatewayAuthenticationToken(principal));
+                log.info("✅ Authenticated request from gateway. User: {}, Org: {}", userId, orgId);
+            }
         } else {
             // No X-User-Id header - request did not come through gateway with valid JWT
             // SecurityContext will remain unauthenticated
@@ -58,4 +66,31 @@ public class GatewayHeaderAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+    
+    /**
+     * Build the principal from the signed internal token when available, otherwise from headers
+     * Returns null if the request must not be authenticated
+     */
+    private GatewayPrincipal resolvePrincipal(HttpServletRequest request, String userId, String orgId) {
+        String internalToken = request.getHeader(InternalIdentityVerifier.HEADER);
+        
+        if (internalIdentityVerifier.isEnabled() && internalToken != null) {
+            GatewayPrincipal principal = internalIdentityVerifier.verify(internalToken);
+            if (principal == null || !principal.clerkUserId().equals(userId)) {
+                log.warn("Rejected invalid internal identity token for user {}. Path: {}", userId, request.getRequestURI());
+                return null;
+            }
+            return principal;
+        }
+        
+        if (internalIdentityVerifier.isEnabled() && internalTokenRequired) {
+            log.warn("Missing internal identity token for user {}. Path: {}", userId, request.getRequestURI());
+            return null;
+        }
+        
+        GatewayOrgContext orgContext = trustOrgRoleHeaders
+            ? GatewayOrgContext.fromHeaders(orgId, request.getHeader("X-Org-Role"), request.getHeader("X-Org-Permissions"))
+            : null;
+        return new GatewayPrincipal(userId, orgId != null && !orgId.isEmpty() ? orgId : null, orgContext, false);
+    }
 }
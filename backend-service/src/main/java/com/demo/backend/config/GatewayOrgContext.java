@@ -0,0 +1,38 @@
+package com.demo.backend.config;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Active-organization claims forwarded by the API Gateway
+ * 
+ * The gateway extracts these from the verified Clerk session token (org_id, org_role,
+ * org_permissions) and forwards them as X-Org-Id, X-Org-Role and X-Org-Permissions.
+ * They are attached to the GatewayPrincipal when they arrive in a signed
+ * X-Internal-Identity token, or as plain headers when gateway.trust-org-role-headers is enabled.
+ * 
+ * @param clerkOrgId Clerk organization ID of the active organization
+ * @param role Normalized role in that organization (ADMIN or USER)
+ * @param permissions Clerk permissions in that organization
+ */
+public record GatewayOrgContext(String clerkOrgId, String role, Set<String> permissions) {
+    
+    /**
+     * Build from the raw gateway headers, or return null if there is no active org role
+     */
+    public static GatewayOrgContext fromHeaders(String orgId, String role, String permissions) {
+        if (orgId == null || orgId.isEmpty() || role == null || role.isEmpty()) {
+            return null;
+        }
+        Set<String> permissionSet = permissions == null || permissions.isEmpty()
+            ? Set.of()
+            : Arrays.stream(permissions.split(",")).map(String::trim).filter(p -> !p.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        return new GatewayOrgContext(orgId, role.toUpperCase(), permissionSet);
+    }
+    
+    public boolean hasRole(String roleName) {
+        return role.equalsIgnoreCase(roleName);
+    }
+}
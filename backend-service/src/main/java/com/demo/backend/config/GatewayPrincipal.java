@@ -0,0 +1,18 @@
+package com.demo.backend.config;
+
+/**
+ * Authenticated caller as established by the API Gateway
+ * 
+ * @param clerkUserId Clerk user ID
+ * @param clerkOrgId Clerk ID of the caller's active organization (may be null)
+ * @param orgContext Trusted role and permissions in the active organization, or null when
+ *                   the role came from unsigned headers and gateway.trust-org-role-headers is off
+ * @param signed Whether the identity came from a verified X-Internal-Identity token
+ */
+public record GatewayPrincipal(String clerkUserId, String clerkOrgId, GatewayOrgContext orgContext, boolean signed) {
+    
+    @Override
+    public String toString() {
+        return clerkUserId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.demo.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tomcat HTTP/2 tuning for h2c traffic from the API Gateway
+ * 
+ * With server.http2.enabled Tomcat accepts h2c, but by default executes only 20 streams of
+ * a connection at a time; the gateway multiplexes many requests over a few connections,
+ * so let every allowed stream execute concurrently.
+ */
+@Configuration
+@Slf4j
+public class Http2Config {
+    
+    @Bean
+    public TomcatConnectorCustomizer http2ConnectorCustomizer(
+            @Value("${gateway.h2c.max-concurrent-streams:100}") int maxConcurrentStreams) {
+        return connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution(maxConcurrentStreams);
+                    log.info("HTTP/2 enabled: {} concurrent streams per connection", maxConcurrentStreams);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,175 @@
+package com.demo.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Verifies the X-Internal-Identity token minted by the API Gateway
+ * 
+ * Format: base64url(payload) + "." + base64url(HMAC-SHA256(base64url(payload)))
+ * Payload: "1|exp|userId|orgId|orgRole|orgPermissions" (exp in epoch seconds, 0 = none)
+ * 
+ * One HMAC-SHA256 over a ~100 byte payload with a thread-local Mac, instead of another
+ * RSA verification of the Clerk JWT. Disabled when gateway.internal-token.secret is empty.
+ * 
+ * Also checks X-Webhook-Verified, which the gateway sets on webhooks whose Svix signature
+ * it has already verified:
+ * base64url(HMAC-SHA256("wh2|" + svixId + "|" + svixTimestamp + "|" + base64url(SHA-256(body))))
+ * The marker is only trusted for the body it was signed for and while svix-timestamp is within
+ * clerk.webhook.tolerance, so headers seen once cannot be replayed with another body or later.
+ */
+@Component
+@Slf4j
+public class InternalIdentityVerifier {
+    
+    public static final String HEADER = "X-Internal-Identity";
+    public static final String WEBHOOK_HEADER = "X-Webhook-Verified";
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final Base64.Encoder URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+    
+    private final ThreadLocal<Mac> mac;
+    private final long webhookToleranceSeconds;
+    
+    public InternalIdentityVerifier(
+            @Value("${gateway.internal-token.secret:}") String secret,
+            @Value("${clerk.webhook.tolerance:PT5M}") Duration webhookTolerance) {
+        this.webhookToleranceSeconds = webhookTolerance.toSeconds();
+        if (secret == null || secret.isEmpty()) {
+            this.mac = null;
+            return;
+        }
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+    
+    public boolean isEnabled() {
+        return mac != null;
+    }
+    
+    /**
+     * Verify a token and return the identity it carries, or null if it is invalid or expired
+     */
+    public GatewayPrincipal verify(String token) {
+        if (mac == null || token == null) {
+            return null;
+        }
+        
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        
+        // Base64url is ASCII, so chars map 1:1 to bytes
+        byte[] encodedPayload = new byte[dot];
+        for (int i = 0; i < dot; i++) {
+            encodedPayload[i] = (byte) token.charAt(i);
+        }
+        
+        byte[] actual;
+        byte[] payloadBytes;
+        try {
+            actual = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            payloadBytes = Base64.getUrlDecoder().decode(encodedPayload);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        byte[] expected = mac.get().doFinal(encodedPayload);
+        if (actual.length != SIGNATURE_LENGTH || !MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+        
+        // Fields: version | exp | userId | orgId | orgRole | orgPermissions
+        String payload = new String(payloadBytes, StandardCharsets.UTF_8);
+        String[] fields = new String[6];
+        int start = 0;
+        for (int i = 0; i < 5; i++) {
+            int end = payload.indexOf('|', start);
+            if (end < 0) {
+                return null;
+            }
+            fields[i] = payload.substring(start, end);
+            start = end + 1;
+        }
+        fields[5] = payload.substring(start);
+        if (!"1".equals(fields[0]) || fields[2].isEmpty()) {
+            return null;
+        }
+        
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(fields[1]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (expiresAt != 0 && expiresAt * 1000 < System.currentTimeMillis()) {
+            log.debug("Internal identity token expired for user {}", fields[2]);
+            return null;
+        }
+        
+        String orgId = fields[3].isEmpty() ? null : fields[3];
+        return new GatewayPrincipal(
+            fields[2],
+            orgId,
+            GatewayOrgContext.fromHeaders(orgId, fields[4], fields[5]),
+            true
+        );
+    }
+    
+    /**
+     * Whether the gateway vouches for this webhook delivery's Svix signature over exactly this body
+     */
+    public boolean isVerifiedWebhook(String svixId, String svixTimestamp, byte[] body, String marker) {
+        if (mac == null || svixId == null || svixTimestamp == null || marker == null) {
+            return false;
+        }
+        
+        long timestamp;
+        try {
+            timestamp = Long.parseLong(svixTimestamp);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (Math.abs(System.currentTimeMillis() / 1000 - timestamp) > webhookToleranceSeconds) {
+            log.warn("Ignoring X-Webhook-Verified outside the timestamp tolerance (svix-id: {})", svixId);
+            return false;
+        }
+        
+        byte[] actual;
+        try {
+            actual = Base64.getUrlDecoder().decode(marker);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        String bodyDigest = URL_ENCODER.encodeToString(SHA_256.get().digest(body));
+        byte[] expected = mac.get().doFinal(("wh2|" + svixId + "|" + svixTimestamp + "|" + bodyDigest)
+            .getBytes(StandardCharsets.UTF_8));
+        return MessageDigest.isEqual(expected, actual);
+    }
+}
@@ -31,6 +31,10 @@ public class SecurityConfig {
                 .requestMatchers("/api/payments/**").permitAll()
                 // Migration endpoints (for development/admin use)
                 .requestMatchers("/api/migrations/**").permitAll()
+                // Gateway-only endpoints (shared secret checked in the controller)
+                .requestMatchers("/internal/**").permitAll()
+                // Actuator health and metrics (not routed by the gateway)
+                .requestMatchers("/actuator/**").permitAll()
                 // Test endpoints (dev only - check in controller)
                 .requestMatchers("/api/test/**").permitAll()
                 // All other endpoints require authentication (trust gateway)
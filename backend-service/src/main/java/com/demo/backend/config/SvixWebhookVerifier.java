@@ -0,0 +1,172 @@
+package com.demo.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Verifies the Svix signature of Clerk webhooks
+ *
+ * signature = base64(HMAC-SHA256(secret, svixId + "." + svixTimestamp + "." + body))
+ * svix-signature holds one or more space-separated "v1,<signature>" entries (Svix sends several
+ * while a secret is being rotated); a delivery is valid if any entry matches.
+ *
+ * Secrets (whsec_<base64>) are decoded once and each gets a thread-local Mac. Per delivery,
+ * "<id>.<timestamp>." is written into a thread-local scratch buffer and the raw body bytes are
+ * fed to the Mac as they are - no concatenated String, no re-encoding. The expected signature is
+ * Base64-encoded into another scratch buffer and compared against each header entry in place.
+ *
+ * clerk.webhook.previous-secret is also accepted, so the secret can be rotated without
+ * rejecting deliveries signed with the old one. Disabled when clerk.webhook.secret is empty.
+ */
+@Component
+@Slf4j
+public class SvixWebhookVerifier {
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String VERSION_PREFIX = "v1,";
+    private static final int SIGNATURE_LENGTH = 32;
+    /** Base64 of a 32-byte HMAC-SHA256, with padding */
+    private static final int ENCODED_SIGNATURE_LENGTH = 44;
+    private static final int MAX_PREFIX_LENGTH = 256;
+    
+    private static final ThreadLocal<byte[]> PREFIX = ThreadLocal.withInitial(() -> new byte[MAX_PREFIX_LENGTH]);
+    private static final ThreadLocal<byte[]> SIGNATURE = ThreadLocal.withInitial(() -> new byte[SIGNATURE_LENGTH]);
+    private static final ThreadLocal<byte[]> EXPECTED = ThreadLocal.withInitial(() -> new byte[ENCODED_SIGNATURE_LENGTH]);
+    
+    /** Current secret first, then the previous one during a rotation */
+    private final List<ThreadLocal<Mac>> macs;
+    
+    public SvixWebhookVerifier(
+            @Value("${clerk.webhook.secret:}") String secret,
+            @Value("${clerk.webhook.previous-secret:}") String previousSecret) {
+        List<ThreadLocal<Mac>> configured = new ArrayList<>(2);
+        if (secret != null && !secret.isEmpty()) {
+            configured.add(macFor(secret));
+            if (previousSecret != null && !previousSecret.isEmpty()) {
+                configured.add(macFor(previousSecret));
+                log.info("Accepting webhooks signed with the current or the previous Clerk webhook secret");
+            }
+        }
+        this.macs = List.copyOf(configured);
+    }
+    
+    public boolean isEnabled() {
+        return !macs.isEmpty();
+    }
+    
+    /**
+     * Whether any v1 entry of svix-signature is the signature of this delivery under any configured secret
+     */
+    public boolean verify(String svixId, String svixTimestamp, String signatureHeader, byte[] body) {
+        if (macs.isEmpty() || svixId == null || svixTimestamp == null || signatureHeader == null) {
+            return false;
+        }
+        
+        byte[] prefix = PREFIX.get();
+        int prefixLength = writePrefix(svixId, svixTimestamp, prefix);
+        if (prefixLength < 0) {
+            // Unusually long or non-ASCII headers
+            prefix = (svixId + "." + svixTimestamp + ".").getBytes(StandardCharsets.UTF_8);
+            prefixLength = prefix.length;
+        }
+        
+        byte[] signature = SIGNATURE.get();
+        byte[] expected = EXPECTED.get();
+        for (ThreadLocal<Mac> threadMac : macs) {
+            Mac mac = threadMac.get();
+            mac.update(prefix, 0, prefixLength);
+            mac.update(body);
+            try {
+                mac.doFinal(signature, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException("HmacSHA256 output is not " + SIGNATURE_LENGTH + " bytes", e);
+            }
+            Base64.getEncoder().encode(signature, expected);
+            if (matchesAnyEntry(signatureHeader, expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Scan "v1,<sig> v1,<sig> ..." without splitting, comparing each v1 entry in constant time
+     */
+    private static boolean matchesAnyEntry(String header, byte[] expected) {
+        boolean matched = false;
+        int length = header.length();
+        int start = 0;
+        while (start < length) {
+            int end = header.indexOf(' ', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end - start == VERSION_PREFIX.length() + ENCODED_SIGNATURE_LENGTH
+                    && header.startsWith(VERSION_PREFIX, start)) {
+                int offset = start + VERSION_PREFIX.length();
+                int diff = 0;
+                for (int i = 0; i < ENCODED_SIGNATURE_LENGTH; i++) {
+                    diff |= header.charAt(offset + i) ^ expected[i];
+                }
+                matched |= diff == 0;
+            }
+            start = end + 1;
+        }
+        return matched;
+    }
+    
+    /**
+     * "<id>.<timestamp>." as ASCII into buffer; -1 if it does not fit or is not ASCII
+     */
+    private static int writePrefix(String svixId, String svixTimestamp, byte[] buffer) {
+        int length = svixId.length() + svixTimestamp.length() + 2;
+        if (length > buffer.length) {
+            return -1;
+        }
+        int position = 0;
+        for (int i = 0; i < svixId.length(); i++) {
+            char c = svixId.charAt(i);
+            if (c > 0x7F) {
+                return -1;
+            }
+            buffer[position++] = (byte) c;
+        }
+        buffer[position++] = '.';
+        for (int i = 0; i < svixTimestamp.length(); i++) {
+            char c = svixTimestamp.charAt(i);
+            if (c > 0x7F) {
+                return -1;
+            }
+            buffer[position++] = (byte) c;
+        }
+        buffer[position++] = '.';
+        return position;
+    }
+    
+    private static ThreadLocal<Mac> macFor(String secret) {
+        // Clerk secrets are whsec_<base64>; anything else is used as-is (backward compatibility)
+        byte[] keyBytes = secret.startsWith("whsec_")
+            ? Base64.getDecoder().decode(secret.substring(6))
+            : secret.getBytes(StandardCharsets.UTF_8);
+        SecretKeySpec key = new SecretKeySpec(keyBytes, ALGORITHM);
+        return ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+}
@@ -3,6 +3,7 @@ package com.demo.backend.controller.user;
 import com.demo.backend.dto.user.MembershipResponse;
 import com.demo.backend.dto.user.OrganizationMembersResponse;
 import com.demo.backend.dto.user.OrganizationResponse;
+import com.demo.backend.service.user.AuthorizationService;
 import com.demo.backend.service.user.OrganizationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,7 +27,11 @@ import java.util.Map;
 @Slf4j
 public class OrganizationController {
     
+    /** Clerk ID of the organization a response is about, so the gateway can tell it is the caller's active org */
+    public static final String RESOURCE_ORG_HEADER = "X-Resource-Org-Id";
+    
     private final OrganizationService organizationService;
+    private final AuthorizationService authorizationService;
     
     /**
      * Get all organizations for the current user
@@ -149,7 +154,11 @@ public class OrganizationController {
         try {
             OrganizationMembersResponse response = organizationService.getOrganizationMembers(
                 orgId, clerkUserId, page, size);
-            return ResponseEntity.ok(response);
+            // Lets the gateway share this response between callers whose active org is this one
+            String clerkOrgId = authorizationService.clerkOrgIdFor(orgId);
+            return clerkOrgId != null
+                ? ResponseEntity.ok().header(RESOURCE_ORG_HEADER, clerkOrgId).body(response)
+                : ResponseEntity.ok(response);
         } catch (org.springframework.security.access.AccessDeniedException e) {
             log.warn("Access denied for user {} to organization {} members: {}", clerkUserId, orgId, e.getMessage());
             return ResponseEntity.status(403).build();
@@ -0,0 +1,114 @@
+package com.demo.backend.controller.user;
+
+import com.demo.backend.dto.user.RevocationsResponse;
+import com.demo.backend.entity.user.AuthSession;
+import com.demo.backend.repository.user.AuthSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Revoked sessions for the API Gateway's in-memory revocation filter
+ *
+ * GET /internal/revocations?since=<epoch millis>&after=<cursor>&limit=5000
+ * Authorization: Bearer <gateway.revocation.secret>
+ *
+ * since=0 returns every revocation whose session has not expired yet (full load); after that the
+ * gateway only asks for revocations at or after the last watermark (it de-duplicates by ID).
+ * Pages are cut on (revoked_at, id): each response carries the ID of its last session as the
+ * cursor, and after=<cursor> continues right behind it, so rows sharing a revocation time are
+ * never skipped at a page boundary. Not under /api, so the gateway never routes client traffic
+ * here. Returns 404 when gateway.revocation.secret is empty.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class RevocationController {
+    
+    private static final int MAX_LIMIT = 10_000;
+    
+    private final AuthSessionRepository authSessionRepository;
+    
+    @Value("${gateway.revocation.secret:}")
+    private String secret;
+    
+    @GetMapping("/internal/revocations")
+    @Transactional(readOnly = true)
+    public ResponseEntity<RevocationsResponse> revocations(
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "5000") int limit) {
+        
+        if (secret == null || secret.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!isAuthorized(authorization)) {
+            log.warn("Rejected revocation fetch with missing or invalid secret");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        int pageSize = Math.clamp(limit, 1, MAX_LIMIT);
+        PageRequest page = PageRequest.of(0, pageSize);
+        LocalDateTime now = LocalDateTime.now();
+        // Continue behind the cursor session, at its exact revocation time; from since if it is gone
+        LocalDateTime cursorRevokedAt = after > 0
+            ? authSessionRepository.findById(after).map(AuthSession::getRevokedAt).orElse(null)
+            : null;
+        List<AuthSession> sessions = cursorRevokedAt != null
+            ? authSessionRepository.findRevokedAfter(cursorRevokedAt, after, now, page)
+            : authSessionRepository.findRevokedSince(toLocalDateTime(since), now, page);
+        
+        long watermark = since;
+        long cursor = after;
+        List<RevocationsResponse.Revocation> revocations = new ArrayList<>(sessions.size());
+        for (AuthSession session : sessions) {
+            revocations.add(RevocationsResponse.Revocation.builder()
+                .id(session.getJwtId())
+                .expiresAt(session.getExpiresAt() != null ? toEpochMillis(session.getExpiresAt()) : 0L)
+                .build());
+            watermark = Math.max(watermark, toEpochMillis(session.getRevokedAt()));
+            cursor = session.getId();
+        }
+        
+        return ResponseEntity.ok(RevocationsResponse.builder()
+            .revocations(revocations)
+            .watermark(watermark)
+            .cursor(cursor)
+            .more(sessions.size() == pageSize)
+            .build());
+    }
+    
+    private boolean isAuthorized(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+            secret.getBytes(StandardCharsets.UTF_8),
+            authorization.substring(7).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+    
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
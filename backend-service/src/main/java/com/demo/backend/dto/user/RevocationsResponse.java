@@ -0,0 +1,40 @@
+package com.demo.backend.dto.user;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Response DTO for the gateway's revocation refresh (GET /internal/revocations)
+ */
+@Getter
+@Builder
+public class RevocationsResponse {
+    
+    private List<Revocation> revocations;
+    
+    /**
+     * Latest revocation time returned (epoch millis); the 'since' of the next incremental refresh
+     */
+    private long watermark;
+    
+    /**
+     * ID of the last session returned; pass it back as 'after' (with 'since') for the next page
+     */
+    private long cursor;
+    
+    /**
+     * True when the page was full and more revocations follow the cursor
+     */
+    private boolean more;
+    
+    @Getter
+    @Builder
+    public static class Revocation {
+        /** Revoked token or session ID, matched against the JWT's jti and sid claims */
+        private String id;
+        /** When tokens for this session stop being valid anyway (epoch millis, 0 if unknown) */
+        private long expiresAt;
+    }
+}
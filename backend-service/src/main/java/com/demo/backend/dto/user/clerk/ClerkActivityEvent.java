@@ -0,0 +1,11 @@
+package com.demo.backend.dto.user.clerk;
+
+/**
+ * Informational events that are only audited: email.created, payment.attempt / paymentAttempt
+ */
+public record ClerkActivityEvent(
+        String type,
+        String eventId,
+        String payload,
+        String userId) implements ClerkEvent {
+}
@@ -0,0 +1,20 @@
+package com.demo.backend.dto.user.clerk;
+
+/**
+ * A Clerk webhook event, bound by ClerkEventParser to the record for its type
+ *
+ * Every event keeps the original request body (payload), which is what the audit tables store.
+ */
+public sealed interface ClerkEvent
+        permits ClerkUserEvent, ClerkOrganizationEvent, ClerkMembershipEvent, ClerkSessionEvent,
+                ClerkRoleEvent, ClerkActivityEvent, ClerkUnhandledEvent {
+    
+    /** Event type, e.g. user.created (null if the payload has none) */
+    String type();
+    
+    /** ID used to skip duplicate audit rows: the event's id / event_id, else the svix-id, else instance_id + timestamp */
+    String eventId();
+    
+    /** The webhook body exactly as received */
+    String payload();
+}
@@ -0,0 +1,277 @@
+package com.demo.backend.dto.user.clerk;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Binds a Clerk webhook body to its typed ClerkEvent in one pass of Jackson's streaming parser
+ *
+ * Replaces objectMapper.readTree + has/get probes in every handler + writeValueAsString for the
+ * audit row: only the fields the handlers use are read (everything else is skipped without being
+ * materialized), and the body string itself is kept as the audit payload.
+ *
+ * Clerk sends "data" before "type", so the data fields are collected first and the record for
+ * the type is built at the end.
+ */
+public final class ClerkEventParser {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    private ClerkEventParser() {
+    }
+    
+    /**
+     * @param svixId svix-id header, the event ID when the body has neither id nor event_id (may be null)
+     * @throws IllegalArgumentException if the body is not a JSON object
+     */
+    public static ClerkEvent parse(String payload, String svixId) {
+        Fields fields = new Fields();
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Webhook payload is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (name) {
+                    case "type" -> fields.type = text(parser, token);
+                    case "id" -> fields.eventId = text(parser, token);
+                    case "event_id" -> fields.altEventId = text(parser, token);
+                    case "instance_id" -> fields.instanceId = text(parser, token);
+                    case "timestamp" -> fields.timestamp = text(parser, token);
+                    case "data" -> readData(parser, token, fields);
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid webhook payload", e);
+        }
+        return fields.toEvent(payload, svixId);
+    }
+    
+    private static void readData(JsonParser parser, JsonToken token, Fields fields) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "id" -> fields.id = text(parser, value);
+                case "name" -> fields.name = text(parser, value);
+                case "key" -> fields.key = text(parser, value);
+                case "slug" -> fields.slug = text(parser, value);
+                case "image_url" -> fields.imageUrl = text(parser, value);
+                case "first_name" -> fields.firstName = text(parser, value);
+                case "last_name" -> fields.lastName = text(parser, value);
+                case "description" -> fields.description = text(parser, value);
+                case "role" -> fields.role = text(parser, value);
+                case "organization_id" -> fields.organizationId = text(parser, value);
+                case "user_id" -> fields.userId = text(parser, value);
+                case "created_by" -> fields.createdBy = text(parser, value);
+                case "updated_by" -> fields.updatedBy = text(parser, value);
+                case "email" -> fields.email = text(parser, value);
+                case "primary_email_address" -> fields.primaryEmail = text(parser, value);
+                case "expire_at" -> fields.expireAt = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : null;
+                case "email_addresses" -> fields.firstEmail = firstEmail(parser, value);
+                case "organization" -> fields.nestedOrganizationId = nested(parser, value, "id");
+                case "user" -> fields.nestedUserId = nested(parser, value, "id");
+                case "metadata" -> fields.metadataUserId = nested(parser, value, "user_id");
+                case "private_metadata" -> fields.privateMetadataUserId = nested(parser, value, "user_id");
+                case "public_user_data" -> readUserAndRole(parser, value, fields, true);
+                case "public_metadata" -> readUserAndRole(parser, value, fields, false);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+    
+    /**
+     * email_address (or email, or the string itself) of the first entry of email_addresses
+     */
+    private static String firstEmail(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String email = null;
+        JsonToken first = parser.nextToken();
+        if (first == JsonToken.START_OBJECT) {
+            String fallback = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("email_address".equals(name)) {
+                    email = text(parser, value);
+                } else if ("email".equals(name)) {
+                    fallback = text(parser, value);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (email == null) {
+                email = fallback;
+            }
+        } else if (first == JsonToken.VALUE_STRING) {
+            email = parser.getText();
+        } else if (first == JsonToken.END_ARRAY) {
+            return null;
+        } else {
+            parser.skipChildren();
+        }
+        // Rest of the array
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+        }
+        return email;
+    }
+    
+    /**
+     * A single text field of a nested object, skipping the rest
+     */
+    private static String nested(JsonParser parser, JsonToken token, String field) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals(name)) {
+                result = text(parser, value);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * user_id and role of public_user_data or public_metadata
+     */
+    private static void readUserAndRole(JsonParser parser, JsonToken token, Fields fields, boolean publicUserData)
+            throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("user_id".equals(name)) {
+                if (publicUserData) {
+                    fields.publicUserDataUserId = text(parser, value);
+                } else {
+                    fields.publicMetadataUserId = text(parser, value);
+                }
+            } else if ("role".equals(name)) {
+                if (publicUserData) {
+                    fields.publicUserDataRole = text(parser, value);
+                } else {
+                    fields.publicMetadataRole = text(parser, value);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+    
+    /**
+     * Scalar as text (numbers and booleans too); null for JSON null, objects and arrays
+     */
+    private static String text(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+    
+    private static String firstNonNull(String... values) {
+        for (String value : values) {
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Everything any handler reads, filled in while streaming; turned into the event record at the end
+     */
+    private static final class Fields {
+        String type;
+        String eventId;
+        String altEventId;
+        String instanceId;
+        String timestamp;
+        
+        String id;
+        String name;
+        String key;
+        String slug;
+        String imageUrl;
+        String firstName;
+        String lastName;
+        String description;
+        String role;
+        String organizationId;
+        String userId;
+        String createdBy;
+        String updatedBy;
+        String email;
+        String primaryEmail;
+        String firstEmail;
+        Long expireAt;
+        String nestedOrganizationId;
+        String nestedUserId;
+        String metadataUserId;
+        String privateMetadataUserId;
+        String publicUserDataUserId;
+        String publicUserDataRole;
+        String publicMetadataUserId;
+        String publicMetadataRole;
+        
+        ClerkEvent toEvent(String payload, String svixId) {
+            String resolvedEventId = firstNonNull(eventId, altEventId, svixId);
+            if (resolvedEventId == null && instanceId != null) {
+                // instance_id is not unique per event, but better than null
+                resolvedEventId = instanceId + "_" + (timestamp != null ? timestamp : String.valueOf(System.currentTimeMillis()));
+            }
+            
+            if (type == null) {
+                return new ClerkUnhandledEvent(null, resolvedEventId, payload);
+            }
+            return switch (type) {
+                case "user.created", "user.updated" -> new ClerkUserEvent(type, resolvedEventId, payload,
+                    id, firstNonNull(firstEmail, primaryEmail, email), firstName, lastName, imageUrl);
+                case "organization.created", "organization.updated", "organization.deleted" ->
+                    new ClerkOrganizationEvent(type, resolvedEventId, payload, id, name, slug, imageUrl,
+                        firstNonNull(publicUserDataUserId, userId, nestedUserId, createdBy, updatedBy,
+                            publicMetadataUserId, privateMetadataUserId));
+                case "organizationMembership.created", "organizationMembership.updated", "organizationMembership.deleted" ->
+                    new ClerkMembershipEvent(type, resolvedEventId, payload, id,
+                        firstNonNull(organizationId, nestedOrganizationId),
+                        firstNonNull(publicUserDataUserId, userId),
+                        firstNonNull(role, publicMetadataRole, publicUserDataRole));
+                case "session.revoked", "session.ended", "session.removed" ->
+                    new ClerkSessionEvent(type, resolvedEventId, payload, id, userId, expireAt);
+                case "role.created", "role.updated", "role.deleted" -> new ClerkRoleEvent(type, resolvedEventId, payload,
+                    firstNonNull(name, key), description,
+                    firstNonNull(userId, nestedUserId), firstNonNull(organizationId, nestedOrganizationId));
+                case "email.created" -> new ClerkActivityEvent(type, resolvedEventId, payload,
+                    firstNonNull(userId, nestedUserId));
+                case "payment.attempt", "paymentAttempt" -> new ClerkActivityEvent(type, resolvedEventId, payload,
+                    firstNonNull(userId, nestedUserId, metadataUserId));
+                default -> new ClerkUnhandledEvent(type, resolvedEventId, payload);
+            };
+        }
+    }
+}
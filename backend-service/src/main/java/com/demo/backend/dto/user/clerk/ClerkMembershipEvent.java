@@ -0,0 +1,18 @@
+package com.demo.backend.dto.user.clerk;
+
+/**
+ * organizationMembership.created / .updated / .deleted
+ *
+ * @param organizationId data.organization_id, else data.organization.id
+ * @param userId data.public_user_data.user_id, else data.user_id
+ * @param role data.role, else data.public_metadata.role, else data.public_user_data.role (null if none)
+ */
+public record ClerkMembershipEvent(
+        String type,
+        String eventId,
+        String payload,
+        String membershipId,
+        String organizationId,
+        String userId,
+        String role) implements ClerkEvent {
+}
@@ -0,0 +1,17 @@
+package com.demo.backend.dto.user.clerk;
+
+/**
+ * organization.created / organization.updated / organization.deleted
+ *
+ * @param actorUserId user the event is attributed to in organization_events (created_by, updated_by, ...)
+ */
+public record ClerkOrganizationEvent(
+        String type,
+        String eventId,
+        String payload,
+        String organizationId,
+        String name,
+        String slug,
+        String imageUrl,
+        String actorUserId) implements ClerkEvent {
+}
@@ -0,0 +1,16 @@
+package com.demo.backend.dto.user.clerk;
+
+/**
+ * role.created / role.updated / role.deleted
+ *
+ * @param name data.name, else data.key
+ */
+public record ClerkRoleEvent(
+        String type,
+        String eventId,
+        String payload,
+        String name,
+        String description,
+        String userId,
+        String organizationId) implements ClerkEvent {
+}
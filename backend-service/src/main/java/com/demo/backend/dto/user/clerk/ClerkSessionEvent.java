@@ -0,0 +1,15 @@
+package com.demo.backend.dto.user.clerk;
+
+/**
+ * session.revoked / session.ended / session.removed
+ *
+ * @param expireAt data.expire_at in epoch millis (null if absent)
+ */
+public record ClerkSessionEvent(
+        String type,
+        String eventId,
+        String payload,
+        String sessionId,
+        String userId,
+        Long expireAt) implements ClerkEvent {
+}
@@ -0,0 +1,10 @@
+package com.demo.backend.dto.user.clerk;
+
+/**
+ * Any event type without a handler (session.created, ...); only the envelope is read
+ */
+public record ClerkUnhandledEvent(
+        String type,
+        String eventId,
+        String payload) implements ClerkEvent {
+}
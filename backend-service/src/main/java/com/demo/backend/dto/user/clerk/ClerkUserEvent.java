@@ -0,0 +1,17 @@
+package com.demo.backend.dto.user.clerk;
+
+/**
+ * user.created / user.updated
+ *
+ * @param email first of data.email_addresses, else data.primary_email_address, else data.email
+ */
+public record ClerkUserEvent(
+        String type,
+        String eventId,
+        String payload,
+        String userId,
+        String email,
+        String firstName,
+        String lastName,
+        String imageUrl) implements ClerkEvent {
+}
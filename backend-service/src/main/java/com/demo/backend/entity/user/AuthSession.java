@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
     @Index(name = "idx_auth_sessions_user_id", columnList = "user_id"),
     @Index(name = "idx_auth_sessions_organization_id", columnList = "organization_id"),
     @Index(name = "idx_auth_sessions_jwt_id", columnList = "jwt_id"),
-    @Index(name = "idx_auth_sessions_expires_at", columnList = "expires_at")
+    @Index(name = "idx_auth_sessions_expires_at", columnList = "expires_at"),
+    @Index(name = "idx_auth_sessions_revoked_at", columnList = "revoked_at")
 })
 @Getter
 @Setter
@@ -24,8 +25,9 @@ public class AuthSession {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    /** Null for a revocation recorded before the user was synced */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id")
     private User user;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -50,4 +52,8 @@ public class AuthSession {
     
     @Column(name = "last_accessed_at", nullable = false)
     private LocalDateTime lastAccessedAt;
+    
+    /** Set when the session is revoked; the gateway then rejects tokens carrying jwtId */
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
 }
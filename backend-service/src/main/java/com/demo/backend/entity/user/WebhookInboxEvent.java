@@ -0,0 +1,62 @@
+package com.demo.backend.entity.user;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Verified Clerk webhook waiting in the inbox for a worker (see WebhookInboxWorker)
+ */
+@Entity
+@Table(name = "webhook_inbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookInboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "svix_id")
+    private String svixId;
+    
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+    
+    /** Organization or user whose events must run in order; null when the event names neither */
+    @Column(name = "partition_key")
+    private String partitionKey;
+    
+    /** Raw webhook body exactly as Clerk sent it */
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+    
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+    
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private LocalDateTime receivedAt;
+    
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    /** Clerk user or organization ID a parked event is waiting for */
+    @Column(name = "waiting_for")
+    private String waitingFor;
+    
+    public enum Status {
+        PENDING,
+        FAILED
+    }
+}
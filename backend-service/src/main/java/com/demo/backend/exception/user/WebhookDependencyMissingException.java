@@ -0,0 +1,20 @@
+package com.demo.backend.exception.user;
+
+/**
+ * A webhook refers to a user or organization that has not been synced yet
+ * (Clerk does not guarantee delivery order), so the event is parked until it arrives
+ */
+public class WebhookDependencyMissingException extends RuntimeException {
+    
+    /** Clerk user or organization ID the event is waiting for */
+    private final String dependencyId;
+    
+    public WebhookDependencyMissingException(String message, String dependencyId) {
+        super(message);
+        this.dependencyId = dependencyId;
+    }
+    
+    public String getDependencyId() {
+        return dependencyId;
+    }
+}
@@ -0,0 +1,46 @@
+package com.demo.backend.repository.user;
+
+import com.demo.backend.entity.user.AuthSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AuthSessionRepository extends JpaRepository<AuthSession, Long> {
+    Optional<AuthSession> findFirstByJwtId(String jwtId);
+    
+    /**
+     * Sessions revoked at or after a watermark whose tokens can still be presented, in (revokedAt, id) order
+     * First page of the gateway's revocation refresh (served by idx_auth_sessions_revoked_at_id)
+     */
+    @Query("SELECT s FROM AuthSession s " +
+           "WHERE s.revokedAt >= :since AND s.jwtId IS NOT NULL " +
+           "AND (s.expiresAt IS NULL OR s.expiresAt > :now) " +
+           "ORDER BY s.revokedAt, s.id")
+    List<AuthSession> findRevokedSince(
+        @Param("since") LocalDateTime since,
+        @Param("now") LocalDateTime now,
+        Pageable page
+    );
+    
+    /**
+     * Following pages: sessions after the (revokedAt, id) of the last one returned, in the same order
+     */
+    @Query("SELECT s FROM AuthSession s " +
+           "WHERE (s.revokedAt > :revokedAt OR (s.revokedAt = :revokedAt AND s.id > :id)) " +
+           "AND s.jwtId IS NOT NULL " +
+           "AND (s.expiresAt IS NULL OR s.expiresAt > :now) " +
+           "ORDER BY s.revokedAt, s.id")
+    List<AuthSession> findRevokedAfter(
+        @Param("revokedAt") LocalDateTime revokedAt,
+        @Param("id") Long id,
+        @Param("now") LocalDateTime now,
+        Pageable page
+    );
+}
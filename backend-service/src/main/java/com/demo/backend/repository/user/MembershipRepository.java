@@ -42,6 +42,13 @@ public interface MembershipRepository extends JpaRepository<Membership, Long> {
            "WHERE m.organization.id = :orgId")
     List<Membership> findByOrganizationIdWithRelations(@Param("orgId") Long orgId);
     
+    /**
+     * Clerk user IDs of all members of an organization
+     * Used to invalidate gateway-cached responses when the organization changes
+     */
+    @Query("SELECT m.user.clerkUserId FROM Membership m WHERE m.organization.id = :orgId")
+    List<String> findClerkUserIdsByOrganizationId(@Param("orgId") Long orgId);
+    
     @Query("SELECT m FROM Membership m WHERE m.user.id = :userId AND m.organization.id = :orgId AND m.role.name = :roleName")
     Optional<Membership> findByUserIdAndOrganizationIdAndRoleName(
         @Param("userId") Long userId, 
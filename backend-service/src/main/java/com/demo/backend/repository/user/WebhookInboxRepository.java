@@ -0,0 +1,72 @@
+package com.demo.backend.repository.user;
+
+import com.demo.backend.entity.user.WebhookInboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEvent, Long> {
+    
+    /**
+     * Store a verified webhook; a redelivery with an already stored svix-id is a no-op
+     * @return 1 if inserted, 0 if it was a duplicate
+     */
+    @Modifying
+    @Query(value = "INSERT INTO webhook_inbox (svix_id, event_type, partition_key, payload) " +
+                   "VALUES (:svixId, :eventType, :partitionKey, :payload) " +
+                   "ON CONFLICT (svix_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(
+        @Param("svixId") String svixId,
+        @Param("eventType") String eventType,
+        @Param("partitionKey") String partitionKey,
+        @Param("payload") String payload
+    );
+    
+    /**
+     * Lock up to limit due rows, oldest first, skipping rows other workers have locked
+     * A row waits while an earlier pending row has the same partition key (being processed,
+     * backing off or parked), unless that row is parked on the key itself and this row is the
+     * user / organization event that creates it
+     * Must run in a transaction; the caller leases the rows before committing
+     */
+    @Query(value = "SELECT * FROM webhook_inbox w " +
+                   "WHERE w.status = 'PENDING' AND w.available_at <= :now " +
+                   "AND (w.partition_key IS NULL OR NOT EXISTS (" +
+                   "    SELECT 1 FROM webhook_inbox e " +
+                   "    WHERE e.partition_key = w.partition_key AND e.id < w.id AND e.status = 'PENDING' " +
+                   "    AND (e.waiting_for IS NULL OR e.waiting_for <> w.partition_key " +
+                   "         OR w.event_type NOT IN ('user.created', 'user.updated', " +
+                   "                                 'organization.created', 'organization.updated')))) " +
+                   "ORDER BY w.id " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<WebhookInboxEvent> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    /**
+     * Make events parked on a now-synced user or organization due immediately
+     * @return number of events released
+     */
+    @Modifying
+    @Query("UPDATE WebhookInboxEvent e SET e.availableAt = :now, e.waitingFor = NULL " +
+           "WHERE e.waitingFor = :dependencyId AND e.status = :status")
+    int releaseWaitingFor(
+        @Param("dependencyId") String dependencyId,
+        @Param("status") WebhookInboxEvent.Status status,
+        @Param("now") LocalDateTime now
+    );
+    
+    long countByStatus(WebhookInboxEvent.Status status);
+    
+    long countByStatusAndWaitingForIsNotNull(WebhookInboxEvent.Status status);
+    
+    Optional<WebhookInboxEvent> findFirstByStatusOrderByIdAsc(WebhookInboxEvent.Status status);
+}
@@ -1,5 +1,7 @@
 package com.demo.backend.service.user;
 
+import com.demo.backend.config.GatewayOrgContext;
+import com.demo.backend.config.GatewayPrincipal;
 import com.demo.backend.entity.user.Membership;
 import com.demo.backend.entity.user.Organization;
 import com.demo.backend.entity.user.Role;
@@ -8,11 +10,17 @@ import com.demo.backend.repository.user.MembershipRepository;
 import com.demo.backend.repository.user.OrganizationRepository;
 import com.demo.backend.repository.user.RoleRepository;
 import com.demo.backend.repository.user.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +28,10 @@ import java.util.Optional;
 /**
  * Service for authorization checks
  * Validates user permissions based on organization membership and roles
+ * 
+ * When the gateway forwards trusted org claims (see GatewayOrgContext), checks for the
+ * caller's active organization are answered from those claims; checks for any other
+ * organization or user still go to the database.
  */
 @Service
 @RequiredArgsConstructor
@@ -30,11 +42,21 @@ public class AuthorizationService {
     private final MembershipRepository membershipRepository;
     private final RoleRepository roleRepository;
     private final OrganizationRepository organizationRepository;
+    private final GatewayCacheInvalidator gatewayCacheInvalidator;
+    
+    /** Database organization ID -> Clerk organization ID (immutable once assigned; evicted on delete) */
+    private final Cache<Long, String> clerkOrgIds = Caffeine.newBuilder()
+        .maximumSize(10_000)
+        .build();
     
     /**
      * Check if user has access to an organization
      */
     public boolean hasAccessToOrganization(String clerkUserId, Long organizationId) {
+        if (trustedOrgContext(clerkUserId, organizationId).isPresent()) {
+            return true;
+        }
+        
         Optional<User> userOpt = userRepository.findByClerkUserId(clerkUserId);
         if (userOpt.isEmpty()) {
             log.warn("User not found: {}", clerkUserId);
@@ -51,6 +73,11 @@ public class AuthorizationService {
      * Check if user has a specific role in an organization
      */
     public boolean hasRole(String clerkUserId, Long organizationId, String roleName) {
+        Optional<GatewayOrgContext> trusted = trustedOrgContext(clerkUserId, organizationId);
+        if (trusted.isPresent()) {
+            return trusted.get().hasRole(roleName);
+        }
+        
         Optional<User> userOpt = userRepository.findByClerkUserId(clerkUserId);
         if (userOpt.isEmpty()) {
             log.warn("User not found: {}", clerkUserId);
@@ -83,6 +110,12 @@ public class AuthorizationService {
      */
     @Transactional(readOnly = true)
     public boolean isAdminInAnyOrganization(String clerkUserId) {
+        // ADMIN of the active organization is enough; only fall back to the DB otherwise
+        GatewayOrgContext active = currentOrgContext(clerkUserId);
+        if (active != null && active.hasRole("ADMIN")) {
+            return true;
+        }
+        
         Optional<User> userOpt = userRepository.findByClerkUserId(clerkUserId);
         if (userOpt.isEmpty()) {
             log.warn("User not found: {}", clerkUserId);
@@ -147,6 +180,68 @@ public class AuthorizationService {
         return user;
     }
     
+    /**
+     * Trusted gateway org claims, if the caller is clerkUserId and organizationId is their active org
+     */
+    private Optional<GatewayOrgContext> trustedOrgContext(String clerkUserId, Long organizationId) {
+        GatewayOrgContext context = currentOrgContext(clerkUserId);
+        if (context == null || organizationId == null) {
+            return Optional.empty();
+        }
+        return context.clerkOrgId().equals(clerkOrgIdFor(organizationId))
+            ? Optional.of(context)
+            : Optional.empty();
+    }
+    
+    /**
+     * Gateway org claims attached to the current request, if they belong to clerkUserId
+     */
+    private GatewayOrgContext currentOrgContext(String clerkUserId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+                || !(authentication.getPrincipal() instanceof GatewayPrincipal principal)
+                || !principal.clerkUserId().equals(clerkUserId)) {
+            return null;
+        }
+        return principal.orgContext();
+    }
+    
+    /**
+     * Resolve a database organization ID to its Clerk ID, caching the mapping
+     * (queried outside the cache, so a database round trip never holds a cache lock)
+     * @return the Clerk organization ID, or null if the organization does not exist
+     */
+    public String clerkOrgIdFor(Long organizationId) {
+        String cached = clerkOrgIds.getIfPresent(organizationId);
+        if (cached != null) {
+            return cached;
+        }
+        String clerkOrgId = organizationRepository.findById(organizationId)
+            .map(Organization::getClerkOrgId)
+            .orElse(null);
+        if (clerkOrgId == null) {
+            return null;
+        }
+        String raced = clerkOrgIds.asMap().putIfAbsent(organizationId, clerkOrgId);
+        return raced != null ? raced : clerkOrgId;
+    }
+    
+    /**
+     * Forget the Clerk ID of a deleted organization
+     * (again after commit, in case a concurrent lookup cached it before the delete was visible)
+     */
+    public void evictOrganization(Long organizationId) {
+        clerkOrgIds.invalidate(organizationId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clerkOrgIds.invalidate(organizationId);
+                }
+            });
+        }
+    }
+    
     /**
      * Retry admin check in a new transaction
      * Used when prepared statement conflicts occur
@@ -224,6 +319,7 @@ public class AuthorizationService {
                 clerkUserId, organizationId, roleName.toUpperCase());
         }
         
+        gatewayCacheInvalidator.invalidateUser(clerkUserId);
         return true;
     }
 }
@@ -0,0 +1,148 @@
+package com.demo.backend.service.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tells the API Gateway to drop cached responses for users whose data changed
+ * 
+ * Changes are collected per transaction and sent once, after commit, so the gateway never
+ * re-caches data that is about to be rolled back or is not yet visible. Sending is
+ * asynchronous and best-effort: a lost invalidation only means the gateway serves the old
+ * response until its TTL (gateway.response-cache.ttl) expires.
+ * 
+ * Disabled when gateway.cache-invalidation.url is empty.
+ */
+@Component
+@Slf4j
+public class GatewayCacheInvalidator {
+    
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final String url;
+    private final String secret;
+    
+    public GatewayCacheInvalidator(
+            ObjectMapper objectMapper,
+            @Value("${gateway.cache-invalidation.url:}") String url,
+            @Value("${gateway.cache-invalidation.secret:}") String secret) {
+        this.objectMapper = objectMapper;
+        this.url = url;
+        this.secret = secret;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    }
+    
+    /**
+     * Invalidate cached responses for the given Clerk user IDs after the current transaction commits
+     */
+    public void invalidateUsers(Collection<String> clerkUserIds) {
+        if (!clerkUserIds.isEmpty()) {
+            enqueue(clerkUserIds, false);
+        }
+    }
+    
+    public void invalidateUser(String clerkUserId) {
+        if (clerkUserId != null) {
+            enqueue(Set.of(clerkUserId), false);
+        }
+    }
+    
+    /**
+     * Invalidate every cached response (e.g. a role change that affects all users)
+     */
+    public void invalidateAll() {
+        enqueue(Set.of(), true);
+    }
+    
+    /**
+     * Collect invalidations in the current transaction and send them after commit
+     * Outside a transaction, they are sent immediately
+     */
+    private void enqueue(Collection<String> clerkUserIds, boolean all) {
+        if (url.isEmpty()) {
+            return;
+        }
+        
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Pending immediate = new Pending();
+            immediate.userIds.addAll(clerkUserIds);
+            immediate.all = all;
+            send(immediate);
+            return;
+        }
+        
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(created);
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(GatewayCacheInvalidator.this);
+                }
+            });
+            pending = created;
+        }
+        pending.userIds.addAll(clerkUserIds);
+        pending.all |= all;
+    }
+    
+    private void send(Pending pending) {
+        if (!pending.all && pending.userIds.isEmpty()) {
+            return;
+        }
+        
+        try {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("userIds", pending.userIds);
+            body.put("all", pending.all);
+            
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(2))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + secret)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+            
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.warn("Gateway cache invalidation failed: {}", error.toString());
+                    } else if (response.statusCode() >= 300) {
+                        log.warn("Gateway cache invalidation rejected with status {}", response.statusCode());
+                    } else {
+                        log.debug("Gateway cache invalidated (users: {}, all: {})", pending.userIds, pending.all);
+                    }
+                });
+        } catch (Exception e) {
+            log.warn("Could not send gateway cache invalidation: {}", e.getMessage());
+        }
+    }
+    
+    private static final class Pending {
+        private final Set<String> userIds = new LinkedHashSet<>();
+        private boolean all;
+    }
+}
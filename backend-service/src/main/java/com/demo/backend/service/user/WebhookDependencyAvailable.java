@@ -0,0 +1,10 @@
+package com.demo.backend.service.user;
+
+/**
+ * Published after a user or organization webhook has been applied, so inbox events parked
+ * while waiting for that Clerk ID can be processed (see WebhookParkingLot)
+ *
+ * @param clerkId Clerk user or organization ID that now exists in the database
+ */
+public record WebhookDependencyAvailable(String clerkId) {
+}
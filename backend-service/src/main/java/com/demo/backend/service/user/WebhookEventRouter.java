@@ -0,0 +1,130 @@
+package com.demo.backend.service.user;
+
+import com.demo.backend.dto.user.clerk.ClerkActivityEvent;
+import com.demo.backend.dto.user.clerk.ClerkEvent;
+import com.demo.backend.dto.user.clerk.ClerkMembershipEvent;
+import com.demo.backend.dto.user.clerk.ClerkOrganizationEvent;
+import com.demo.backend.dto.user.clerk.ClerkRoleEvent;
+import com.demo.backend.dto.user.clerk.ClerkSessionEvent;
+import com.demo.backend.dto.user.clerk.ClerkUserEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Routes a Clerk webhook event (bound by ClerkEventParser) to its WebhookService handler
+ * Shared by the synchronous WebhookController path and the inbox workers
+ * 
+ * Once a user or organization has been created (its handler's transaction has committed),
+ * publishes WebhookDependencyAvailable so events parked on that ID are re-driven.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookEventRouter {
+    
+    private final WebhookService webhookService;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    /**
+     * Run the handler for an event type
+     * @return false if the event type is not handled (the event is ignored)
+     * @throws RuntimeException if the handler failed
+     */
+    public boolean route(ClerkEvent event) {
+        String eventType = event.type() != null ? event.type() : "";
+        switch (eventType) {
+            case "user.created":
+                log.info("Routing to processUserCreated handler");
+                webhookService.processUserCreated((ClerkUserEvent) event);
+                log.info("processUserCreated completed successfully");
+                publishAvailable(((ClerkUserEvent) event).userId());
+                break;
+            case "user.updated":
+                log.info("Routing to processUserUpdated handler");
+                webhookService.processUserUpdated((ClerkUserEvent) event);
+                log.info("processUserUpdated completed successfully");
+                // Also creates the user when it was missing
+                publishAvailable(((ClerkUserEvent) event).userId());
+                break;
+            case "organization.created":
+                log.info("Routing to processOrganizationCreated handler");
+                webhookService.processOrganizationCreated((ClerkOrganizationEvent) event);
+                log.info("processOrganizationCreated completed successfully");
+                publishAvailable(((ClerkOrganizationEvent) event).organizationId());
+                break;
+            case "organization.updated":
+                log.info("Routing to processOrganizationUpdated handler");
+                webhookService.processOrganizationUpdated((ClerkOrganizationEvent) event);
+                log.info("processOrganizationUpdated completed successfully");
+                // Also creates the organization when it was missing
+                publishAvailable(((ClerkOrganizationEvent) event).organizationId());
+                break;
+            case "organization.deleted":
+                log.info("Routing to processOrganizationDeleted handler");
+                webhookService.processOrganizationDeleted((ClerkOrganizationEvent) event);
+                log.info("processOrganizationDeleted completed successfully");
+                break;
+            case "organizationMembership.created":
+                log.info("Routing to processOrganizationMembershipCreated handler");
+                webhookService.processOrganizationMembershipCreated((ClerkMembershipEvent) event);
+                log.info("processOrganizationMembershipCreated completed successfully");
+                break;
+            case "organizationMembership.updated":
+                log.info("Routing to processOrganizationMembershipUpdated handler");
+                webhookService.processOrganizationMembershipUpdated((ClerkMembershipEvent) event);
+                log.info("processOrganizationMembershipUpdated completed successfully");
+                break;
+            case "organizationMembership.deleted":
+                log.info("Routing to processOrganizationMembershipDeleted handler");
+                webhookService.processOrganizationMembershipDeleted((ClerkMembershipEvent) event);
+                log.info("processOrganizationMembershipDeleted completed successfully");
+                break;
+            case "email.created":
+                log.info("Routing to processEmailCreated handler");
+                webhookService.processEmailCreated((ClerkActivityEvent) event);
+                log.info("processEmailCreated completed successfully");
+                break;
+            case "role.created":
+                log.info("Routing to processRoleCreated handler");
+                webhookService.processRoleCreated((ClerkRoleEvent) event);
+                log.info("processRoleCreated completed successfully");
+                break;
+            case "role.updated":
+                log.info("Routing to processRoleUpdated handler");
+                webhookService.processRoleUpdated((ClerkRoleEvent) event);
+                log.info("processRoleUpdated completed successfully");
+                break;
+            case "role.deleted":
+                log.info("Routing to processRoleDeleted handler");
+                webhookService.processRoleDeleted((ClerkRoleEvent) event);
+                log.info("processRoleDeleted completed successfully");
+                break;
+            case "session.revoked":
+            case "session.ended":
+            case "session.removed":
+                log.info("Routing to processSessionEnded handler");
+                webhookService.processSessionEnded((ClerkSessionEvent) event);
+                log.info("processSessionEnded completed successfully");
+                break;
+            case "payment.attempt":
+            case "paymentAttempt":
+                log.info("Routing to processPaymentAttempt handler");
+                webhookService.processPaymentAttempt((ClerkActivityEvent) event);
+                log.info("processPaymentAttempt completed successfully");
+                break;
+            default:
+                // Ignore events we don't need (like session.created, etc.)
+                log.debug("Ignoring webhook event type: {} (not needed for user/org sync)", eventType);
+                return false;
+        }
+        return true;
+    }
+    
+    private void publishAvailable(String clerkId) {
+        if (clerkId != null && !clerkId.isEmpty()) {
+            eventPublisher.publishEvent(new WebhookDependencyAvailable(clerkId));
+        }
+    }
+}
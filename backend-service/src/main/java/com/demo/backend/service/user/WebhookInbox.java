@@ -0,0 +1,204 @@
+package com.demo.backend.service.user;
+
+import com.demo.backend.dto.user.clerk.ClerkEvent;
+import com.demo.backend.entity.user.WebhookInboxEvent;
+import com.demo.backend.repository.user.WebhookInboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable inbox for verified Clerk webhooks (webhook_inbox table)
+ *
+ * - enqueue: one insert, so the controller can acknowledge Clerk without running any handler
+ * - claim: locks due rows with FOR UPDATE SKIP LOCKED and leases them (available_at = now + lease)
+ *   in a short transaction, so concurrent workers never get the same row and a worker that dies
+ *   mid-event only delays it until the lease expires
+ * - ordering: each row stores its partition_key (organization, else user - see
+ *   WebhookLaneDispatcher.partitionKey) and is only claimable once no earlier row with that key is
+ *   still pending, so a retried or parked organizationMembership.created holds back the .updated /
+ *   .deleted behind it instead of being overtaken. A row parked on the key itself (membership
+ *   waiting for its organization) does not hold back the organization.created / .updated that
+ *   resolves it, and rows that end up FAILED release their successors.
+ * - complete / fail: delete the row, or schedule a retry with exponential backoff until
+ *   max-attempts, after which the row stays as FAILED for inspection
+ * - park / release: an event whose user or organization is not synced yet waits (waiting_for)
+ *   until that ID is created, or until clerk.webhook.parking.inbox-sweep-after as a fallback
+ *
+ * Workers are woken right after an enqueue commits instead of waiting for their next poll.
+ * Disabled unless clerk.webhook.inbox.enabled is true.
+ */
+@Service
+@Slf4j
+public class WebhookInbox {
+    
+    private final WebhookInboxRepository webhookInboxRepository;
+    private final boolean enabled;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration parkSweepAfter;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private boolean signalled;
+    
+    public WebhookInbox(
+            WebhookInboxRepository webhookInboxRepository,
+            @Value("${clerk.webhook.inbox.enabled:false}") boolean enabled,
+            @Value("${clerk.webhook.inbox.lease:PT5M}") Duration lease,
+            @Value("${clerk.webhook.inbox.max-attempts:10}") int maxAttempts,
+            @Value("${clerk.webhook.inbox.retry-backoff:PT5S}") Duration retryBackoff,
+            @Value("${clerk.webhook.inbox.max-retry-backoff:PT10M}") Duration maxRetryBackoff,
+            @Value("${clerk.webhook.parking.inbox-sweep-after:PT1M}") Duration parkSweepAfter) {
+        this.webhookInboxRepository = webhookInboxRepository;
+        this.enabled = enabled;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.parkSweepAfter = parkSweepAfter;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Store a verified webhook for asynchronous processing
+     * @return false if an event with the same svix-id is already in the inbox
+     */
+    @Transactional
+    public boolean enqueue(String svixId, ClerkEvent event) {
+        boolean inserted = webhookInboxRepository.insertIfAbsent(
+            svixId, event.type(), WebhookLaneDispatcher.entityKey(event), event.payload()) == 1;
+        if (inserted) {
+            signalAfterCommit();
+        }
+        return inserted;
+    }
+    
+    /**
+     * Claim up to limit due events for this worker
+     */
+    @Transactional
+    public List<WebhookInboxEvent> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<WebhookInboxEvent> events = webhookInboxRepository.lockDue(now, limit);
+        for (WebhookInboxEvent event : events) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setAvailableAt(now.plus(lease));
+        }
+        return events;
+    }
+    
+    /**
+     * Remove a processed event
+     */
+    @Transactional
+    public void complete(WebhookInboxEvent event) {
+        webhookInboxRepository.deleteById(event.getId());
+        if (event.getPartitionKey() != null) {
+            // The next event for the same entity is claimable now
+            signalAfterCommit();
+        }
+    }
+    
+    /**
+     * Schedule a retry of a failed event, or park it as FAILED once it has used up its attempts
+     * @return true if the event will be retried
+     */
+    @Transactional
+    public boolean fail(WebhookInboxEvent event, Throwable error) {
+        boolean retry = event.getAttempts() < maxAttempts;
+        event.setLastError(error.toString());
+        if (retry) {
+            // 5s, 10s, 20s, ... capped at max-retry-backoff
+            Duration backoff = retryBackoff.multipliedBy(1L << Math.min(event.getAttempts() - 1, 20));
+            event.setAvailableAt(LocalDateTime.now().plus(backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff));
+        } else {
+            event.setStatus(WebhookInboxEvent.Status.FAILED);
+            if (event.getPartitionKey() != null) {
+                signalAfterCommit();
+            }
+        }
+        webhookInboxRepository.save(event);
+        return retry;
+    }
+    
+    /**
+     * Park an event until the user or organization it refers to is synced
+     * Parking counts as an attempt, so an ID that never arrives ends in FAILED after max-attempts
+     * @return true if the event stays parked, false if it has used up its attempts
+     */
+    @Transactional
+    public boolean park(WebhookInboxEvent event, String dependencyId) {
+        if (event.getAttempts() >= maxAttempts) {
+            fail(event, new IllegalStateException("Still waiting for " + dependencyId));
+            return false;
+        }
+        event.setWaitingFor(dependencyId);
+        event.setLastError("Waiting for " + dependencyId);
+        event.setAvailableAt(LocalDateTime.now().plus(parkSweepAfter));
+        webhookInboxRepository.save(event);
+        return true;
+    }
+    
+    /**
+     * Make events parked on a user or organization due now that it exists
+     */
+    @Transactional
+    public int release(String dependencyId) {
+        int released = webhookInboxRepository.releaseWaitingFor(
+            dependencyId, WebhookInboxEvent.Status.PENDING, LocalDateTime.now());
+        if (released > 0) {
+            signalAfterCommit();
+        }
+        return released;
+    }
+    
+    /**
+     * Wait until an event is enqueued or the timeout passes, whichever comes first
+     */
+    public void awaitWork(Duration timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            if (!signalled) {
+                workAvailable.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            signalled = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void signalAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                signal();
+            }
+        });
+    }
+    
+    private void signal() {
+        lock.lock();
+        try {
+            signalled = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.demo.backend.service.user;
+
+import com.demo.backend.dto.user.clerk.ClerkEvent;
+import com.demo.backend.dto.user.clerk.ClerkEventParser;
+import com.demo.backend.entity.user.WebhookInboxEvent;
+import com.demo.backend.exception.user.WebhookDependencyMissingException;
+import com.demo.backend.repository.user.WebhookInboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Workers that drain the webhook inbox through WebhookEventRouter
+ *
+ * A fixed number of worker loops on virtual threads each claim a batch of due events
+ * (see WebhookInbox.claim), run the handler for every event in its own transaction and
+ * then delete it or schedule a retry. Idle workers sleep until an enqueue wakes them or
+ * poll-interval passes. Inbox depth and age are sampled every stats-interval.
+ *
+ * Events for one organization (or user) are claimed one at a time in arrival order (see
+ * WebhookInbox), so a retried or parked event is never overtaken by a later one for the same
+ * entity, whichever worker picks them up.
+ *
+ * With webhook lanes enabled a single loop claims events in arrival order and hands them to
+ * WebhookLaneDispatcher, which supplies the parallelism while keeping each organization's
+ * (or user's) events in order; several claiming loops would race each other across batches.
+ *
+ * Metrics:
+ * - webhook.inbox.pending / webhook.inbox.failed - rows waiting / given up on
+ * - webhook.inbox.parked - pending rows waiting for a user or organization (see WebhookInbox.park)
+ * - webhook.inbox.oldest.age - seconds the oldest pending event has waited
+ * - webhook.inbox.lag - time from receipt to processed, per event
+ * - webhook.inbox.processed{outcome=success|ignored|retry|parked|failed}
+ */
+@Component
+@Slf4j
+public class WebhookInboxWorker {
+    
+    private final WebhookInbox webhookInbox;
+    private final WebhookInboxRepository webhookInboxRepository;
+    private final WebhookEventRouter webhookEventRouter;
+    private final WebhookLaneDispatcher webhookLaneDispatcher;
+    private final WebhookService webhookService;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${clerk.webhook.inbox.workers:4}")
+    private int workers;
+    
+    @Value("${clerk.webhook.inbox.batch-size:10}")
+    private int batchSize;
+    
+    @Value("${clerk.webhook.inbox.poll-interval:PT1S}")
+    private Duration pollInterval;
+    
+    @Value("${clerk.webhook.inbox.stats-interval:PT10S}")
+    private Duration statsInterval;
+    
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+    private Timer lag;
+    
+    private volatile boolean running;
+    private ExecutorService executor;
+    
+    public WebhookInboxWorker(
+            WebhookInbox webhookInbox,
+            WebhookInboxRepository webhookInboxRepository,
+            WebhookEventRouter webhookEventRouter,
+            WebhookLaneDispatcher webhookLaneDispatcher,
+            WebhookService webhookService,
+            MeterRegistry meterRegistry) {
+        this.webhookInbox = webhookInbox;
+        this.webhookInboxRepository = webhookInboxRepository;
+        this.webhookEventRouter = webhookEventRouter;
+        this.webhookLaneDispatcher = webhookLaneDispatcher;
+        this.webhookService = webhookService;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @PostConstruct
+    public void start() {
+        if (!webhookInbox.isEnabled()) {
+            return;
+        }
+        
+        Gauge.builder("webhook.inbox.pending", pending, AtomicLong::get)
+            .description("Webhook events waiting in the inbox")
+            .register(meterRegistry);
+        Gauge.builder("webhook.inbox.failed", failed, AtomicLong::get)
+            .description("Webhook events that used up their attempts")
+            .register(meterRegistry);
+        Gauge.builder("webhook.inbox.parked", parked, AtomicLong::get)
+            .description("Webhook events waiting for a user or organization to be synced")
+            .register(meterRegistry);
+        Gauge.builder("webhook.inbox.oldest.age", oldestAgeMillis, age -> age.get() / 1000.0)
+            .description("Seconds the oldest pending webhook event has been waiting")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        lag = Timer.builder("webhook.inbox.lag")
+            .description("Time from webhook receipt to successful processing")
+            .register(meterRegistry);
+        
+        running = true;
+        int loops = webhookLaneDispatcher.isEnabled() ? 1 : workers;
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("webhook-inbox-", 0).factory());
+        for (int i = 0; i < loops; i++) {
+            executor.submit(this::workLoop);
+        }
+        executor.submit(this::statsLoop);
+        log.info("Webhook inbox enabled: {} worker(s), batch size {}{}", loops, batchSize,
+            webhookLaneDispatcher.isEnabled() ? ", processing on webhook lanes" : "");
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+    
+    private void workLoop() {
+        while (running) {
+            try {
+                List<WebhookInboxEvent> batch = webhookInbox.claim(batchSize);
+                if (batch.isEmpty()) {
+                    webhookInbox.awaitWork(pollInterval);
+                    continue;
+                }
+                for (WebhookInboxEvent event : batch) {
+                    process(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Database unavailable or similar - back off instead of spinning
+                log.warn("Webhook inbox worker error: {}", e.toString());
+                sleep(pollInterval);
+            }
+        }
+    }
+    
+    private void process(WebhookInboxEvent event) {
+        ClerkEvent parsed;
+        try {
+            // Same event ID tracking as the synchronous path in WebhookController
+            parsed = ClerkEventParser.parse(event.getPayload(), event.getSvixId());
+        } catch (Exception e) {
+            finish(event, false, e);
+            return;
+        }
+        
+        if (webhookLaneDispatcher.isEnabled()) {
+            // Blocks only while the event's lane is full; the lane thread finishes the event
+            webhookLaneDispatcher.submit(parsed)
+                .whenComplete((handled, error) -> finish(event, Boolean.TRUE.equals(handled), error));
+            return;
+        }
+        
+        try {
+            finish(event, webhookEventRouter.route(parsed), null);
+        } catch (Exception e) {
+            finish(event, false, e);
+        }
+    }
+    
+    /**
+     * Delete a processed event, or record the failure for a retry
+     */
+    private void finish(WebhookInboxEvent event, boolean handled, Throwable error) {
+        if (error == null) {
+            try {
+                webhookInbox.complete(event);
+                count(handled ? "success" : "ignored");
+                lag.record(Duration.between(event.getReceivedAt(), LocalDateTime.now()));
+                log.info("Inbox event {} ({}) processed after {} attempt(s)", event.getId(), event.getEventType(), event.getAttempts());
+                return;
+            } catch (Exception e) {
+                error = e;
+            }
+        }
+        
+        if (error instanceof WebhookDependencyMissingException missing) {
+            try {
+                if (webhookInbox.park(event, missing.getDependencyId())) {
+                    count("parked");
+                    log.info("Inbox event {} ({}) parked until {} is synced",
+                        event.getId(), event.getEventType(), missing.getDependencyId());
+                    if (webhookService.isSynced(missing.getDependencyId())) {
+                        // Created between the failed lookup and the park, so its release has already run
+                        webhookInbox.release(missing.getDependencyId());
+                    }
+                } else {
+                    count("failed");
+                    log.error("Inbox event {} ({}) still waiting for {} after {} attempts, giving up",
+                        event.getId(), event.getEventType(), missing.getDependencyId(), event.getAttempts());
+                }
+            } catch (Exception e) {
+                log.warn("Could not park inbox event {}: {}", event.getId(), e.toString());
+            }
+            return;
+        }
+        
+        try {
+            boolean retry = webhookInbox.fail(event, error);
+            count(retry ? "retry" : "failed");
+            if (retry) {
+                log.warn("Inbox event {} ({}) failed on attempt {}, will retry: {}",
+                    event.getId(), event.getEventType(), event.getAttempts(), error.getMessage());
+            } else {
+                log.error("Inbox event {} ({}) failed after {} attempts, giving up",
+                    event.getId(), event.getEventType(), event.getAttempts(), error);
+            }
+        } catch (Exception e) {
+            // The lease expires and another claim retries the event
+            log.warn("Could not record failure of inbox event {}: {}", event.getId(), e.toString());
+        }
+    }
+    
+    private void statsLoop() {
+        while (running) {
+            try {
+                pending.set(webhookInboxRepository.countByStatus(WebhookInboxEvent.Status.PENDING));
+                failed.set(webhookInboxRepository.countByStatus(WebhookInboxEvent.Status.FAILED));
+                parked.set(webhookInboxRepository.countByStatusAndWaitingForIsNotNull(WebhookInboxEvent.Status.PENDING));
+                oldestAgeMillis.set(webhookInboxRepository.findFirstByStatusOrderByIdAsc(WebhookInboxEvent.Status.PENDING)
+                    .map(oldest -> Duration.between(oldest.getReceivedAt(), LocalDateTime.now()).toMillis())
+                    .orElse(0L));
+            } catch (Exception e) {
+                log.debug("Could not sample webhook inbox stats: {}", e.toString());
+            }
+            sleep(statsInterval);
+        }
+    }
+    
+    private void count(String outcome) {
+        Counter.builder("webhook.inbox.processed")
+            .description("Webhook inbox events by processing outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+    
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.demo.backend.service.user;
+
+import com.demo.backend.dto.user.clerk.ClerkActivityEvent;
+import com.demo.backend.dto.user.clerk.ClerkEvent;
+import com.demo.backend.dto.user.clerk.ClerkMembershipEvent;
+import com.demo.backend.dto.user.clerk.ClerkOrganizationEvent;
+import com.demo.backend.dto.user.clerk.ClerkRoleEvent;
+import com.demo.backend.dto.user.clerk.ClerkSessionEvent;
+import com.demo.backend.dto.user.clerk.ClerkUnhandledEvent;
+import com.demo.backend.dto.user.clerk.ClerkUserEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs webhook handlers on ordered lanes: per-entity order, parallel across entities
+ *
+ * Each event is hashed to one of clerk.webhook.lanes.count lanes by its organization ID, or its
+ * user ID when it has no organization (the same IDs storeOrganizationEvent / storeUserEvent
+ * derive), so organization.created -> organizationMembership.created -> .updated for one
+ * organization run one after another, while unrelated tenants never wait behind each other.
+ * Every lane is a bounded queue drained by one virtual thread; submitting to a full lane blocks
+ * the caller, which is the backpressure for both the controller and the inbox worker.
+ *
+ * When disabled, route() calls WebhookEventRouter directly on the caller's thread.
+ *
+ * Metrics:
+ * - webhook.lanes.queue.depth{lane} - events waiting in each lane
+ */
+@Component
+@Slf4j
+public class WebhookLaneDispatcher {
+    
+    private final WebhookEventRouter webhookEventRouter;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int laneCount;
+    private final int queueCapacity;
+    
+    private Lane[] lanes;
+    
+    public WebhookLaneDispatcher(
+            WebhookEventRouter webhookEventRouter,
+            MeterRegistry meterRegistry,
+            @Value("${clerk.webhook.lanes.enabled:false}") boolean enabled,
+            @Value("${clerk.webhook.lanes.count:8}") int laneCount,
+            @Value("${clerk.webhook.lanes.queue-capacity:100}") int queueCapacity) {
+        this.webhookEventRouter = webhookEventRouter;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.laneCount = Math.max(1, laneCount);
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+    
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        
+        lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            Lane lane = new Lane(new ArrayBlockingQueue<>(queueCapacity));
+            lane.thread = Thread.ofVirtual().name("webhook-lane-" + i).start(lane::run);
+            Gauge.builder("webhook.lanes.queue.depth", lane.queue, BlockingQueue::size)
+                .description("Webhook events waiting in a processing lane")
+                .tag("lane", Integer.toString(i))
+                .register(meterRegistry);
+            lanes[i] = lane;
+        }
+        log.info("Webhook lanes enabled: {} lane(s), queue capacity {}", laneCount, queueCapacity);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (lanes != null) {
+            for (Lane lane : lanes) {
+                lane.thread.interrupt();
+            }
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Run the handler for an event on its lane and wait for it
+     * @return false if the event type is not handled (the event is ignored)
+     * @throws RuntimeException if the handler failed
+     */
+    public boolean route(ClerkEvent event) {
+        if (!enabled) {
+            return webhookEventRouter.route(event);
+        }
+        try {
+            return submit(event).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Queue the handler for an event on its lane, blocking while the lane is full
+     * The future completes on the lane thread with the result of WebhookEventRouter.route
+     */
+    public CompletableFuture<Boolean> submit(ClerkEvent event) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        Lane lane = lanes[Math.floorMod(partitionKey(event).hashCode(), laneCount)];
+        try {
+            lane.queue.put(() -> {
+                try {
+                    result.complete(webhookEventRouter.route(event));
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+    
+    /**
+     * The entity whose events must stay in order: the organization when the event has one,
+     * otherwise the user; role events share one key since roles are global
+     */
+    static String partitionKey(ClerkEvent event) {
+        String key = entityKey(event);
+        if (key == null || key.isEmpty()) {
+            return event.type() != null ? event.type() : "";
+        }
+        return key;
+    }
+    
+    /**
+     * Same as partitionKey, but null when the event names no entity (also the inbox's ordering key)
+     */
+    static String entityKey(ClerkEvent event) {
+        String key = switch (event) {
+            case ClerkMembershipEvent membership ->
+                membership.organizationId() != null ? membership.organizationId() : membership.userId();
+            case ClerkOrganizationEvent organization -> organization.organizationId();
+            case ClerkUserEvent user -> user.userId();
+            case ClerkRoleEvent role -> "role";
+            // session.*, email.*, payment attempts: the user they belong to
+            case ClerkSessionEvent session -> session.userId();
+            case ClerkActivityEvent activity -> activity.userId();
+            case ClerkUnhandledEvent unhandled -> null;
+        };
+        return key == null || key.isEmpty() ? null : key;
+    }
+    
+    private static final class Lane {
+        private final BlockingQueue<Runnable> queue;
+        private Thread thread;
+        
+        private Lane(BlockingQueue<Runnable> queue) {
+            this.queue = queue;
+        }
+        
+        private void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    queue.take().run();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.demo.backend.service.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Releases webhooks that arrived before the user or organization they refer to
+ *
+ * Clerk does not guarantee delivery order, so organizationMembership.created can arrive before
+ * user.created or organization.created. With the inbox enabled the row is parked under the
+ * missing Clerk ID (WebhookInbox.park) and released here as soon as WebhookEventRouter publishes
+ * WebhookDependencyAvailable for that ID.
+ *
+ * The synchronous controller path does not park: it answers 503 with X-Retry-Reason at once
+ * and Clerk redelivers, so no request thread is held while waiting.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookParkingLot {
+    
+    private final WebhookInbox webhookInbox;
+    
+    @EventListener
+    public void onDependencyAvailable(WebhookDependencyAvailable available) {
+        if (!webhookInbox.isEnabled()) {
+            return;
+        }
+        int released = webhookInbox.release(available.clerkId());
+        if (released > 0) {
+            log.info("Released {} inbox event(s) waiting for {}", released, available.clerkId());
+        }
+    }
+}
@@ -1,19 +1,31 @@
 package com.demo.backend.service.user;
 
+import com.demo.backend.dto.user.clerk.ClerkActivityEvent;
+import com.demo.backend.dto.user.clerk.ClerkEvent;
+import com.demo.backend.dto.user.clerk.ClerkMembershipEvent;
+import com.demo.backend.dto.user.clerk.ClerkOrganizationEvent;
+import com.demo.backend.dto.user.clerk.ClerkRoleEvent;
+import com.demo.backend.dto.user.clerk.ClerkSessionEvent;
+import com.demo.backend.dto.user.clerk.ClerkUserEvent;
 import com.demo.backend.entity.user.*;
+import com.demo.backend.exception.user.WebhookDependencyMissingException;
 import com.demo.backend.repository.user.*;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Optional;
 
 /**
  * Service for processing Clerk webhook events
  * Handles user and organization lifecycle events
+ *
+ * Handlers take the typed events bound by ClerkEventParser; the audit tables store the
+ * webhook body as received (ClerkEvent.payload).
  */
 @Service
 @RequiredArgsConstructor
@@ -26,53 +38,41 @@ public class WebhookService {
     private final MembershipRepository membershipRepository;
     private final UserEventRepository userEventRepository;
     private final OrganizationEventRepository organizationEventRepository;
-    private final ObjectMapper objectMapper;
+    private final AuthSessionRepository authSessionRepository;
+    private final GatewayCacheInvalidator gatewayCacheInvalidator;
+    private final AuthorizationService authorizationService;
+    
+    /**
+     * Whether a user or organization with this Clerk ID has been synced
+     */
+    @Transactional(readOnly = true)
+    public boolean isSynced(String clerkId) {
+        return userRepository.findByClerkUserId(clerkId).isPresent()
+            || organizationRepository.findByClerkOrgId(clerkId).isPresent();
+    }
     
     @Transactional
-    public void processUserCreated(JsonNode eventData) {
+    public void processUserCreated(ClerkUserEvent event) {
         try {
-            log.info("Processing user.created event. Full payload: {}", eventData.toPrettyString());
+            log.info("Processing user.created event. Full payload: {}", event.payload());
             
-            JsonNode data = eventData.get("data");
-            if (data == null) {
-                log.error("user.created event missing 'data' field. Event structure: {}", eventData.toPrettyString());
-                throw new RuntimeException("user.created event missing 'data' field");
-            }
-            
-            String clerkUserId = data.has("id") ? data.get("id").asText() : null;
+            String clerkUserId = event.userId();
             if (clerkUserId == null) {
-                log.error("user.created event missing 'id' field in data. Data structure: {}", data.toPrettyString());
-                throw new RuntimeException("user.created event missing 'id' field");
+                log.error("user.created event missing 'data.id' field. Payload: {}", event.payload());
+                throw new RuntimeException("user.created event missing 'data.id' field");
             }
             
             log.info("Processing user.created for clerkUserId: {}", clerkUserId);
             
-            // Extract email - try multiple possible locations
-            String email = null;
-            if (data.has("email_addresses") && data.get("email_addresses").isArray() && data.get("email_addresses").size() > 0) {
-                JsonNode emailAddresses = data.get("email_addresses");
-                JsonNode firstEmail = emailAddresses.get(0);
-                if (firstEmail.has("email_address")) {
-                    email = firstEmail.get("email_address").asText();
-                } else if (firstEmail.has("email")) {
-                    email = firstEmail.get("email").asText();
-                } else if (firstEmail.isTextual()) {
-                    email = firstEmail.asText();
-                }
-            } else if (data.has("primary_email_address")) {
-                email = data.get("primary_email_address").asText();
-            } else if (data.has("email")) {
-                email = data.get("email").asText();
-            }
-            
+            String email = event.email();
             log.info("Extracted email for user {}: {}", clerkUserId, email != null ? email : "null");
             
             if (email == null || email.isEmpty()) {
-                log.warn("User created event missing email. clerkUserId: {}, data structure: {}", 
-                    clerkUserId, data.toPrettyString());
+                log.warn("User created event missing email. clerkUserId: {}, payload: {}",
+                    clerkUserId, event.payload());
                 // Don't return early - still store the event for audit
                 // But we can't create user without email
-                storeUserEvent(clerkUserId, "user.created", eventData);
+                storeUserEvent(clerkUserId, "user.created", event);
                 log.warn("Skipping user creation due to missing email. Event stored for audit.");
                 return;
             }
@@ -81,56 +81,59 @@ public class WebhookService {
             if (userRepository.existsByClerkUserId(clerkUserId)) {
                 log.info("User already exists, skipping: {} ({})", email, clerkUserId);
                 // Still store event for audit
-                storeUserEvent(clerkUserId, "user.created", eventData);
+                storeUserEvent(clerkUserId, "user.created", event);
                 return;
             }
             
             User user = User.builder()
                 .clerkUserId(clerkUserId)
                 .email(email)
-                .firstName(data.has("first_name") ? data.get("first_name").asText() : null)
-                .lastName(data.has("last_name") ? data.get("last_name").asText() : null)
-                .imageUrl(data.has("image_url") ? data.get("image_url").asText() : null)
+                .firstName(event.firstName())
+                .lastName(event.lastName())
+                .imageUrl(event.imageUrl())
                 .build();
             
             userRepository.save(user);
             log.info("User created successfully: {} ({})", email, clerkUserId);
+            gatewayCacheInvalidator.invalidateUser(clerkUserId);
             
             // Store event for audit
-            storeUserEvent(clerkUserId, "user.created", eventData);
+            storeUserEvent(clerkUserId, "user.created", event);
             log.info("User event stored in audit table for: {}", clerkUserId);
             
         } catch (Exception e) {
-            log.error("Error processing user.created event. Event payload: {}", 
-                eventData != null ? eventData.toPrettyString() : "null", e);
+            log.error("Error processing user.created event. Event payload: {}", event.payload(), e);
             throw new RuntimeException("Failed to process user.created event: " + e.getMessage(), e);
         }
     }
     
     @Transactional
-    public void processUserUpdated(JsonNode eventData) {
+    public void processUserUpdated(ClerkUserEvent event) {
         try {
-            JsonNode data = eventData.get("data");
-            String clerkUserId = data.get("id").asText();
+            String clerkUserId = event.userId();
+            if (clerkUserId == null) {
+                throw new RuntimeException("user.updated event missing 'data.id' field");
+            }
             
             Optional<User> userOpt = userRepository.findByClerkUserId(clerkUserId);
             if (userOpt.isEmpty()) {
                 log.warn("User not found for update: {}", clerkUserId);
                 // Create user if it doesn't exist (might have missed created event)
-                processUserCreated(eventData);
+                processUserCreated(event);
                 return;
             }
             
             User user = userOpt.get();
-            if (data.has("first_name")) user.setFirstName(data.get("first_name").asText());
-            if (data.has("last_name")) user.setLastName(data.get("last_name").asText());
-            if (data.has("image_url")) user.setImageUrl(data.get("image_url").asText());
+            if (event.firstName() != null) user.setFirstName(event.firstName());
+            if (event.lastName() != null) user.setLastName(event.lastName());
+            if (event.imageUrl() != null) user.setImageUrl(event.imageUrl());
             
             userRepository.save(user);
             log.info("User updated: {}", clerkUserId);
+            gatewayCacheInvalidator.invalidateUser(clerkUserId);
             
             // Store event for audit
-            storeUserEvent(clerkUserId, "user.updated", eventData);
+            storeUserEvent(clerkUserId, "user.updated", event);
             
         } catch (Exception e) {
             log.error("Error processing user.updated event", e);
@@ -139,20 +142,14 @@ public class WebhookService {
     }
     
     @Transactional
-    public void processOrganizationCreated(JsonNode eventData) {
+    public void processOrganizationCreated(ClerkOrganizationEvent event) {
         try {
-            log.info("Processing organization.created event. Full payload: {}", eventData.toPrettyString());
+            log.info("Processing organization.created event. Full payload: {}", event.payload());
             
-            JsonNode data = eventData.get("data");
-            if (data == null) {
-                log.error("organization.created event missing 'data' field. Event structure: {}", eventData.toPrettyString());
-                throw new RuntimeException("organization.created event missing 'data' field");
-            }
-            
-            String clerkOrgId = data.has("id") ? data.get("id").asText() : null;
+            String clerkOrgId = event.organizationId();
             if (clerkOrgId == null) {
-                log.error("organization.created event missing 'id' field in data. Data structure: {}", data.toPrettyString());
-                throw new RuntimeException("organization.created event missing 'id' field");
+                log.error("organization.created event missing 'data.id' field. Payload: {}", event.payload());
+                throw new RuntimeException("organization.created event missing 'data.id' field");
             }
             
             log.info("Processing organization.created for clerkOrgId: {}", clerkOrgId);
@@ -161,46 +158,39 @@ public class WebhookService {
             if (organizationRepository.existsByClerkOrgId(clerkOrgId)) {
                 log.info("Organization already exists, skipping: {}", clerkOrgId);
                 // Still store event for audit
-                storeOrganizationEvent(clerkOrgId, null, "organization.created", eventData);
+                storeOrganizationEvent(clerkOrgId, event.actorUserId(), "organization.created", event);
                 return;
             }
             
             Organization org = Organization.builder()
                 .clerkOrgId(clerkOrgId)
-                .name(data.has("name") ? data.get("name").asText() : "Unnamed Organization")
-                .slug(data.has("slug") ? data.get("slug").asText() : null)
-                .imageUrl(data.has("image_url") ? data.get("image_url").asText() : null)
+                .name(event.name() != null ? event.name() : "Unnamed Organization")
+                .slug(event.slug())
+                .imageUrl(event.imageUrl())
                 .build();
             
             organizationRepository.save(org);
             log.info("Organization created successfully: {} ({})", org.getName(), clerkOrgId);
             
             // Store event for audit
-            storeOrganizationEvent(clerkOrgId, null, "organization.created", eventData);
+            storeOrganizationEvent(clerkOrgId, event.actorUserId(), "organization.created", event);
             log.info("Organization event stored in audit table for: {}", clerkOrgId);
             
         } catch (Exception e) {
-            log.error("Error processing organization.created event. Event payload: {}", 
-                eventData != null ? eventData.toPrettyString() : "null", e);
+            log.error("Error processing organization.created event. Event payload: {}", event.payload(), e);
             throw new RuntimeException("Failed to process organization.created event: " + e.getMessage(), e);
         }
     }
     
     @Transactional
-    public void processOrganizationUpdated(JsonNode eventData) {
+    public void processOrganizationUpdated(ClerkOrganizationEvent event) {
         try {
-            log.info("Processing organization.updated event. Full payload: {}", eventData.toPrettyString());
-            
-            JsonNode data = eventData.get("data");
-            if (data == null) {
-                log.error("organization.updated event missing 'data' field. Event structure: {}", eventData.toPrettyString());
-                throw new RuntimeException("organization.updated event missing 'data' field");
-            }
+            log.info("Processing organization.updated event. Full payload: {}", event.payload());
             
-            String clerkOrgId = data.has("id") ? data.get("id").asText() : null;
+            String clerkOrgId = event.organizationId();
             if (clerkOrgId == null) {
-                log.error("organization.updated event missing 'id' field in data. Data structure: {}", data.toPrettyString());
-                throw new RuntimeException("organization.updated event missing 'id' field");
+                log.error("organization.updated event missing 'data.id' field. Payload: {}", event.payload());
+                throw new RuntimeException("organization.updated event missing 'data.id' field");
             }
             
             log.info("Processing organization.updated for clerkOrgId: {}", clerkOrgId);
@@ -209,55 +199,49 @@ public class WebhookService {
             if (orgOpt.isEmpty()) {
                 log.warn("Organization not found for update: {}. Creating new organization.", clerkOrgId);
                 // Create organization if it doesn't exist (might have missed created event)
-                processOrganizationCreated(eventData);
+                processOrganizationCreated(event);
                 return;
             }
             
             Organization org = orgOpt.get();
             
             // Update fields if present in webhook data
-            if (data.has("name")) {
-                org.setName(data.get("name").asText());
+            if (event.name() != null) {
+                org.setName(event.name());
                 log.debug("Updated organization name: {}", org.getName());
             }
-            if (data.has("slug")) {
-                org.setSlug(data.get("slug").asText());
+            if (event.slug() != null) {
+                org.setSlug(event.slug());
                 log.debug("Updated organization slug: {}", org.getSlug());
             }
-            if (data.has("image_url")) {
-                org.setImageUrl(data.get("image_url").asText());
+            if (event.imageUrl() != null) {
+                org.setImageUrl(event.imageUrl());
                 log.debug("Updated organization imageUrl");
             }
             
             organizationRepository.save(org);
             log.info("Organization updated successfully: {} ({})", org.getName(), clerkOrgId);
+            gatewayCacheInvalidator.invalidateUsers(membershipRepository.findClerkUserIdsByOrganizationId(org.getId()));
             
             // Store event for audit
-            storeOrganizationEvent(clerkOrgId, null, "organization.updated", eventData);
+            storeOrganizationEvent(clerkOrgId, event.actorUserId(), "organization.updated", event);
             log.info("Organization updated event stored in audit table for: {}", clerkOrgId);
             
         } catch (Exception e) {
-            log.error("Error processing organization.updated event. Event payload: {}", 
-                eventData != null ? eventData.toPrettyString() : "null", e);
+            log.error("Error processing organization.updated event. Event payload: {}", event.payload(), e);
             throw new RuntimeException("Failed to process organization.updated event: " + e.getMessage(), e);
         }
     }
     
     @Transactional
-    public void processOrganizationDeleted(JsonNode eventData) {
+    public void processOrganizationDeleted(ClerkOrganizationEvent event) {
         try {
-            log.info("Processing organization.deleted event. Full payload: {}", eventData.toPrettyString());
+            log.info("Processing organization.deleted event. Full payload: {}", event.payload());
             
-            JsonNode data = eventData.get("data");
-            if (data == null) {
-                log.error("organization.deleted event missing 'data' field. Event structure: {}", eventData.toPrettyString());
-                throw new RuntimeException("organization.deleted event missing 'data' field");
-            }
-            
-            String clerkOrgId = data.has("id") ? data.get("id").asText() : null;
+            String clerkOrgId = event.organizationId();
             if (clerkOrgId == null) {
-                log.error("organization.deleted event missing 'id' field in data. Data structure: {}", data.toPrettyString());
-                throw new RuntimeException("organization.deleted event missing 'id' field");
+                log.error("organization.deleted event missing 'data.id' field. Payload: {}", event.payload());
+                throw new RuntimeException("organization.deleted event missing 'data.id' field");
             }
             
             log.info("Processing organization.deleted for clerkOrgId: {}", clerkOrgId);
@@ -267,53 +251,45 @@ public class WebhookService {
                 Organization org = orgOpt.get();
                 String orgName = org.getName();
                 
+                // Members' cached responses still list this organization
+                gatewayCacheInvalidator.invalidateUsers(membershipRepository.findClerkUserIdsByOrganizationId(org.getId()));
+                
                 // Delete all memberships for this organization first (cascade might handle this, but explicit is better)
                 membershipRepository.deleteAll(membershipRepository.findByOrganizationId(org.getId()));
                 log.info("Deleted all memberships for organization: {}", clerkOrgId);
                 
                 // Delete the organization
                 organizationRepository.delete(org);
+                authorizationService.evictOrganization(org.getId());
                 log.info("Organization deleted successfully: {} ({})", orgName, clerkOrgId);
             } else {
                 log.warn("Organization not found for deletion: {}. It may have already been deleted.", clerkOrgId);
             }
             
             // Store event for audit (even if org wasn't found, we still want to track the deletion attempt)
-            storeOrganizationEvent(clerkOrgId, null, "organization.deleted", eventData);
+            storeOrganizationEvent(clerkOrgId, event.actorUserId(), "organization.deleted", event);
             log.info("Organization deleted event stored in audit table for: {}", clerkOrgId);
             
         } catch (Exception e) {
-            log.error("Error processing organization.deleted event. Event payload: {}", 
-                eventData != null ? eventData.toPrettyString() : "null", e);
+            log.error("Error processing organization.deleted event. Event payload: {}", event.payload(), e);
             throw new RuntimeException("Failed to process organization.deleted event: " + e.getMessage(), e);
         }
     }
     
     @Transactional
-    public void processOrganizationMembershipCreated(JsonNode eventData) {
+    public void processOrganizationMembershipCreated(ClerkMembershipEvent event) {
         try {
-            JsonNode data = eventData.get("data");
-            String clerkMembershipId = data.get("id").asText();
-            String clerkOrgId = data.get("organization_id").asText();
-            String clerkUserId = data.get("public_user_data").get("user_id").asText();
-            
-            // Try multiple possible locations for role in Clerk webhook payload
-            final String roleName;
-            if (data.has("role")) {
-                roleName = data.get("role").asText();
-                log.debug("Found role in data.role: {}", roleName);
-            } else if (data.has("public_metadata") && data.get("public_metadata").has("role")) {
-                roleName = data.get("public_metadata").get("role").asText();
-                log.debug("Found role in data.public_metadata.role: {}", roleName);
-            } else if (data.has("public_user_data") && data.get("public_user_data").has("role")) {
-                roleName = data.get("public_user_data").get("role").asText();
-                log.debug("Found role in data.public_user_data.role: {}", roleName);
-            } else {
-                roleName = "USER"; // default
-                log.warn("Role not found in webhook payload, defaulting to USER. Payload structure: {}", data.toPrettyString());
+            String clerkMembershipId = event.membershipId();
+            String clerkOrgId = event.organizationId();
+            String clerkUserId = event.userId();
+            if (clerkMembershipId == null || clerkOrgId == null || clerkUserId == null) {
+                log.error("organizationMembership.created event missing membership, organization or user ID. Payload: {}", event.payload());
+                throw new RuntimeException("organizationMembership.created event missing membership, organization or user ID");
             }
             
-            log.info("Processing organizationMembership.created - user: {}, org: {}, role: {}", 
+            final String roleName = roleOrDefault(event);
+            
+            log.info("Processing organizationMembership.created - user: {}, org: {}, role: {}",
                 clerkUserId, clerkOrgId, roleName);
             
             // Check if membership already exists (idempotency)
@@ -322,17 +298,16 @@ public class WebhookService {
                 return;
             }
             
-            // Find user and organization
+            // Find user and organization (either may not be synced yet - the event is then parked)
             User user = userRepository.findByClerkUserId(clerkUserId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + clerkUserId));
+                .orElseThrow(() -> new WebhookDependencyMissingException("User not found: " + clerkUserId, clerkUserId));
             Organization org = organizationRepository.findByClerkOrgId(clerkOrgId)
-                .orElseThrow(() -> new RuntimeException("Organization not found: " + clerkOrgId));
+                .orElseThrow(() -> new WebhookDependencyMissingException("Organization not found: " + clerkOrgId, clerkOrgId));
             
             // Find role (default to USER if not found)
-            final String finalRoleName = roleName; // Make effectively final for lambda
-            Role role = roleRepository.findByName(finalRoleName.toUpperCase())
+            Role role = roleRepository.findByName(roleName.toUpperCase())
                 .orElseGet(() -> {
-                    log.warn("Role not found: {}, defaulting to USER", finalRoleName);
+                    log.warn("Role not found: {}, defaulting to USER", roleName);
                     return roleRepository.findByName("USER")
                         .orElseThrow(() -> new RuntimeException("Default USER role not found"));
                 });
@@ -348,6 +323,7 @@ public class WebhookService {
                 membership.setClerkMembershipId(clerkMembershipId);
                 membershipRepository.save(membership);
                 log.info("Membership updated: user {} in org {} with role {}", clerkUserId, clerkOrgId, roleName);
+                gatewayCacheInvalidator.invalidateUser(clerkUserId);
             } else {
                 // Create new membership
                 Membership membership = Membership.builder()
@@ -359,11 +335,15 @@ public class WebhookService {
                 
                 membershipRepository.save(membership);
                 log.info("Membership created: user {} in org {} with role {}", clerkUserId, clerkOrgId, roleName);
+                gatewayCacheInvalidator.invalidateUser(clerkUserId);
             }
             
             // Store event for audit
-            storeOrganizationEvent(clerkOrgId, clerkUserId, "organizationMembership.created", eventData);
+            storeOrganizationEvent(clerkOrgId, clerkUserId, "organizationMembership.created", event);
             
+        } catch (WebhookDependencyMissingException e) {
+            log.info("organizationMembership.created is waiting for {}", e.getDependencyId());
+            throw e;
         } catch (Exception e) {
             log.error("Error processing organizationMembership.created event", e);
             throw new RuntimeException("Failed to process organizationMembership.created event", e);
@@ -371,30 +351,18 @@ public class WebhookService {
     }
     
     @Transactional
-    public void processOrganizationMembershipUpdated(JsonNode eventData) {
+    public void processOrganizationMembershipUpdated(ClerkMembershipEvent event) {
         try {
-            log.info("Processing organizationMembership.updated event. Full payload: {}", eventData.toPrettyString());
-            
-            JsonNode data = eventData.get("data");
-            if (data == null) {
-                log.error("organizationMembership.updated event missing 'data' field. Event structure: {}", eventData.toPrettyString());
-                throw new RuntimeException("organizationMembership.updated event missing 'data' field");
-            }
+            log.info("Processing organizationMembership.updated event. Full payload: {}", event.payload());
             
-            String clerkMembershipId = data.has("id") ? data.get("id").asText() : null;
+            String clerkMembershipId = event.membershipId();
             if (clerkMembershipId == null) {
-                log.error("organizationMembership.updated event missing 'id' field in data. Data structure: {}", data.toPrettyString());
-                throw new RuntimeException("organizationMembership.updated event missing 'id' field");
+                log.error("organizationMembership.updated event missing 'data.id' field. Payload: {}", event.payload());
+                throw new RuntimeException("organizationMembership.updated event missing 'data.id' field");
             }
             
-            String clerkOrgId = data.has("organization_id") ? data.get("organization_id").asText() : null;
-            String clerkUserId = null;
-            
-            if (data.has("public_user_data") && data.get("public_user_data").has("user_id")) {
-                clerkUserId = data.get("public_user_data").get("user_id").asText();
-            } else if (data.has("user_id")) {
-                clerkUserId = data.get("user_id").asText();
-            }
+            String clerkOrgId = event.organizationId();
+            String clerkUserId = event.userId();
             
             if (clerkOrgId == null) {
                 log.error("organizationMembership.updated event missing 'organization_id' field");
@@ -406,23 +374,9 @@ public class WebhookService {
                 throw new RuntimeException("organizationMembership.updated event missing 'user_id' field");
             }
             
-            // Try multiple possible locations for role in Clerk webhook payload
-            final String roleName;
-            if (data.has("role")) {
-                roleName = data.get("role").asText();
-                log.debug("Found role in data.role: {}", roleName);
-            } else if (data.has("public_metadata") && data.get("public_metadata").has("role")) {
-                roleName = data.get("public_metadata").get("role").asText();
-                log.debug("Found role in data.public_metadata.role: {}", roleName);
-            } else if (data.has("public_user_data") && data.get("public_user_data").has("role")) {
-                roleName = data.get("public_user_data").get("role").asText();
-                log.debug("Found role in data.public_user_data.role: {}", roleName);
-            } else {
-                roleName = "USER"; // default
-                log.warn("Role not found in webhook payload, defaulting to USER. Payload structure: {}", data.toPrettyString());
-            }
+            final String roleName = roleOrDefault(event);
             
-            log.info("Processing organizationMembership.updated - membership: {}, user: {}, org: {}, role: {}", 
+            log.info("Processing organizationMembership.updated - membership: {}, user: {}, org: {}, role: {}",
                 clerkMembershipId, clerkUserId, clerkOrgId, roleName);
             
             // Find membership by clerkMembershipId first
@@ -431,17 +385,16 @@ public class WebhookService {
             if (membershipOpt.isEmpty()) {
                 log.warn("Membership not found for update: {}. Creating new membership.", clerkMembershipId);
                 // Create membership if it doesn't exist (might have missed created event)
-                processOrganizationMembershipCreated(eventData);
+                processOrganizationMembershipCreated(event);
                 return;
             }
             
             Membership membership = membershipOpt.get();
             
             // Find role (default to USER if not found)
-            final String finalRoleName = roleName; // Make effectively final for lambda
-            Role role = roleRepository.findByName(finalRoleName.toUpperCase())
+            Role role = roleRepository.findByName(roleName.toUpperCase())
                 .orElseGet(() -> {
-                    log.warn("Role not found: {}, defaulting to USER", finalRoleName);
+                    log.warn("Role not found: {}, defaulting to USER", roleName);
                     return roleRepository.findByName("USER")
                         .orElseThrow(() -> new RuntimeException("Default USER role not found"));
                 });
@@ -452,40 +405,45 @@ public class WebhookService {
             membership.setClerkMembershipId(clerkMembershipId); // Update in case it changed
             
             membershipRepository.save(membership);
-            log.info("Membership updated successfully: user {} in org {} from role {} to {}", 
+            log.info("Membership updated successfully: user {} in org {} from role {} to {}",
                 clerkUserId, clerkOrgId, oldRole != null ? oldRole.getName() : "null", roleName);
+            gatewayCacheInvalidator.invalidateUser(clerkUserId);
             
             // Store event for audit
-            storeOrganizationEvent(clerkOrgId, clerkUserId, "organizationMembership.updated", eventData);
+            storeOrganizationEvent(clerkOrgId, clerkUserId, "organizationMembership.updated", event);
             log.info("Organization membership updated event stored in audit table");
             
+        } catch (WebhookDependencyMissingException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("Error processing organizationMembership.updated event. Event payload: {}", 
-                eventData != null ? eventData.toPrettyString() : "null", e);
+            log.error("Error processing organizationMembership.updated event. Event payload: {}", event.payload(), e);
             throw new RuntimeException("Failed to process organizationMembership.updated event: " + e.getMessage(), e);
         }
     }
     
     @Transactional
-    public void processOrganizationMembershipDeleted(JsonNode eventData) {
+    public void processOrganizationMembershipDeleted(ClerkMembershipEvent event) {
         try {
-            JsonNode data = eventData.get("data");
-            String clerkMembershipId = data.get("id").asText();
-            String clerkOrgId = data.has("organization_id") ? data.get("organization_id").asText() : null;
-            String clerkUserId = data.has("public_user_data") && data.get("public_user_data").has("user_id")
-                ? data.get("public_user_data").get("user_id").asText()
-                : null;
+            String clerkMembershipId = event.membershipId();
+            String clerkOrgId = event.organizationId();
+            String clerkUserId = event.userId();
+            if (clerkMembershipId == null) {
+                throw new RuntimeException("organizationMembership.deleted event missing 'data.id' field");
+            }
             
             Optional<Membership> membershipOpt = membershipRepository.findByClerkMembershipId(clerkMembershipId);
             if (membershipOpt.isPresent()) {
-                membershipRepository.delete(membershipOpt.get());
+                Membership deleted = membershipOpt.get();
+                membershipRepository.delete(deleted);
                 log.info("Membership deleted: {}", clerkMembershipId);
+                gatewayCacheInvalidator.invalidateUser(
+                    clerkUserId != null ? clerkUserId : deleted.getUser().getClerkUserId());
             } else {
                 log.warn("Membership not found for deletion: {}", clerkMembershipId);
             }
             
             // Store event for audit
-            storeOrganizationEvent(clerkOrgId, clerkUserId, "organizationMembership.deleted", eventData);
+            storeOrganizationEvent(clerkOrgId, clerkUserId, "organizationMembership.deleted", event);
             
         } catch (Exception e) {
             log.error("Error processing organizationMembership.deleted event", e);
@@ -493,63 +451,100 @@ public class WebhookService {
         }
     }
     
-    private void storeUserEvent(String clerkUserId, String eventType, JsonNode eventData) {
+    /**
+     * Process session.revoked / session.ended / session.removed webhook events
+     * Marks the session revoked in auth_sessions (jwt_id = Clerk session ID, the token's sid claim);
+     * the API Gateway picks it up on its next revocation refresh and rejects the session's tokens
+     */
+    @Transactional
+    public void processSessionEnded(ClerkSessionEvent event) {
         try {
-            String eventDataJson = objectMapper.writeValueAsString(eventData);
+            String eventType = event.type();
+            if (event.sessionId() == null) {
+                log.error("{} event missing 'data.id' field", eventType);
+                throw new RuntimeException(eventType + " event missing 'data.id' field");
+            }
             
-            // Extract clerkUserId from event data if not provided
-            if (clerkUserId == null || clerkUserId.isEmpty()) {
-                JsonNode data = eventData.has("data") ? eventData.get("data") : null;
-                if (data != null) {
-                    if (data.has("id")) {
-                        clerkUserId = data.get("id").asText();
-                    } else if (data.has("user_id")) {
-                        clerkUserId = data.get("user_id").asText();
-                    }
+            String clerkSessionId = event.sessionId();
+            String clerkUserId = event.userId();
+            // expire_at is epoch millis; tokens of the session cannot outlive it
+            LocalDateTime expiresAt = event.expireAt() != null
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(event.expireAt()), ZoneId.systemDefault())
+                : null;
+            
+            log.info("Processing {} for session: {} (user: {})", eventType, clerkSessionId, clerkUserId);
+            
+            Optional<AuthSession> sessionOpt = authSessionRepository.findFirstByJwtId(clerkSessionId);
+            AuthSession session;
+            if (sessionOpt.isPresent()) {
+                session = sessionOpt.get();
+                if (session.getRevokedAt() != null) {
+                    log.debug("Session {} already revoked at {}", clerkSessionId, session.getRevokedAt());
+                    return;
                 }
-                if (clerkUserId != null) {
-                    log.debug("Extracted clerkUserId from event data: {}", clerkUserId);
+            } else {
+                Optional<User> userOpt = clerkUserId != null ? userRepository.findByClerkUserId(clerkUserId) : Optional.empty();
+                if (userOpt.isEmpty()) {
+                    // Still revoke: the gateway only needs the session ID, and its tokens must stop working now
+                    log.warn("User not found for {} (session: {}, user: {}). Recording revocation without user.", eventType, clerkSessionId, clerkUserId);
                 }
+                session = AuthSession.builder()
+                    .user(userOpt.orElse(null))
+                    .jwtId(clerkSessionId)
+                    .lastAccessedAt(LocalDateTime.now())
+                    .build();
             }
             
-            // Extract event ID from multiple possible locations
-            String clerkEventId = null;
-            // 1. Check svix_id (added from header - most reliable)
-            if (eventData.has("svix_id")) {
-                clerkEventId = eventData.get("svix_id").asText();
-                log.debug("Using svix_id as event ID: {}", clerkEventId);
-            }
-            // 2. Check root level id (event ID)
-            else if (eventData.has("id")) {
-                clerkEventId = eventData.get("id").asText();
-            }
-            // 3. Check for event_id field
-            else if (eventData.has("event_id")) {
-                clerkEventId = eventData.get("event_id").asText();
+            if (expiresAt != null) {
+                session.setExpiresAt(expiresAt);
             }
-            // 4. Check instance_id (fallback, though not ideal)
-            else if (eventData.has("instance_id")) {
-                // instance_id is not unique per event, but better than null
-                String instanceId = eventData.get("instance_id").asText();
-                String timestamp = eventData.has("timestamp") ? eventData.get("timestamp").asText() : String.valueOf(System.currentTimeMillis());
-                clerkEventId = instanceId + "_" + timestamp;
-                log.debug("Using instance_id + timestamp as event ID: {}", clerkEventId);
+            session.setRevokedAt(LocalDateTime.now());
+            authSessionRepository.save(session);
+            log.info("Session {} revoked for user {}", clerkSessionId, clerkUserId);
+            
+            storeUserEvent(clerkUserId, eventType, event);
+            
+        } catch (Exception e) {
+            log.error("Error processing session event. Event payload: {}", event.payload(), e);
+            throw new RuntimeException("Failed to process session event: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Role from the membership payload, USER when it has none
+     */
+    private static String roleOrDefault(ClerkMembershipEvent event) {
+        if (event.role() != null) {
+            log.debug("Found role in membership payload: {}", event.role());
+            return event.role();
+        }
+        log.warn("Role not found in webhook payload, defaulting to USER. Payload: {}", event.payload());
+        return "USER";
+    }
+    
+    private void storeUserEvent(String clerkUserId, String eventType, ClerkEvent event) {
+        try {
+            // clerk_user_id is required; same placeholder the informational handlers use
+            if (clerkUserId == null || clerkUserId.isEmpty()) {
+                clerkUserId = "unknown";
             }
             
             // Check for duplicate events
+            String clerkEventId = event.eventId();
             if (clerkEventId != null && userEventRepository.existsByClerkEventId(clerkEventId)) {
                 log.debug("Duplicate user event skipped: {}", clerkEventId);
                 return;
             }
             
-            UserEvent event = UserEvent.builder()
+            // The body exactly as Clerk sent it - no re-serialization
+            UserEvent userEvent = UserEvent.builder()
                 .clerkUserId(clerkUserId)
                 .eventType(eventType)
-                .eventData(eventDataJson)
+                .eventData(event.payload())
                 .clerkEventId(clerkEventId)
                 .build();
             
-            userEventRepository.save(event);
+            userEventRepository.save(userEvent);
             log.debug("User event stored - type: {}, userId: {}, eventId: {}", eventType, clerkUserId, clerkEventId);
         } catch (Exception e) {
             log.error("Error storing user event", e);
@@ -557,120 +552,29 @@ public class WebhookService {
         }
     }
     
-    private void storeOrganizationEvent(String clerkOrgId, String clerkUserId, String eventType, JsonNode eventData) {
+    private void storeOrganizationEvent(String clerkOrgId, String clerkUserId, String eventType, ClerkEvent event) {
         try {
-            String eventDataJson = objectMapper.writeValueAsString(eventData);
-            
-            // Extract clerkOrgId from event data if not provided
-            if (clerkOrgId == null || clerkOrgId.isEmpty()) {
-                JsonNode data = eventData.has("data") ? eventData.get("data") : null;
-                if (data != null) {
-                    if (data.has("id")) {
-                        clerkOrgId = data.get("id").asText();
-                    } else if (data.has("organization_id")) {
-                        clerkOrgId = data.get("organization_id").asText();
-                    } else if (data.has("organization") && data.get("organization").has("id")) {
-                        clerkOrgId = data.get("organization").get("id").asText();
-                    }
-                }
-                if (clerkOrgId != null) {
-                    log.debug("Extracted clerkOrgId from event data: {}", clerkOrgId);
-                }
-            }
-            
-            // Extract clerkUserId from event data if not provided
             if (clerkUserId == null || clerkUserId.isEmpty()) {
-                JsonNode data = eventData.has("data") ? eventData.get("data") : null;
-                
-                // Try multiple locations for user_id
-                if (data != null) {
-                    // 1. Check public_user_data.user_id (common in membership events)
-                    if (data.has("public_user_data") && data.get("public_user_data").has("user_id")) {
-                        clerkUserId = data.get("public_user_data").get("user_id").asText();
-                    }
-                    // 2. Check user_id directly
-                    else if (data.has("user_id")) {
-                        clerkUserId = data.get("user_id").asText();
-                    }
-                    // 3. Check user.id
-                    else if (data.has("user") && data.get("user").has("id")) {
-                        clerkUserId = data.get("user").get("id").asText();
-                    }
-                    // 4. Check created_by or updated_by fields
-                    else if (data.has("created_by")) {
-                        clerkUserId = data.get("created_by").asText();
-                    }
-                    else if (data.has("updated_by")) {
-                        clerkUserId = data.get("updated_by").asText();
-                    }
-                    // 5. Check public_metadata for user_id
-                    else if (data.has("public_metadata") && data.get("public_metadata").has("user_id")) {
-                        clerkUserId = data.get("public_metadata").get("user_id").asText();
-                    }
-                    // 6. Check private_metadata for user_id
-                    else if (data.has("private_metadata") && data.get("private_metadata").has("user_id")) {
-                        clerkUserId = data.get("private_metadata").get("user_id").asText();
-                    }
-                }
-                
-                // Also check root level (outside data object)
-                if ((clerkUserId == null || clerkUserId.isEmpty()) && eventData.has("user_id")) {
-                    clerkUserId = eventData.get("user_id").asText();
-                }
-                else if ((clerkUserId == null || clerkUserId.isEmpty()) && eventData.has("created_by")) {
-                    clerkUserId = eventData.get("created_by").asText();
-                }
-                else if ((clerkUserId == null || clerkUserId.isEmpty()) && eventData.has("updated_by")) {
-                    clerkUserId = eventData.get("updated_by").asText();
-                }
-                
-                if (clerkUserId != null && !clerkUserId.isEmpty()) {
-                    log.debug("Extracted clerkUserId from event data: {}", clerkUserId);
-                } else {
-                    log.debug("No clerkUserId found in event data for event type: {}", eventType);
-                }
-            }
-            
-            // Extract event ID from multiple possible locations (for deduplication)
-            String clerkEventId = null;
-            // 1. Check svix_id (added from header - most reliable)
-            if (eventData.has("svix_id")) {
-                clerkEventId = eventData.get("svix_id").asText();
-                log.debug("Using svix_id as event ID: {}", clerkEventId);
+                log.debug("No clerkUserId found in event data for event type: {}", eventType);
             }
-            // 2. Check root level id (event ID)
-            else if (eventData.has("id")) {
-                clerkEventId = eventData.get("id").asText();
-            }
-            // 3. Check for event_id field
-            else if (eventData.has("event_id")) {
-                clerkEventId = eventData.get("event_id").asText();
-            }
-            // 4. Check instance_id + timestamp (fallback, though not ideal)
-            else if (eventData.has("instance_id")) {
-                // instance_id is not unique per event, but better than null
-                String instanceId = eventData.get("instance_id").asText();
-                String timestamp = eventData.has("timestamp") ? eventData.get("timestamp").asText() : String.valueOf(System.currentTimeMillis());
-                clerkEventId = instanceId + "_" + timestamp;
-                log.debug("Using instance_id + timestamp as event ID: {}", clerkEventId);
-            }
-            // Note: We don't use data.id as that's usually the resource ID (org/user ID), not the event ID
             
             // Check for duplicate events
+            String clerkEventId = event.eventId();
             if (clerkEventId != null && organizationEventRepository.existsByClerkEventId(clerkEventId)) {
                 log.debug("Duplicate organization event skipped: {}", clerkEventId);
                 return;
             }
             
-            OrganizationEvent event = OrganizationEvent.builder()
+            // The body exactly as Clerk sent it - no re-serialization
+            OrganizationEvent organizationEvent = OrganizationEvent.builder()
                 .clerkOrgId(clerkOrgId)
                 .clerkUserId(clerkUserId)
                 .eventType(eventType)
-                .eventData(eventDataJson)
+                .eventData(event.payload())
                 .clerkEventId(clerkEventId)
                 .build();
             
-            organizationEventRepository.save(event);
+            organizationEventRepository.save(organizationEvent);
             log.debug("Organization event stored - type: {}, orgId: {}, userId: {}", eventType, clerkOrgId, clerkUserId);
         } catch (Exception e) {
             log.error("Error storing organization event", e);
@@ -683,40 +587,26 @@ public class WebhookService {
      * Stores email creation events in user_events table for audit
      */
     @Transactional
-    public void processEmailCreated(JsonNode eventData) {
+    public void processEmailCreated(ClerkActivityEvent event) {
         try {
-            log.info("Processing email.created event. Full payload: {}", eventData.toPrettyString());
-            
-            JsonNode data = eventData.get("data");
-            if (data == null) {
-                log.error("email.created event missing 'data' field");
-                return;
-            }
-            
-            // Extract user ID from email data
-            String clerkUserId = null;
-            if (data.has("user_id")) {
-                clerkUserId = data.get("user_id").asText();
-            } else if (data.has("user") && data.get("user").has("id")) {
-                clerkUserId = data.get("user").get("id").asText();
-            }
+            log.info("Processing email.created event. Full payload: {}", event.payload());
             
+            String clerkUserId = event.userId();
             if (clerkUserId == null) {
                 log.warn("email.created event missing user_id. Event stored with null clerk_user_id");
                 // Still store the event for audit
-                storeUserEvent("unknown", "email.created", eventData);
+                storeUserEvent("unknown", "email.created", event);
                 return;
             }
             
             log.info("Processing email.created for user: {}", clerkUserId);
             
             // Store event for audit (email.created is informational, no DB updates needed)
-            storeUserEvent(clerkUserId, "email.created", eventData);
+            storeUserEvent(clerkUserId, "email.created", event);
             log.info("Email created event stored in audit table for user: {}", clerkUserId);
             
         } catch (Exception e) {
-            log.error("Error processing email.created event. Event payload: {}", 
-                eventData != null ? eventData.toPrettyString() : "null", e);
+            log.error("Error processing email.created event. Event payload: {}", event.payload(), e);
             // Don't throw - email.created is informational, shouldn't break webhook processing
         }
     }
@@ -726,39 +616,13 @@ public class WebhookService {
      * Note: Roles in our database are static (ADMIN, USER), but we store Clerk role events for audit
      */
     @Transactional
-    public void processRoleCreated(JsonNode eventData) {
+    public void processRoleCreated(ClerkRoleEvent event) {
         try {
-            log.info("Processing role.created event. Full payload: {}", eventData.toPrettyString());
+            log.info("Processing role.created event. Full payload: {}", event.payload());
             
-            JsonNode data = eventData.get("data");
-            if (data == null) {
-                log.error("role.created event missing 'data' field. Event structure: {}", eventData.toPrettyString());
-                return;
-            }
-            
-            // Extract role information
-            String roleName = null;
-            if (data.has("name")) {
-                roleName = data.get("name").asText();
-            } else if (data.has("key")) {
-                roleName = data.get("key").asText();
-            }
-            
-            // Extract user ID and org ID from role data
-            String clerkUserId = null;
-            String clerkOrgId = null;
-            
-            if (data.has("user_id")) {
-                clerkUserId = data.get("user_id").asText();
-            } else if (data.has("user") && data.get("user").has("id")) {
-                clerkUserId = data.get("user").get("id").asText();
-            }
-            
-            if (data.has("organization_id")) {
-                clerkOrgId = data.get("organization_id").asText();
-            } else if (data.has("organization") && data.get("organization").has("id")) {
-                clerkOrgId = data.get("organization").get("id").asText();
-            }
+            String roleName = event.name();
+            String clerkUserId = event.userId();
+            String clerkOrgId = event.organizationId();
             
             log.info("Processing role.created - role: {}, user: {}, org: {}", roleName, clerkUserId, clerkOrgId);
             
@@ -780,19 +644,18 @@ public class WebhookService {
             
             // Store in appropriate audit table
             if (clerkOrgId != null) {
-                storeOrganizationEvent(clerkOrgId, clerkUserId, "role.created", eventData);
+                storeOrganizationEvent(clerkOrgId, clerkUserId, "role.created", event);
                 log.info("Role created event stored in organization_events table");
             } else if (clerkUserId != null) {
-                storeUserEvent(clerkUserId, "role.created", eventData);
+                storeUserEvent(clerkUserId, "role.created", event);
                 log.info("Role created event stored in user_events table");
             } else {
                 log.warn("Role created event missing both user_id and organization_id. Storing with unknown user");
-                storeUserEvent("unknown", "role.created", eventData);
+                storeUserEvent("unknown", "role.created", event);
             }
             
         } catch (Exception e) {
-            log.error("Error processing role.created event. Event payload: {}", 
-                eventData != null ? eventData.toPrettyString() : "null", e);
+            log.error("Error processing role.created event. Event payload: {}", event.payload(), e);
             // Don't throw - role events are informational, shouldn't break webhook processing
         }
     }
@@ -802,43 +665,13 @@ public class WebhookService {
      * Updates role information if role exists in database
      */
     @Transactional
-    public void processRoleUpdated(JsonNode eventData) {
+    public void processRoleUpdated(ClerkRoleEvent event) {
         try {
-            log.info("Processing role.updated event. Full payload: {}", eventData.toPrettyString());
+            log.info("Processing role.updated event. Full payload: {}", event.payload());
             
-            JsonNode data = eventData.get("data");
-            if (data == null) {
-                log.error("role.updated event missing 'data' field. Event structure: {}", eventData.toPrettyString());
-                return;
-            }
-            
-            // Extract role information
-            String roleName = null;
-            if (data.has("name")) {
-                roleName = data.get("name").asText();
-            } else if (data.has("key")) {
-                roleName = data.get("key").asText();
-            } else if (data.has("id")) {
-                // If only ID is present, try to find role by ID
-                String roleId = data.get("id").asText();
-                log.debug("Role updated event has ID but no name: {}", roleId);
-            }
-            
-            // Extract user ID and org ID from role data
-            String clerkUserId = null;
-            String clerkOrgId = null;
-            
-            if (data.has("user_id")) {
-                clerkUserId = data.get("user_id").asText();
-            } else if (data.has("user") && data.get("user").has("id")) {
-                clerkUserId = data.get("user").get("id").asText();
-            }
-            
-            if (data.has("organization_id")) {
-                clerkOrgId = data.get("organization_id").asText();
-            } else if (data.has("organization") && data.get("organization").has("id")) {
-                clerkOrgId = data.get("organization").get("id").asText();
-            }
+            String roleName = event.name();
+            String clerkUserId = event.userId();
+            String clerkOrgId = event.organizationId();
             
             log.info("Processing role.updated - role: {}, user: {}, org: {}", roleName, clerkUserId, clerkOrgId);
             
@@ -847,33 +680,33 @@ public class WebhookService {
                 Optional<Role> roleOpt = roleRepository.findByName(roleName.toUpperCase());
                 if (roleOpt.isPresent()) {
                     Role role = roleOpt.get();
-                    if (data.has("description")) {
-                        role.setDescription(data.get("description").asText());
+                    if (event.description() != null) {
+                        role.setDescription(event.description());
                         roleRepository.save(role);
                         log.info("Role updated successfully: {}", roleName.toUpperCase());
+                        gatewayCacheInvalidator.invalidateAll();
                     }
                 } else {
                     log.debug("Role not found in database for update: {}. Creating new role.", roleName.toUpperCase());
                     // Create role if it doesn't exist
-                    processRoleCreated(eventData);
+                    processRoleCreated(event);
                 }
             }
             
             // Store in appropriate audit table
             if (clerkOrgId != null) {
-                storeOrganizationEvent(clerkOrgId, clerkUserId, "role.updated", eventData);
+                storeOrganizationEvent(clerkOrgId, clerkUserId, "role.updated", event);
                 log.info("Role updated event stored in organization_events table");
             } else if (clerkUserId != null) {
-                storeUserEvent(clerkUserId, "role.updated", eventData);
+                storeUserEvent(clerkUserId, "role.updated", event);
                 log.info("Role updated event stored in user_events table");
             } else {
                 log.warn("Role updated event missing both user_id and organization_id. Storing with unknown user");
-                storeUserEvent("unknown", "role.updated", eventData);
+                storeUserEvent("unknown", "role.updated", event);
             }
             
         } catch (Exception e) {
-            log.error("Error processing role.updated event. Event payload: {}", 
-                eventData != null ? eventData.toPrettyString() : "null", e);
+            log.error("Error processing role.updated event. Event payload: {}", event.payload(), e);
             // Don't throw - role events are informational, shouldn't break webhook processing
         }
     }
@@ -884,39 +717,13 @@ public class WebhookService {
      * but we store the event for audit purposes
      */
     @Transactional
-    public void processRoleDeleted(JsonNode eventData) {
+    public void processRoleDeleted(ClerkRoleEvent event) {
         try {
-            log.info("Processing role.deleted event. Full payload: {}", eventData.toPrettyString());
+            log.info("Processing role.deleted event. Full payload: {}", event.payload());
             
-            JsonNode data = eventData.get("data");
-            if (data == null) {
-                log.error("role.deleted event missing 'data' field. Event structure: {}", eventData.toPrettyString());
-                return;
-            }
-            
-            // Extract role information
-            String roleName = null;
-            if (data.has("name")) {
-                roleName = data.get("name").asText();
-            } else if (data.has("key")) {
-                roleName = data.get("key").asText();
-            }
-            
-            // Extract user ID and org ID from role data
-            String clerkUserId = null;
-            String clerkOrgId = null;
-            
-            if (data.has("user_id")) {
-                clerkUserId = data.get("user_id").asText();
-            } else if (data.has("user") && data.get("user").has("id")) {
-                clerkUserId = data.get("user").get("id").asText();
-            }
-            
-            if (data.has("organization_id")) {
-                clerkOrgId = data.get("organization_id").asText();
-            } else if (data.has("organization") && data.get("organization").has("id")) {
-                clerkOrgId = data.get("organization").get("id").asText();
-            }
+            String roleName = event.name();
+            String clerkUserId = event.userId();
+            String clerkOrgId = event.organizationId();
             
             log.info("Processing role.deleted - role: {}, user: {}, org: {}", roleName, clerkUserId, clerkOrgId);
             
@@ -930,6 +737,7 @@ public class WebhookService {
                     if (!"ADMIN".equals(role.getName()) && !"USER".equals(role.getName())) {
                         roleRepository.delete(role);
                         log.info("Role deleted from database: {}", roleName.toUpperCase());
+                        gatewayCacheInvalidator.invalidateAll();
                     } else {
                         log.info("Skipping deletion of static role: {}", roleName.toUpperCase());
                     }
@@ -940,19 +748,18 @@ public class WebhookService {
             
             // Store in appropriate audit table
             if (clerkOrgId != null) {
-                storeOrganizationEvent(clerkOrgId, clerkUserId, "role.deleted", eventData);
+                storeOrganizationEvent(clerkOrgId, clerkUserId, "role.deleted", event);
                 log.info("Role deleted event stored in organization_events table");
             } else if (clerkUserId != null) {
-                storeUserEvent(clerkUserId, "role.deleted", eventData);
+                storeUserEvent(clerkUserId, "role.deleted", event);
                 log.info("Role deleted event stored in user_events table");
             } else {
                 log.warn("Role deleted event missing both user_id and organization_id. Storing with unknown user");
-                storeUserEvent("unknown", "role.deleted", eventData);
+                storeUserEvent("unknown", "role.deleted", event);
             }
             
         } catch (Exception e) {
-            log.error("Error processing role.deleted event. Event payload: {}", 
-                eventData != null ? eventData.toPrettyString() : "null", e);
+            log.error("Error processing role.deleted event. Event payload: {}", event.payload(), e);
             // Don't throw - role events are informational, shouldn't break webhook processing
         }
     }
@@ -962,42 +769,26 @@ public class WebhookService {
      * Stores payment attempt events in user_events table for audit
      */
     @Transactional
-    public void processPaymentAttempt(JsonNode eventData) {
+    public void processPaymentAttempt(ClerkActivityEvent event) {
         try {
-            log.info("Processing payment attempt event. Full payload: {}", eventData.toPrettyString());
-            
-            JsonNode data = eventData.get("data");
-            if (data == null) {
-                log.error("payment.attempt event missing 'data' field");
-                return;
-            }
-            
-            // Extract user ID from payment attempt data
-            String clerkUserId = null;
-            if (data.has("user_id")) {
-                clerkUserId = data.get("user_id").asText();
-            } else if (data.has("user") && data.get("user").has("id")) {
-                clerkUserId = data.get("user").get("id").asText();
-            } else if (data.has("metadata") && data.get("metadata").has("user_id")) {
-                clerkUserId = data.get("metadata").get("user_id").asText();
-            }
+            log.info("Processing payment attempt event. Full payload: {}", event.payload());
             
+            String clerkUserId = event.userId();
             if (clerkUserId == null) {
                 log.warn("payment.attempt event missing user_id. Event stored with null clerk_user_id");
                 // Still store the event for audit
-                storeUserEvent("unknown", "payment.attempt", eventData);
+                storeUserEvent("unknown", "payment.attempt", event);
                 return;
             }
             
             log.info("Processing payment attempt for user: {}", clerkUserId);
             
             // Store event for audit (payment.attempt is informational, actual payment data is in payment_order/payment_transaction tables)
-            storeUserEvent(clerkUserId, "payment.attempt", eventData);
+            storeUserEvent(clerkUserId, "payment.attempt", event);
             log.info("Payment attempt event stored in audit table for user: {}", clerkUserId);
             
         } catch (Exception e) {
-            log.error("Error processing payment.attempt event. Event payload: {}", 
-                eventData != null ? eventData.toPrettyString() : "null", e);
+            log.error("Error processing payment.attempt event. Event payload: {}", event.payload(), e);
             // Don't throw - payment.attempt is informational, shouldn't break webhook processing
         }
     }
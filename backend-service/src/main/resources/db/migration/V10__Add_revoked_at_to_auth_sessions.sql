@@ -0,0 +1,12 @@
+-- ============================================
+-- V10: Session revocation
+-- ============================================
+-- Revoked sessions are read incrementally by the API Gateway (GET /internal/revocations?since=)
+-- and checked against the token's jti/sid claims on every request
+
+ALTER TABLE auth_sessions ADD COLUMN revoked_at TIMESTAMP;
+
+-- Only revoked rows are ever scanned by revoked_at, so the index stays small
+CREATE INDEX idx_auth_sessions_revoked_at ON auth_sessions(revoked_at) WHERE revoked_at IS NOT NULL;
+
+COMMENT ON COLUMN auth_sessions.revoked_at IS 'When the session was revoked (NULL while active); tokens carrying jwt_id are rejected by the gateway';
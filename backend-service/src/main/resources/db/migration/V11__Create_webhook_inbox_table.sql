@@ -0,0 +1,29 @@
+-- ============================================
+-- V11: Create webhook_inbox table
+-- ============================================
+-- Durable inbox for Clerk webhooks (clerk.webhook.inbox.enabled)
+-- The controller stores the verified raw event with one insert and acknowledges at once;
+-- workers claim rows with FOR UPDATE SKIP LOCKED and run the WebhookService handlers.
+-- Processed rows are deleted (the audit trail is user_events / organization_events);
+-- rows that keep failing stay behind with status FAILED.
+
+CREATE TABLE webhook_inbox (
+    id BIGSERIAL PRIMARY KEY,
+    svix_id VARCHAR(255),
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT
+);
+
+-- Svix redeliveries carry the same svix-id and are dropped on insert
+CREATE UNIQUE INDEX uk_webhook_inbox_svix_id ON webhook_inbox(svix_id);
+-- Claim scan: pending rows that are due, oldest first
+CREATE INDEX idx_webhook_inbox_pending ON webhook_inbox(available_at, id) WHERE status = 'PENDING';
+
+COMMENT ON TABLE webhook_inbox IS 'Verified Clerk webhooks waiting for asynchronous processing';
+COMMENT ON COLUMN webhook_inbox.available_at IS 'Earliest time a worker may claim the row (lease expiry or retry backoff)';
+COMMENT ON COLUMN webhook_inbox.attempts IS 'Number of times a worker has claimed the row';
@@ -0,0 +1,12 @@
+-- ============================================
+-- V12: Parked inbox events
+-- ============================================
+-- An inbox event that refers to a user or organization that is not synced yet is parked:
+-- waiting_for holds the missing Clerk ID and available_at is pushed out to the fallback
+-- sweep. Processing the matching user.created / organization.created makes it due at once.
+
+ALTER TABLE webhook_inbox ADD COLUMN waiting_for VARCHAR(255);
+
+CREATE INDEX idx_webhook_inbox_waiting_for ON webhook_inbox(waiting_for) WHERE waiting_for IS NOT NULL;
+
+COMMENT ON COLUMN webhook_inbox.waiting_for IS 'Clerk user/organization ID a parked event is waiting for (NULL when not parked)';
@@ -0,0 +1,9 @@
+-- ============================================
+-- V13: Revocation paging on (revoked_at, id)
+-- ============================================
+-- The gateway's revocation refresh pages through revoked sessions in (revoked_at, id) order,
+-- continuing behind the last session of each page, so the index covers both columns.
+
+DROP INDEX IF EXISTS idx_auth_sessions_revoked_at;
+
+CREATE INDEX idx_auth_sessions_revoked_at_id ON auth_sessions(revoked_at, id) WHERE revoked_at IS NOT NULL;
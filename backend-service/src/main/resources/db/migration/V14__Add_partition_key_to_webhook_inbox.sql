@@ -0,0 +1,14 @@
+-- ============================================
+-- V14: Per-entity ordering of inbox events
+-- ============================================
+-- partition_key is the organization (or, without one, the user) an event belongs to. A pending
+-- row is only claimed once no earlier pending row has the same key, so an event that is retried
+-- or parked is not overtaken by later events for the same organization or user.
+-- Rows stored before this migration have no key and are claimed as before.
+
+ALTER TABLE webhook_inbox ADD COLUMN partition_key VARCHAR(255);
+
+-- "Earlier pending row with the same key" lookup done for every claim candidate
+CREATE INDEX idx_webhook_inbox_partition_key ON webhook_inbox(partition_key, id) WHERE status = 'PENDING';
+
+COMMENT ON COLUMN webhook_inbox.partition_key IS 'Clerk organization/user ID whose events are processed in order (NULL = unordered)';
@@ -0,0 +1,9 @@
+-- ============================================
+-- V15: Revocation-only auth sessions
+-- ============================================
+-- session.ended / session.revoked can arrive before user.created. The revocation is recorded
+-- anyway (the gateway only needs jwt_id), so user_id may be NULL for those rows.
+
+ALTER TABLE auth_sessions ALTER COLUMN user_id DROP NOT NULL;
+
+COMMENT ON COLUMN auth_sessions.user_id IS 'Session owner; NULL for revocations of sessions whose user was not synced yet';
@@ -0,0 +1,93 @@
+package com.demo.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Seeds users, organizations and memberships matching the synthetic tenants
+ *
+ * Expects the backend's Flyway migrations to have run (start the backend once first).
+ * Inserts are idempotent, so repeated runs with the same sizes only top up missing rows.
+ */
+public final class DatabaseSeeder {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_ORG =
+        "INSERT INTO organizations (clerk_org_id, name, slug) VALUES (?, ?, ?) ON CONFLICT (clerk_org_id) DO NOTHING";
+
+    private static final String INSERT_USER =
+        "INSERT INTO users (clerk_user_id, email, first_name, last_name) VALUES (?, ?, ?, ?) "
+            + "ON CONFLICT (clerk_user_id) DO NOTHING";
+
+    private static final String INSERT_MEMBERSHIP =
+        "INSERT INTO memberships (user_id, organization_id, role_id, clerk_membership_id) "
+            + "SELECT u.id, o.id, r.id, ? FROM users u, organizations o, roles r "
+            + "WHERE u.clerk_user_id = ? AND o.clerk_org_id = ? AND r.name = ? "
+            + "ON CONFLICT DO NOTHING";
+
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+
+    public DatabaseSeeder(String jdbcUrl, String user, String password) {
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+    }
+
+    public void seed(SyntheticTenants tenants) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+            connection.setAutoCommit(false);
+
+            List<SyntheticTenants.Organization> orgs = tenants.organizations();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ORG)) {
+                for (int i = 0; i < orgs.size(); i++) {
+                    SyntheticTenants.Organization org = orgs.get(i);
+                    statement.setString(1, org.clerkOrgId());
+                    statement.setString(2, org.name());
+                    statement.setString(3, org.slug());
+                    addToBatch(statement, i);
+                }
+                statement.executeBatch();
+            }
+
+            List<SyntheticTenants.User> users = tenants.users();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_USER)) {
+                for (int i = 0; i < users.size(); i++) {
+                    SyntheticTenants.User u = users.get(i);
+                    statement.setString(1, u.clerkUserId());
+                    statement.setString(2, u.email());
+                    statement.setString(3, u.firstName());
+                    statement.setString(4, u.lastName());
+                    addToBatch(statement, i);
+                }
+                statement.executeBatch();
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_MEMBERSHIP)) {
+                for (int i = 0; i < users.size(); i++) {
+                    SyntheticTenants.User u = users.get(i);
+                    statement.setString(1, "orgmem_lt_" + u.clerkUserId().substring("user_lt_".length()));
+                    statement.setString(2, u.clerkUserId());
+                    statement.setString(3, u.org().clerkOrgId());
+                    statement.setString(4, u.admin() ? "ADMIN" : "USER");
+                    addToBatch(statement, i);
+                }
+                statement.executeBatch();
+            }
+
+            connection.commit();
+        }
+    }
+
+    private static void addToBatch(PreparedStatement statement, int index) throws SQLException {
+        statement.addBatch();
+        if ((index + 1) % BATCH_SIZE == 0) {
+            statement.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.demo.loadtest;
+
+/**
+ * Endpoints the load test can drive through the gateway, keyed by their name in --mix
+ */
+public enum Endpoint {
+
+    ME("me", "GET /api/me"),
+    USERS("users", "GET /api/users"),
+    ORGANIZATIONS("organizations", "GET /api/organizations"),
+    ORGANIZATION("organization", "GET /api/organizations/clerk/{orgId}"),
+    MEMBERSHIPS("memberships", "GET /api/organizations/memberships"),
+    WEBHOOK("webhook", "POST /api/webhooks/clerk");
+
+    private final String key;
+    private final String description;
+
+    Endpoint(String key, String description) {
+        this.key = key;
+        this.description = description;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    public static Endpoint fromKey(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in mix: " + key);
+    }
+}
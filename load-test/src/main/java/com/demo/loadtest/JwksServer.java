@@ -0,0 +1,35 @@
+package com.demo.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Local stand-in for Clerk's JWKS endpoint (GET /v1/jwks)
+ */
+public final class JwksServer implements AutoCloseable {
+
+    private final HttpServer server;
+
+    public JwksServer(int port, String jwksJson) throws IOException {
+        byte[] body = jwksJson.getBytes(StandardCharsets.UTF_8);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/v1/jwks", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Cache-Control", "public, max-age=300");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,116 @@
+package com.demo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency distributions (HdrHistogram, microseconds) and status counts
+ */
+public final class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+
+    public LatencyReport(List<Endpoint> endpoints) {
+        for (Endpoint endpoint : endpoints) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    public void recordResponse(Endpoint endpoint, int status, long latencyNanos) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        endpointStats.histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (status >= 200 && status < 300) {
+            endpointStats.success.increment();
+        } else {
+            endpointStats.statusCounts[Math.min(status / 100, 5)].increment();
+        }
+    }
+
+    public void recordError(Endpoint endpoint) {
+        stats.get(endpoint).errors.increment();
+    }
+
+    public void print(PrintStream out, Duration elapsed) {
+        out.printf("%-40s %9s %9s %8s %6s %6s %7s %9s %9s %9s %9s %9s%n",
+            "Endpoint", "Requests", "Req/s", "2xx", "4xx", "5xx", "Errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Row row : rows(elapsed)) {
+            out.printf("%-40s %9d %9.1f %8d %6d %6d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                row.name, row.requests, row.throughput, row.success, row.clientErrors, row.serverErrors, row.errors,
+                row.p50, row.p90, row.p99, row.p999, row.max);
+        }
+    }
+
+    public void writeCsv(Path file, Duration elapsed) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("endpoint,requests,req_per_sec,status_2xx,status_4xx,status_5xx,errors,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+        for (Row row : rows(elapsed)) {
+            lines.add(String.format("%s,%d,%.1f,%d,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f",
+                row.name, row.requests, row.throughput, row.success, row.clientErrors, row.serverErrors, row.errors,
+                row.p50, row.p90, row.p99, row.p999, row.max));
+        }
+        Files.write(file, lines);
+    }
+
+    private List<Row> rows(Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        List<Row> rows = new ArrayList<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        EndpointStats totals = new EndpointStats();
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            Histogram snapshot = endpointStats.histogram.copy();
+            total.add(snapshot);
+            totals.add(endpointStats);
+            rows.add(Row.of(entry.getKey().description(), snapshot, endpointStats, seconds));
+        }
+        rows.add(Row.of("TOTAL", total, totals, seconds));
+        return rows;
+    }
+
+    private static final class EndpointStats {
+        final ConcurrentHistogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder success = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder[] statusCounts = {new LongAdder(), new LongAdder(), new LongAdder(),
+            new LongAdder(), new LongAdder(), new LongAdder()};
+
+        void add(EndpointStats other) {
+            success.add(other.success.sum());
+            errors.add(other.errors.sum());
+            for (int i = 0; i < statusCounts.length; i++) {
+                statusCounts[i].add(other.statusCounts[i].sum());
+            }
+        }
+    }
+
+    private record Row(String name, long requests, double throughput, long success, long clientErrors,
+                       long serverErrors, long errors, double p50, double p90, double p99, double p999, double max) {
+
+        static Row of(String name, Histogram histogram, EndpointStats stats, double seconds) {
+            long requests = histogram.getTotalCount() + stats.errors.sum();
+            return new Row(name, requests, seconds > 0 ? requests / seconds : 0,
+                stats.success.sum(), stats.statusCounts[4].sum(), stats.statusCounts[5].sum(), stats.errors.sum(),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
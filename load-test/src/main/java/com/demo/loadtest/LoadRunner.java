@@ -0,0 +1,88 @@
+package com.demo.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the workload with one virtual thread per simulated client
+ *
+ * Closed loop (rate = 0): each worker sends its next request as soon as the previous completes.
+ * Fixed rate (rate > 0): each worker owns an equal share of the rate on a fixed schedule, and
+ * latency is measured from the scheduled send time, so a stalled server shows up in the
+ * percentiles instead of silently lowering the offered load (coordinated omission).
+ */
+public final class LoadRunner {
+
+    private final HttpClient client;
+    private final Workload workload;
+    private final RequestFactory requests;
+    private final int concurrency;
+    private final int rate;
+
+    public LoadRunner(HttpClient client, Workload workload, RequestFactory requests, int concurrency, int rate) {
+        this.client = client;
+        this.workload = workload;
+        this.requests = requests;
+        this.concurrency = concurrency;
+        this.rate = rate;
+    }
+
+    /**
+     * Run the workload for the given duration and return what was recorded
+     */
+    public LatencyReport run(Duration duration) throws InterruptedException {
+        LatencyReport report = new LatencyReport(workload.endpoints());
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        long intervalNanos = rate > 0 ? (long) (1e9 * concurrency / rate) : 0;
+
+        List<Thread> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            // Stagger fixed-rate workers so their sends are spread over the interval
+            long firstSend = start + (intervalNanos * i) / concurrency;
+            workers.add(Thread.ofVirtual().name("load-", i).start(() -> work(report, firstSend, intervalNanos, deadline)));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return report;
+    }
+
+    private void work(LatencyReport report, long firstSend, long intervalNanos, long deadline) {
+        long scheduled = firstSend;
+        while (true) {
+            long now = System.nanoTime();
+            if (intervalNanos > 0) {
+                if (scheduled >= deadline) {
+                    return;
+                }
+                if (scheduled > now) {
+                    LockSupport.parkNanos(scheduled - now);
+                }
+            } else {
+                if (now >= deadline) {
+                    return;
+                }
+                scheduled = now;
+            }
+
+            Endpoint endpoint = workload.next();
+            HttpRequest request = requests.create(endpoint);
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                report.recordResponse(endpoint, response.statusCode(), System.nanoTime() - scheduled);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                report.recordError(endpoint);
+            }
+            scheduled += intervalNanos;
+        }
+    }
+}
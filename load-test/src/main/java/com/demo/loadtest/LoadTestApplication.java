@@ -0,0 +1,88 @@
+package com.demo.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * End-to-end load test for gateway + backend without live Clerk or Supabase
+ *
+ * 1. Generate a signing key and tokens for the synthetic users
+ * 2. Serve the key from a local JWKS endpoint (point the gateway's CLERK_JWKS_URL at it)
+ * 3. Optionally seed Postgres with matching users, organizations and memberships
+ * 4. Wait until the gateway accepts the tokens, warm up, then run the measured mix
+ * 5. Print per-endpoint throughput and latency percentiles (and optionally write a CSV)
+ */
+public final class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        Workload workload = new Workload(config.mix());
+
+        System.out.printf("Minting tokens for %d users across %d organizations...%n", config.users(), config.orgs());
+        Duration tokenTtl = config.warmup().plus(config.duration()).plus(Duration.ofMinutes(10));
+        SyntheticTenants tenants = new SyntheticTenants(config.users(), config.orgs(), config.issuer(), tokenTtl);
+
+        try (JwksServer jwksServer = new JwksServer(config.jwksPort(), tenants.jwksJson())) {
+            System.out.printf("JWKS served at %s (gateway needs CLERK_JWKS_URL=%s CLERK_ISSUER=%s)%n",
+                config.jwksUrl(), config.jwksUrl(), config.issuer());
+
+            if (!config.jdbcUrl().isEmpty()) {
+                System.out.printf("Seeding %s...%n", config.jdbcUrl());
+                new DatabaseSeeder(config.jdbcUrl(), config.dbUser(), config.dbPassword()).seed(tenants);
+            }
+
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+            RequestFactory requests = new RequestFactory(config.gatewayUrl(), tenants, new SvixSigner(config.webhookSecret()));
+            awaitGateway(client, requests);
+
+            LoadRunner runner = new LoadRunner(client, workload, requests, config.concurrency(), config.rate());
+            if (!config.warmup().isZero()) {
+                System.out.printf("Warming up for %s...%n", config.warmup());
+                runner.run(config.warmup());
+            }
+
+            System.out.printf("Running %s with %d workers (%s)...%n", config.duration(), config.concurrency(),
+                config.rate() > 0 ? config.rate() + " req/s" : "closed loop");
+            long start = System.nanoTime();
+            LatencyReport report = runner.run(config.duration());
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            System.out.println();
+            report.print(System.out, elapsed);
+            if (!config.reportFile().isEmpty()) {
+                report.writeCsv(Path.of(config.reportFile()), elapsed);
+                System.out.printf("%nReport written to %s%n", config.reportFile());
+            }
+        }
+    }
+
+    /**
+     * Wait until the gateway has fetched this run's key (it treats the new kid as a rotation)
+     */
+    private static void awaitGateway(HttpClient client, RequestFactory requests) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(90).toNanos();
+        int lastStatus = -1;
+        while (System.nanoTime() < deadline) {
+            try {
+                lastStatus = client.send(requests.readinessProbe(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (lastStatus != 401 && lastStatus != 503) {
+                    System.out.printf("Gateway ready (GET /api/me -> %d)%n", lastStatus);
+                    return;
+                }
+            } catch (Exception e) {
+                lastStatus = -1;
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("Gateway did not accept load-test tokens within 90s (last status "
+            + lastStatus + "); check CLERK_JWKS_URL and CLERK_ISSUER");
+    }
+}
@@ -0,0 +1,93 @@
+package com.demo.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from --key=value arguments with LOADTEST_* environment fallbacks
+ *
+ * Example: --users=5000 --orgs=200 --concurrency=128 --duration=PT2M --mix=me=60,webhook=5
+ *
+ * @param gatewayUrl     Base URL of the API gateway
+ * @param jwksPort       Port of the local JWKS server (the gateway's CLERK_JWKS_URL must point at it)
+ * @param issuer         Token issuer (must equal the gateway's CLERK_ISSUER)
+ * @param users          Number of synthetic users
+ * @param orgs           Number of synthetic organizations (users are spread round-robin)
+ * @param concurrency    Concurrent virtual-thread workers
+ * @param warmup         Warm-up period, not included in the report
+ * @param duration       Measured period
+ * @param rate           Target requests per second across all workers, 0 for closed-loop (as fast as possible)
+ * @param mix            Endpoint weights, e.g. me=40,users=10,organizations=20,organization=15,memberships=10,webhook=5
+ * @param jdbcUrl        Postgres to seed (empty to skip seeding)
+ * @param dbUser         Postgres user
+ * @param dbPassword     Postgres password
+ * @param webhookSecret  Clerk webhook secret (whsec_...), must equal the backend's CLERK_WEBHOOK_SECRET
+ * @param reportFile     Optional CSV file for the per-endpoint report
+ */
+public record LoadTestConfig(
+        String gatewayUrl,
+        int jwksPort,
+        String issuer,
+        int users,
+        int orgs,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        int rate,
+        String mix,
+        String jdbcUrl,
+        String dbUser,
+        String dbPassword,
+        String webhookSecret,
+        String reportFile) {
+
+    /** Default webhook secret: whsec_ + base64("load-test-webhook-secret") */
+    public static final String DEFAULT_WEBHOOK_SECRET = "whsec_bG9hZC10ZXN0LXdlYmhvb2stc2VjcmV0";
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        Settings settings = new Settings(values);
+        return new LoadTestConfig(
+            settings.get("gateway-url", "http://localhost:8080"),
+            Integer.parseInt(settings.get("jwks-port", "9999")),
+            settings.get("issuer", "https://load-test.clerk.local"),
+            Integer.parseInt(settings.get("users", "1000")),
+            Integer.parseInt(settings.get("orgs", "100")),
+            Integer.parseInt(settings.get("concurrency", "64")),
+            Duration.parse(settings.get("warmup", "PT10S")),
+            Duration.parse(settings.get("duration", "PT60S")),
+            Integer.parseInt(settings.get("rate", "0")),
+            settings.get("mix", "me=40,users=10,organizations=20,organization=15,memberships=10,webhook=5"),
+            settings.get("jdbc-url", ""),
+            settings.get("db-user", "appuser"),
+            settings.get("db-password", "apppass"),
+            settings.get("webhook-secret", DEFAULT_WEBHOOK_SECRET),
+            settings.get("report", ""));
+    }
+
+    public String jwksUrl() {
+        return "http://localhost:" + jwksPort + "/v1/jwks";
+    }
+
+    /**
+     * Argument value, then LOADTEST_<KEY> environment variable, then default
+     */
+    private record Settings(Map<String, String> args) {
+        String get(String key, String defaultValue) {
+            String value = args.get(key);
+            if (value == null) {
+                value = System.getenv("LOADTEST_" + key.toUpperCase().replace('-', '_'));
+            }
+            return value != null && !value.isBlank() ? value : defaultValue;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.demo.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds gateway requests for a randomly chosen synthetic user
+ *
+ * Webhooks alternate between user.updated and organization.updated for seeded
+ * users and organizations, each with a unique svix-id and a valid signature.
+ */
+public final class RequestFactory {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String gatewayUrl;
+    private final List<SyntheticTenants.User> users;
+    private final SvixSigner signer;
+    private final AtomicLong webhookSequence = new AtomicLong();
+
+    public RequestFactory(String gatewayUrl, SyntheticTenants tenants, SvixSigner signer) {
+        this.gatewayUrl = gatewayUrl.endsWith("/") ? gatewayUrl.substring(0, gatewayUrl.length() - 1) : gatewayUrl;
+        this.users = tenants.users();
+        this.signer = signer;
+    }
+
+    public HttpRequest create(Endpoint endpoint) {
+        SyntheticTenants.User user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+        return switch (endpoint) {
+            case ME -> authenticatedGet("/api/me", user);
+            case USERS -> authenticatedGet("/api/users", user);
+            case ORGANIZATIONS -> authenticatedGet("/api/organizations", user);
+            case ORGANIZATION -> authenticatedGet("/api/organizations/clerk/" + user.org().clerkOrgId(), user);
+            case MEMBERSHIPS -> authenticatedGet("/api/organizations/memberships", user);
+            case WEBHOOK -> webhook(user);
+        };
+    }
+
+    /**
+     * A request that must succeed once the gateway has picked up this run's signing key
+     */
+    public HttpRequest readinessProbe() {
+        return authenticatedGet("/api/me", users.get(0));
+    }
+
+    private HttpRequest authenticatedGet(String path, SyntheticTenants.User user) {
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Authorization", "Bearer " + user.token())
+            .GET()
+            .build();
+    }
+
+    private HttpRequest webhook(SyntheticTenants.User user) {
+        long sequence = webhookSequence.incrementAndGet();
+        long timestamp = System.currentTimeMillis() / 1000;
+        String svixId = "msg_lt_" + timestamp + "_" + sequence;
+        String body = sequence % 2 == 0 ? userUpdated(user, sequence, timestamp) : organizationUpdated(user.org(), sequence, timestamp);
+
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + "/api/webhooks/clerk"))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .header("svix-id", svixId)
+            .header("svix-timestamp", Long.toString(timestamp))
+            .header("svix-signature", signer.sign(svixId, timestamp, body))
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private static String userUpdated(SyntheticTenants.User user, long sequence, long timestamp) {
+        return "{\"object\":\"event\",\"type\":\"user.updated\",\"timestamp\":" + timestamp * 1000 + ","
+            + "\"data\":{\"id\":\"" + user.clerkUserId() + "\",\"object\":\"user\","
+            + "\"first_name\":\"" + user.firstName() + "\",\"last_name\":\"" + user.lastName() + " #" + sequence + "\","
+            + "\"email_addresses\":[{\"email_address\":\"" + user.email() + "\"}]}}";
+    }
+
+    private static String organizationUpdated(SyntheticTenants.Organization org, long sequence, long timestamp) {
+        return "{\"object\":\"event\",\"type\":\"organization.updated\",\"timestamp\":" + timestamp * 1000 + ","
+            + "\"data\":{\"id\":\"" + org.clerkOrgId() + "\",\"object\":\"organization\","
+            + "\"name\":\"" + org.name() + " #" + sequence + "\",\"slug\":\"" + org.slug() + "\"}}";
+    }
+}
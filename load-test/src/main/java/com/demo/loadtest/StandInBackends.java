@@ -0,0 +1,111 @@
+package com.demo.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Backend stand-ins on several ports for exercising gateway load balancing locally
+ *
+ * Every request gets a small JSON body naming the instance, after a configurable latency.
+ * Selected ports can be made slow or failing to watch least-outstanding balancing and
+ * passive ejection at work, and a share of requests on every port can stall (50x latency,
+ * like a GC pause) to exercise hedging; request counts per port are printed every 5 seconds.
+ *
+ * java -cp target/load-test.jar com.demo.loadtest.StandInBackends \
+ *   --ports=8091,8092,8093 --latency=PT0.02S --slow-ports=8092 --failing-ports=8093 --stall-percent=2
+ */
+public final class StandInBackends {
+
+    private StandInBackends() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        List<Integer> ports = parsePorts(options.getOrDefault("ports", "8091,8092,8093"));
+        Duration latency = Duration.parse(options.getOrDefault("latency", "PT0.02S"));
+        Set<Integer> slowPorts = Set.copyOf(parsePorts(options.getOrDefault("slow-ports", "")));
+        Set<Integer> failingPorts = Set.copyOf(parsePorts(options.getOrDefault("failing-ports", "")));
+        double stallPercent = Double.parseDouble(options.getOrDefault("stall-percent", "0"));
+
+        Map<Integer, LongAdder> counts = new HashMap<>();
+        for (int port : ports) {
+            LongAdder count = new LongAdder();
+            counts.put(port, count);
+            Duration portLatency = slowPorts.contains(port) ? latency.multipliedBy(10) : latency;
+            start(port, portLatency, failingPorts.contains(port), stallPercent / 100, count);
+        }
+        System.out.printf("Stand-in backends on %s (latency %s, slow %s, failing %s, stalls %s%%)%n",
+            ports, latency, slowPorts, failingPorts, stallPercent);
+        System.out.printf("Gateway: GATEWAY_BACKEND_INSTANCES=%s%n", ports.stream().map(p -> "http://localhost:" + p).toList()
+            .toString().replaceAll("[\\[\\] ]", ""));
+
+        while (true) {
+            Thread.sleep(5000);
+            StringBuilder line = new StringBuilder("Requests per port:");
+            for (int port : ports) {
+                line.append(' ').append(port).append('=').append(counts.get(port).sumThenReset());
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static void start(int port, Duration latency, boolean failing, double stallRate, LongAdder count)
+            throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            count.increment();
+            exchange.getRequestBody().readAllBytes();
+            try {
+                // +-20% jitter so instances are not in lockstep
+                long nanos = latency.toNanos();
+                if (ThreadLocalRandom.current().nextDouble() < stallRate) {
+                    nanos *= 50;
+                }
+                Thread.sleep(Duration.ofNanos(nanos + ThreadLocalRandom.current().nextLong(-nanos / 5, nanos / 5 + 1)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int status = failing ? 503 : 200;
+            byte[] body = ("{\"instance\":" + port + ",\"path\":\"" + exchange.getRequestURI().getPath() + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    private static List<Integer> parsePorts(String value) {
+        List<Integer> ports = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (!part.isBlank()) {
+                ports.add(Integer.parseInt(part.trim()));
+            }
+        }
+        return ports;
+    }
+}
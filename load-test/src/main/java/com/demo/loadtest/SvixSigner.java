@@ -0,0 +1,39 @@
+package com.demo.loadtest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Signs webhook payloads the way Clerk (Svix) does
+ *
+ * svix-signature = "v1," + base64(HMAC-SHA256(secret, svix-id + "." + svix-timestamp + "." + body))
+ */
+public final class SvixSigner {
+
+    private final ThreadLocal<Mac> mac;
+
+    public SvixSigner(String webhookSecret) {
+        byte[] secret = webhookSecret.startsWith("whsec_")
+            ? Base64.getDecoder().decode(webhookSecret.substring(6))
+            : webhookSecret.getBytes(StandardCharsets.UTF_8);
+        SecretKeySpec key = new SecretKeySpec(secret, "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public String sign(String svixId, long timestampSeconds, String body) {
+        String signedContent = svixId + "." + timestampSeconds + "." + body;
+        byte[] signature = mac.get().doFinal(signedContent.getBytes(StandardCharsets.UTF_8));
+        return "v1," + Base64.getEncoder().encodeToString(signature);
+    }
+}
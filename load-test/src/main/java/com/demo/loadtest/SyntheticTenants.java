@@ -0,0 +1,119 @@
+package com.demo.loadtest;
+
+import io.jsonwebtoken.Jwts;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Synthetic users and organizations with Clerk-shaped session tokens
+ *
+ * Users are spread round-robin over organizations; the first member of each
+ * organization is its admin. Tokens are signed with a key generated for this run
+ * and published by JwksServer under a per-run kid, so the gateway picks it up as
+ * a key rotation without a restart.
+ */
+public final class SyntheticTenants {
+
+    public record Organization(String clerkOrgId, String name, String slug) {}
+
+    public record User(String clerkUserId, String email, String firstName, String lastName,
+                       Organization org, boolean admin, String token) {}
+
+    private final KeyPair keyPair;
+    private final String kid;
+    private final List<Organization> organizations;
+    private final List<User> users;
+
+    public SyntheticTenants(int userCount, int orgCount, String issuer, Duration tokenTtl) {
+        this.keyPair = generateKeyPair();
+        this.kid = "ins_load_test_" + System.currentTimeMillis();
+
+        List<Organization> orgs = new ArrayList<>(orgCount);
+        for (int i = 0; i < orgCount; i++) {
+            String suffix = String.format("%05d", i);
+            orgs.add(new Organization("org_lt_" + suffix, "Load Test Org " + suffix, "load-test-org-" + suffix));
+        }
+        this.organizations = List.copyOf(orgs);
+
+        Date issuedAt = new Date();
+        Date expiresAt = new Date(issuedAt.getTime() + tokenTtl.toMillis());
+        List<User> created = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            String suffix = String.format("%06d", i);
+            String clerkUserId = "user_lt_" + suffix;
+            Organization org = organizations.get(i % orgCount);
+            boolean admin = i < orgCount;
+            String token = mint(clerkUserId, org, admin, issuer, issuedAt, expiresAt);
+            created.add(new User(clerkUserId, "load.test." + suffix + "@example.com",
+                "Load", "User " + suffix, org, admin, token));
+        }
+        this.users = List.copyOf(created);
+    }
+
+    public List<Organization> organizations() {
+        return organizations;
+    }
+
+    public List<User> users() {
+        return users;
+    }
+
+    /**
+     * JWKS document publishing this run's public key, as Clerk's /v1/jwks does
+     */
+    public String jwksJson() {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        return "{\"keys\":[{\"use\":\"sig\",\"kty\":\"RSA\",\"kid\":\"" + kid + "\",\"alg\":\"RS256\","
+            + "\"n\":\"" + base64Url(publicKey.getModulus()) + "\","
+            + "\"e\":\"" + base64Url(publicKey.getPublicExponent()) + "\"}]}";
+    }
+
+    private String mint(String userId, Organization org, boolean admin, String issuer, Date issuedAt, Date expiresAt) {
+        List<String> permissions = admin
+            ? List.of("org:sys_memberships:read", "org:sys_memberships:manage")
+            : List.of("org:sys_memberships:read");
+        return Jwts.builder()
+            .header().keyId(kid).and()
+            .issuer(issuer)
+            .subject(userId)
+            .claim("sid", "sess_" + userId)
+            .claim("azp", "http://localhost:3000")
+            .claim("org_id", org.clerkOrgId())
+            .claim("org_role", admin ? "org:admin" : "org:member")
+            .claim("org_slug", org.slug())
+            .claim("org_permissions", permissions)
+            .issuedAt(issuedAt)
+            .notBefore(new Date(issuedAt.getTime() - 10_000))
+            .expiration(expiresAt)
+            .signWith(keyPair.getPrivate())
+            .compact();
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,57 @@
+package com.demo.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted endpoint mix, e.g. "me=40,users=10,webhook=5"
+ */
+public final class Workload {
+
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    public Workload(String mix) {
+        List<Endpoint> parsedEndpoints = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint=weight in mix, got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                parsedEndpoints.add(Endpoint.fromKey(parts[0].trim()));
+                weights.add(weight);
+            }
+        }
+        if (parsedEndpoints.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no endpoints with a positive weight: " + mix);
+        }
+
+        this.endpoints = parsedEndpoints.toArray(new Endpoint[0]);
+        this.cumulativeWeights = new int[weights.size()];
+        int sum = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            sum += weights.get(i);
+            cumulativeWeights[i] = sum;
+        }
+        this.totalWeight = sum;
+    }
+
+    public Endpoint next() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    public List<Endpoint> endpoints() {
+        return List.of(endpoints);
+    }
+}